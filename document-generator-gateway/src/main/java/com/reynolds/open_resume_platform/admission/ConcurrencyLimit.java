@@ -0,0 +1,26 @@
+package com.reynolds.open_resume_platform.admission;
+
+/**
+ * Decides how many renders may run against Pandoc at once. Implementations are called by
+ * {@link RenderAdmissionControl} while it holds its lock, so they need no synchronisation of their own.
+ */
+public interface ConcurrencyLimit {
+
+    int limit();
+
+    /**
+     * Records a finished render.
+     *
+     * @param rttNanos how long the render took
+     * @param inFlight renders in flight when this one finished, including itself
+     * @param dropped  whether the render failed or timed out
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+
+    /**
+     * The latency the limit is currently measured against, or 0 if it does not use one.
+     */
+    default long rttBaselineNanos() {
+        return 0;
+    }
+}
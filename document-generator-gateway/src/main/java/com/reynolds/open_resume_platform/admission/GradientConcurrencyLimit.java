@@ -0,0 +1,79 @@
+package com.reynolds.open_resume_platform.admission;
+
+/**
+ * Gradient-based adaptive limit. A slow moving average of render latency is the baseline; each sample
+ * scales the limit by {@code baseline * tolerance / sample} (capped at 1), and a headroom of
+ * {@code sqrt(limit)} lets the limit probe upward while latency stays near the baseline.
+ * Failed renders cut the limit multiplicatively. The limit only grows while it is actually being used,
+ * so an idle gateway does not drift up to the maximum.
+ */
+public class GradientConcurrencyLimit implements ConcurrencyLimit {
+
+    /** Weight of each sample in the baseline; small so the baseline tracks the long-term latency. */
+    private static final double BASELINE_ALPHA = 0.05;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private double estimatedLimit;
+    private double baselineNanos;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= maxLimit");
+        }
+        if (tolerance < 1.0) {
+            throw new IllegalArgumentException("tolerance must be at least 1.0");
+        }
+        if (smoothing <= 0.0 || smoothing > 1.0) {
+            throw new IllegalArgumentException("smoothing must be in (0, 1]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    @Override
+    public int limit() {
+        return (int) estimatedLimit;
+    }
+
+    @Override
+    public long rttBaselineNanos() {
+        return (long) baselineNanos;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * DROP_BACKOFF);
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (baselineNanos == 0) {
+            baselineNanos = rttNanos;
+        } else {
+            baselineNanos += BASELINE_ALPHA * (rttNanos - baselineNanos);
+        }
+        // Let the baseline recover quickly after a period of high latency
+        if (baselineNanos > 2 * rttNanos) {
+            baselineNanos = 2.0 * rttNanos;
+        }
+
+        double gradient = Math.clamp(baselineNanos * tolerance / rttNanos, MIN_GRADIENT, 1.0);
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        if (inFlight < estimatedLimit / 2) {
+            newLimit = Math.min(newLimit, estimatedLimit);
+        }
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.clamp(newLimit, minLimit, maxLimit);
+    }
+}
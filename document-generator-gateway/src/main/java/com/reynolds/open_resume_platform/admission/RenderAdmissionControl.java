@@ -0,0 +1,207 @@
+package com.reynolds.open_resume_platform.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the number of concurrent Pandoc renders and the number of callers waiting for one.
+ * Callers beyond the queue bound are rejected at once unless a slot is free, with a Retry-After
+ * estimated from the recent average render time and the current backlog. The concurrency bound comes from a
+ * {@link ConcurrencyLimit}, which is either fixed or adapts to observed render latency.
+ */
+@Component
+public class RenderAdmissionControl {
+
+    /** Weight of the newest sample in the average render time. */
+    private static final double SERVICE_TIME_ALPHA = 0.2;
+    private static final long INITIAL_SERVICE_TIME_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrencyLimit concurrencyLimit;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private int inFlight;
+    private int waiting;
+    private double averageServiceNanos = INITIAL_SERVICE_TIME_NANOS;
+
+    private final Timer waitTimer;
+    private final Counter rejections;
+
+    public RenderAdmissionControl(RenderAdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.concurrencyLimit = createLimit(properties);
+        this.maxQueued = properties.maxQueued();
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.waitTimer = Timer.builder("gateway.render.admission.wait").register(meterRegistry);
+        this.rejections = Counter.builder("gateway.render.admission.rejections").register(meterRegistry);
+        Gauge.builder("gateway.render.admission.queue-depth", this, RenderAdmissionControl::queueDepth).register(meterRegistry);
+        Gauge.builder("gateway.render.admission.in-flight", this, RenderAdmissionControl::inFlight).register(meterRegistry);
+        Gauge.builder("gateway.render.admission.limit", this, RenderAdmissionControl::limit).register(meterRegistry);
+        Gauge.builder("gateway.render.admission.rtt.baseline", this, admission -> admission.rttBaselineNanos() / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    private static ConcurrencyLimit createLimit(RenderAdmissionProperties properties) {
+        RenderAdmissionProperties.Adaptive adaptive = properties.adaptive();
+        if (adaptive == null || !adaptive.enabled()) {
+            return new FixedConcurrencyLimit(properties.maxConcurrent());
+        }
+        return new GradientConcurrencyLimit(properties.maxConcurrent(), adaptive.minLimit(), adaptive.maxLimit(),
+                adaptive.tolerance(), adaptive.smoothing());
+    }
+
+    /**
+     * Waits for a render slot.
+     *
+     * @throws RenderRejectedException if the queue is full or no slot frees up within the maximum wait
+     */
+    public RenderPermit acquire() {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            boolean slotFree = inFlight < concurrencyLimit.limit();
+            // Queue behind earlier waiters while there is room; a full queue only turns callers away when
+            // there is no free slot to hand out either
+            if (!slotFree || waiting > 0) {
+                if (waiting < maxQueued) {
+                    waitForSlot();
+                } else if (!slotFree) {
+                    throw reject("Render queue is full");
+                }
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Permit(System.nanoTime());
+    }
+
+    public int queueDepth() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return concurrencyLimit.limit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long rttBaselineNanos() {
+        lock.lock();
+        try {
+            return concurrencyLimit.rttBaselineNanos();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void waitForSlot() {
+        waiting++;
+        try {
+            long remaining = maxWaitNanos;
+            while (inFlight >= concurrencyLimit.limit()) {
+                if (remaining <= 0) {
+                    throw reject("Timed out waiting for a render slot");
+                }
+                remaining = slotFreed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            // Pass on a signal this waiter may have consumed
+            slotFreed.signal();
+            Thread.currentThread().interrupt();
+            throw reject("Interrupted waiting for a render slot");
+        } finally {
+            waiting--;
+        }
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private RenderRejectedException reject(String message) {
+        rejections.increment();
+        double backlogRounds = (double) (waiting + 1) / concurrencyLimit.limit();
+        long retryAfterNanos = (long) Math.ceil(backlogRounds * averageServiceNanos);
+        Duration retryAfter = Duration.ofNanos(Math.max(retryAfterNanos, TimeUnit.SECONDS.toNanos(1)));
+        return new RenderRejectedException(message, retryAfter);
+    }
+
+    private void release(long serviceNanos, boolean dropped) {
+        lock.lock();
+        try {
+            concurrencyLimit.onSample(serviceNanos, inFlight, dropped);
+            inFlight--;
+            if (!dropped) {
+                averageServiceNanos += SERVICE_TIME_ALPHA * (serviceNanos - averageServiceNanos);
+            }
+            // The limit may have grown, so wake one waiter per free slot
+            int freeSlots = Math.min(concurrencyLimit.limit() - inFlight, waiting);
+            for (int i = 0; i < freeSlots; i++) {
+                slotFreed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class Permit implements RenderPermit {
+
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long renderedNanos;
+        private volatile boolean dropped;
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void markRendered() {
+            if (renderedNanos == 0) {
+                renderedNanos = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void markDropped() {
+            dropped = true;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                long endNanos = renderedNanos != 0 ? renderedNanos : System.nanoTime();
+                release(endNanos - startNanos, dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.reynolds.open_resume_platform.admission;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Limits how many renders run against Pandoc at once and how many may wait for a slot.
+ * With {@code adaptive.enabled} the concurrency limit starts at {@code maxConcurrent} and is then
+ * adjusted between {@code adaptive.minLimit} and {@code adaptive.maxLimit} from observed render latency.
+ */
+@ConfigurationProperties(prefix = "render.admission")
+@Validated
+public record RenderAdmissionProperties(
+        @DefaultValue("8") @Min(1) int maxConcurrent,
+        @DefaultValue("32") @Min(0) int maxQueued,
+        @DefaultValue("10s") Duration maxWait,
+        @DefaultValue Adaptive adaptive
+) {
+
+    /**
+     * @param tolerance how much slower than the baseline a render may get before the limit is reduced
+     * @param smoothing weight of each new limit estimate, between 0 and 1
+     */
+    public record Adaptive(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("1") @Min(1) int minLimit,
+            @DefaultValue("64") @Min(1) int maxLimit,
+            @DefaultValue("2.0") double tolerance,
+            @DefaultValue("0.2") double smoothing
+    ) {
+    }
+}
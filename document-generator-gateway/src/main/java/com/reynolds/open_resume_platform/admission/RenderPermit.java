@@ -0,0 +1,22 @@
+package com.reynolds.open_resume_platform.admission;
+
+/**
+ * A slot to run one render against Pandoc. Closing the permit releases the slot; closing it more than once has no effect.
+ * The time from acquiring the permit to {@link #markRendered()} (or to closing it) is reported as the render latency.
+ */
+public interface RenderPermit extends AutoCloseable {
+
+    /**
+     * Ends the latency measurement without releasing the slot, e.g. once Pandoc has answered
+     * but the response is still being streamed to the client.
+     */
+    void markRendered();
+
+    /**
+     * Reports the render as failed, which makes an adaptive limit back off.
+     */
+    void markDropped();
+
+    @Override
+    void close();
+}
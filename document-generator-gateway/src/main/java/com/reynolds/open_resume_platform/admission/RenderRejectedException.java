@@ -0,0 +1,20 @@
+package com.reynolds.open_resume_platform.admission;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a render cannot be admitted because the wait queue is full or the wait timed out.
+ */
+public class RenderRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RenderRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
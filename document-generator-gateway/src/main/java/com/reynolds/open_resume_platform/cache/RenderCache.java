@@ -0,0 +1,100 @@
+package com.reynolds.open_resume_platform.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-aware LRU cache of rendered documents, keyed by {@link RenderKey}.
+ * Entries are evicted least-recently-used first once the total cached bytes exceed the budget.
+ * A lock is used rather than {@code synchronized} so virtual threads are not pinned while waiting.
+ */
+@Component
+public class RenderCache {
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<RenderKey, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public RenderCache(RenderCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.maxBytes = properties.maxBytes().toBytes();
+        this.maxEntryBytes = Math.min(properties.maxEntryBytes().toBytes(), maxBytes);
+        this.hits = Counter.builder("gateway.render.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("gateway.render.cache.misses").register(meterRegistry);
+        this.evictions = Counter.builder("gateway.render.cache.evictions").register(meterRegistry);
+        Gauge.builder("gateway.render.cache.bytes", this, RenderCache::totalBytes).register(meterRegistry);
+        Gauge.builder("gateway.render.cache.entries", this, RenderCache::size).register(meterRegistry);
+    }
+
+    public Optional<byte[]> get(RenderKey key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        byte[] content;
+        lock.lock();
+        try {
+            content = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        (content != null ? hits : misses).increment();
+        return Optional.ofNullable(content);
+    }
+
+    /**
+     * Stores a rendered document. Empty documents and documents larger than the per-entry limit are not cached.
+     */
+    public void put(RenderKey key, byte[] content) {
+        if (!enabled || content == null || content.length == 0 || content.length > maxEntryBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            byte[] previous = entries.put(key, content);
+            totalBytes += content.length - (previous != null ? previous.length : 0);
+            Iterator<Map.Entry<RenderKey, byte[]>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<RenderKey, byte[]> entry = eldest.next();
+                totalBytes -= entry.getValue().length;
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long totalBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
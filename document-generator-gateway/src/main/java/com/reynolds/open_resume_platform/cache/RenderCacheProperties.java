@@ -0,0 +1,14 @@
+package com.reynolds.open_resume_platform.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "render.cache")
+@Validated
+public record RenderCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("64MB") DataSize maxBytes,
+        @DefaultValue("4MB") DataSize maxEntryBytes
+) {}
@@ -0,0 +1,16 @@
+package com.reynolds.open_resume_platform.cache;
+
+import com.reynolds.open_resume_platform.digest.ContentDigests;
+import com.reynolds.open_resume_platform.portal.dto.FileType;
+
+/**
+ * Content address of a render: a digest of the markdown, the template id and the output file type.
+ * Two requests with the same key produce byte-for-byte the same document.
+ */
+public record RenderKey(String value) {
+
+    public static RenderKey of(String templateId, FileType fileType, String cvMarkdown) {
+        String digest = ContentDigests.sha256Hex(cvMarkdown);
+        return new RenderKey(ContentDigests.sha256Hex(templateId, fileType.name(), digest));
+    }
+}
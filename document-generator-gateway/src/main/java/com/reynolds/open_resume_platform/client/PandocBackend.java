@@ -0,0 +1,120 @@
+package com.reynolds.open_resume_platform.client;
+
+import org.springframework.web.client.RestClient;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One Pandoc server and the gateway's view of it: requests outstanding, recent failures,
+ * whether it is ejected, and which reference docs it already holds.
+ */
+public class PandocBackend {
+
+    private final String url;
+    private final RestClient restClient;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    // Render and health probe failures are counted apart, so a backend that answers /health but fails renders
+    // still reaches the failure threshold
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger consecutiveProbeFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private final Set<String> uploadedDigests = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ejected;
+    private volatile long ejectedUntilNanos;
+    private volatile long admittedAtNanos;
+
+    public PandocBackend(String url, RestClient restClient, long admittedAtNanos) {
+        this.url = url;
+        this.restClient = restClient;
+        this.admittedAtNanos = admittedAtNanos;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public RestClient restClient() {
+        return restClient;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isEjected() {
+        return ejected;
+    }
+
+    public boolean hasUploaded(String digest) {
+        return uploadedDigests.contains(digest);
+    }
+
+    public void markUploaded(String digest) {
+        uploadedDigests.add(digest);
+    }
+
+    public void forgetUploaded(String digest) {
+        uploadedDigests.remove(digest);
+    }
+
+    void acquire() {
+        outstanding.incrementAndGet();
+    }
+
+    public void release() {
+        outstanding.decrementAndGet();
+    }
+
+    int recordFailure() {
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    int recordProbeFailure() {
+        return consecutiveProbeFailures.incrementAndGet();
+    }
+
+    void recordProbeSuccess() {
+        consecutiveProbeFailures.set(0);
+    }
+
+    long admittedAtNanos() {
+        return admittedAtNanos;
+    }
+
+    long ejectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    void eject(long untilNanos) {
+        ejectedUntilNanos = untilNanos;
+        ejected = true;
+    }
+
+    /**
+     * Puts the backend back into rotation. It may have restarted, so previously uploaded reference docs are forgotten.
+     */
+    void readmit(long nowNanos) {
+        uploadedDigests.clear();
+        consecutiveFailures.set(0);
+        consecutiveProbeFailures.set(0);
+        admittedAtNanos = nowNanos;
+        ejected = false;
+    }
+
+    boolean tryStartProbe() {
+        return probing.compareAndSet(false, true);
+    }
+
+    void endProbe() {
+        probing.set(false);
+    }
+}
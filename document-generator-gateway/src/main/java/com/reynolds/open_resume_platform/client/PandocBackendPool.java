@@ -0,0 +1,240 @@
+package com.reynolds.open_resume_platform.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.RestClientException;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Routes renders across the configured Pandoc backends.
+ * <p>
+ * With template affinity enabled, renders for a template go to the template's home backend on a consistent-hash
+ * ring, unless that backend is ejected or already carries more than {@code loadFactor} times the average load
+ * (bounded-load consistent hashing); the render then falls through to the next backend on the ring. The load check
+ * and the acquire are not atomic, so a backend can briefly exceed its bound by a request or two under a burst.
+ * <p>
+ * Otherwise each render goes to the available backend with the fewest outstanding requests, weighted so that a backend
+ * which was just re-admitted only takes a growing share of traffic over the slow-start period. A backend is
+ * ejected after {@code failureThreshold} consecutive failed renders or health probes, and re-admitted once the
+ * ejection time has passed and a {@code /health} probe succeeds. If every backend is ejected, all of them are
+ * used rather than failing every request.
+ */
+public class PandocBackendPool {
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    /** Share of traffic a backend gets at the start of its slow-start period. */
+    private static final double MIN_SLOW_START_WEIGHT = 0.1;
+
+    private final List<PandocBackend> backends;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final long slowStartNanos;
+    private final LongSupplier nanoClock;
+    private final TemplateAffinityRing affinityRing;
+    private final double loadFactor;
+
+    private final Counter ejections;
+    private final Counter affinitySpills;
+
+    public PandocBackendPool(List<PandocBackend> backends, PandocClientProperties.HealthCheck healthCheck,
+                             PandocClientProperties.Affinity affinity, MeterRegistry meterRegistry) {
+        this(backends, healthCheck, affinity, meterRegistry, System::nanoTime);
+    }
+
+    PandocBackendPool(List<PandocBackend> backends, PandocClientProperties.HealthCheck healthCheck,
+                      PandocClientProperties.Affinity affinity, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one Pandoc backend is required");
+        }
+        this.backends = List.copyOf(backends);
+        this.failureThreshold = healthCheck.failureThreshold();
+        this.ejectionNanos = healthCheck.ejectionTime().toNanos();
+        this.slowStartNanos = healthCheck.slowStart().toNanos();
+        this.nanoClock = nanoClock;
+        boolean affinityEnabled = affinity != null && affinity.enabled() && this.backends.size() > 1;
+        this.affinityRing = affinityEnabled ? new TemplateAffinityRing(this.backends, affinity.virtualNodes()) : null;
+        this.loadFactor = affinityEnabled ? Math.max(1.0, affinity.loadFactor()) : 1.0;
+        this.ejections = Counter.builder("gateway.pandoc.backend.ejections").register(meterRegistry);
+        this.affinitySpills = Counter.builder("gateway.pandoc.backend.affinity.spills").register(meterRegistry);
+        for (PandocBackend backend : this.backends) {
+            Gauge.builder("gateway.pandoc.backend.outstanding", backend, PandocBackend::outstanding)
+                    .tag("url", backend.url())
+                    .register(meterRegistry);
+            Gauge.builder("gateway.pandoc.backend.available", backend, b -> b.isEjected() ? 0 : 1)
+                    .tag("url", backend.url())
+                    .register(meterRegistry);
+        }
+    }
+
+    public List<PandocBackend> backends() {
+        return backends;
+    }
+
+    /**
+     * Picks a backend for one request and counts the request as outstanding on it.
+     * The caller must call {@link PandocBackend#release()} when the request is finished.
+     */
+    public PandocBackend acquire() {
+        long now = nanoClock.getAsLong();
+        PandocBackend best = choose(now, false, null);
+        if (best == null) {
+            best = choose(now, true, null);
+        }
+        best.acquire();
+        return best;
+    }
+
+    /**
+     * Like {@link #acquire()}, but prefers the template's home backend when template affinity is enabled.
+     */
+    public PandocBackend acquire(String templateId) {
+        if (affinityRing == null || templateId == null) {
+            return acquire();
+        }
+        long now = nanoClock.getAsLong();
+        int available = 0;
+        int totalOutstanding = 0;
+        for (PandocBackend backend : backends) {
+            if (!backend.isEjected()) {
+                available++;
+                totalOutstanding += backend.outstanding();
+            }
+        }
+        if (available == 0) {
+            return acquire();
+        }
+        double averageLoad = (double) (totalOutstanding + 1) / available;
+
+        boolean home = true;
+        for (PandocBackend backend : affinityRing.preferenceList(templateId)) {
+            if (!backend.isEjected()) {
+                // A backend in slow start only gets its weighted share of the bound
+                double capacity = Math.ceil(loadFactor * averageLoad * weight(backend, now));
+                if (backend.outstanding() < capacity) {
+                    if (!home) {
+                        affinitySpills.increment();
+                    }
+                    backend.acquire();
+                    return backend;
+                }
+            }
+            home = false;
+        }
+        affinitySpills.increment();
+        return acquire();
+    }
+
+    /**
+     * Picks the least loaded available backend other than {@code exclude}, e.g. for a hedged request.
+     *
+     * @return the backend, counted as outstanding, or {@code null} if there is no other available backend
+     */
+    public PandocBackend acquireAlternative(PandocBackend exclude) {
+        PandocBackend best = choose(nanoClock.getAsLong(), false, exclude);
+        if (best != null) {
+            best.acquire();
+        }
+        return best;
+    }
+
+    public void recordSuccess(PandocBackend backend) {
+        backend.recordSuccess();
+    }
+
+    public void recordFailure(PandocBackend backend) {
+        ejectIfFailing(backend, backend.recordFailure(), "render");
+    }
+
+    private void ejectIfFailing(PandocBackend backend, int failures, String kind) {
+        if (failures >= failureThreshold && !backend.isEjected()) {
+            backend.eject(nanoClock.getAsLong() + ejectionNanos);
+            ejections.increment();
+            logger.warn("Ejected Pandoc backend {} after {} consecutive {} failures", backend.url(), failures, kind);
+        }
+    }
+
+    /**
+     * Probes every backend's {@code /health} endpoint. Probes run on virtual threads so one hanging backend
+     * does not delay the others, and a backend is not probed again while its previous probe is still running.
+     */
+    @Scheduled(fixedDelayString = "${pandoc-client-config.health-check.interval:5s}")
+    public void probeAll() {
+        for (PandocBackend backend : backends) {
+            if (backend.tryStartProbe()) {
+                Thread.ofVirtual().name("pandoc-probe").start(() -> {
+                    try {
+                        probe(backend);
+                    } finally {
+                        backend.endProbe();
+                    }
+                });
+            }
+        }
+    }
+
+    void probe(PandocBackend backend) {
+        boolean healthy;
+        try {
+            backend.restClient().get().uri("/health").retrieve().toBodilessEntity();
+            healthy = true;
+        } catch (RestClientException e) {
+            logger.debug("Health probe failed for Pandoc backend {}", backend.url(), e);
+            healthy = false;
+        }
+        onProbeResult(backend, healthy);
+    }
+
+    /**
+     * A probe only answers for {@code /health}: a healthy one re-admits an ejected backend and clears earlier
+     * probe failures, but leaves the count of failed renders alone.
+     */
+    void onProbeResult(PandocBackend backend, boolean healthy) {
+        if (!healthy) {
+            ejectIfFailing(backend, backend.recordProbeFailure(), "health probe");
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        if (backend.isEjected()) {
+            if (now - backend.ejectedUntilNanos() >= 0) {
+                backend.readmit(now);
+                logger.info("Re-admitted Pandoc backend {}", backend.url());
+            }
+        } else {
+            backend.recordProbeSuccess();
+        }
+    }
+
+    private PandocBackend choose(long now, boolean includeEjected, PandocBackend exclude) {
+        PandocBackend best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (PandocBackend backend : backends) {
+            if (backend == exclude || (backend.isEjected() && !includeEjected)) {
+                continue;
+            }
+            double score = (backend.outstanding() + 1) / weight(backend, now);
+            if (score < bestScore) {
+                best = backend;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    double weight(PandocBackend backend, long now) {
+        long sinceAdmitted = now - backend.admittedAtNanos();
+        if (slowStartNanos <= 0 || sinceAdmitted >= slowStartNanos) {
+            return 1.0;
+        }
+        double progress = Math.max(0, (double) sinceAdmitted / slowStartNanos);
+        return MIN_SLOW_START_WEIGHT + (1.0 - MIN_SLOW_START_WEIGHT) * progress;
+    }
+}
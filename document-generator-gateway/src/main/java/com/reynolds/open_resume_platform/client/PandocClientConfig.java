@@ -1,10 +1,16 @@
 package com.reynolds.open_resume_platform.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestClient;
 
+import java.util.List;
+
 @Configuration
+@EnableScheduling
 public class PandocClientConfig {
 
     private final PandocClientProperties pandocClientProperties;
@@ -14,7 +20,18 @@ public class PandocClientConfig {
     }
 
     @Bean
-    public RestClient restClient(RestClient.Builder builder) {
-        return builder.baseUrl(pandocClientProperties.url()).build();
+    public PandocBackendPool pandocBackendPool(RestClient.Builder builder, MeterRegistry meterRegistry) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory();
+        requestFactory.setReadTimeout(pandocClientProperties.readTimeout());
+        // Backends start fully admitted rather than in slow start
+        long admittedAt = System.nanoTime() - pandocClientProperties.healthCheck().slowStart().toNanos();
+        List<PandocBackend> backends = pandocClientProperties.urls().stream()
+                .map(url -> new PandocBackend(url, builder.clone()
+                        .baseUrl(url)
+                        .requestFactory(requestFactory)
+                        .build(), admittedAt))
+                .toList();
+        return new PandocBackendPool(backends, pandocClientProperties.healthCheck(),
+                pandocClientProperties.affinity(), meterRegistry);
     }
 }
@@ -1,11 +1,48 @@
 package com.reynolds.open_resume_platform.client;
 
-import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.util.List;
+
 @ConfigurationProperties(prefix = "pandoc-client-config")
 @Validated
 public record PandocClientProperties(
-        @NotBlank String url
-) {}
+        @NotEmpty List<String> urls,
+        @DefaultValue("60s") Duration readTimeout,
+        @DefaultValue HealthCheck healthCheck,
+        @DefaultValue Affinity affinity
+) {
+
+    /**
+     * @param interval         how often each backend's {@code /health} endpoint is probed
+     * @param failureThreshold consecutive failed renders or probes after which a backend is ejected
+     * @param ejectionTime     minimum time an ejected backend stays out of rotation
+     * @param slowStart        time over which a re-admitted backend ramps up to its full share of traffic
+     */
+    public record HealthCheck(
+            @DefaultValue("5s") Duration interval,
+            @DefaultValue("3") @Min(1) int failureThreshold,
+            @DefaultValue("30s") Duration ejectionTime,
+            @DefaultValue("30s") Duration slowStart
+    ) {
+    }
+
+    /**
+     * Consistent-hash routing on template id, so each template's reference doc stays warm on one backend.
+     *
+     * @param loadFactor   a backend takes no more than this multiple of the average outstanding requests
+     *                     before its templates spill to the next backend on the ring
+     * @param virtualNodes ring positions per backend
+     */
+    public record Affinity(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("1.25") double loadFactor,
+            @DefaultValue("100") @Min(1) int virtualNodes
+    ) {
+    }
+}
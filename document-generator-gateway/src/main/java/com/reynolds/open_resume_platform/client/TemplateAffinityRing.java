@@ -0,0 +1,62 @@
+package com.reynolds.open_resume_platform.client;
+
+import com.reynolds.open_resume_platform.digest.ContentDigests;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring of Pandoc backends, with several virtual nodes per backend so keys spread evenly
+ * and adding or removing a backend only moves the keys next to it on the ring.
+ */
+class TemplateAffinityRing {
+
+    private final NavigableMap<Long, PandocBackend> ring;
+    private final int backendCount;
+
+    TemplateAffinityRing(List<PandocBackend> backends, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be at least 1");
+        }
+        TreeMap<Long, PandocBackend> nodes = new TreeMap<>();
+        for (PandocBackend backend : backends) {
+            for (int i = 0; i < virtualNodes; i++) {
+                nodes.putIfAbsent(hash(backend.url() + "#" + i), backend);
+            }
+        }
+        this.ring = Collections.unmodifiableNavigableMap(nodes);
+        this.backendCount = backends.size();
+    }
+
+    /**
+     * Returns every backend in ring order starting at the key's position, each backend once.
+     * The first element is the key's home backend; the rest are its fallbacks in order.
+     */
+    List<PandocBackend> preferenceList(String key) {
+        Set<PandocBackend> ordered = new LinkedHashSet<>();
+        long position = hash(key);
+        for (PandocBackend backend : ring.tailMap(position, true).values()) {
+            if (ordered.add(backend) && ordered.size() == backendCount) {
+                return new ArrayList<>(ordered);
+            }
+        }
+        for (PandocBackend backend : ring.headMap(position, false).values()) {
+            if (ordered.add(backend) && ordered.size() == backendCount) {
+                break;
+            }
+        }
+        return new ArrayList<>(ordered);
+    }
+
+    private static long hash(String value) {
+        byte[] digest = ContentDigests.newDigest().digest(value.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(digest).getLong();
+    }
+}
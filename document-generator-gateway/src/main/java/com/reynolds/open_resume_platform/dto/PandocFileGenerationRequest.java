@@ -1,5 +1,6 @@
 package com.reynolds.open_resume_platform.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public record PandocFileGenerationRequest(String text, String to, Files files) {
@@ -9,6 +10,15 @@ public record PandocFileGenerationRequest(String text, String to, Files files) {
         return "referenceDoc";
     }
 
-    public record Files(String referenceDoc) {
+    /**
+     * Reference doc for the render. The gateway sends only the digest of a template that was uploaded
+     * to the Pandoc server beforehand; the inline base64 {@code referenceDoc} is still accepted by the server.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Files(String referenceDoc, String referenceDocDigest) {
+
+        public static Files byDigest(String referenceDocDigest) {
+            return new Files(null, referenceDocDigest);
+        }
     }
 }
@@ -1,6 +1,8 @@
 package com.reynolds.open_resume_platform.restcontrollers;
 
+import com.reynolds.open_resume_platform.admission.RenderRejectedException;
 import com.reynolds.open_resume_platform.service.PandocUnavailableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,5 +20,15 @@ public class ApiExceptionHandler {
                 .body(new ErrorBody(ex.getMessage()));
     }
 
+    @ExceptionHandler(RenderRejectedException.class)
+    public ResponseEntity<ErrorBody> handleRenderRejected(RenderRejectedException ex) {
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorBody(ex.getMessage()));
+    }
+
     public record ErrorBody(String message) {}
 }
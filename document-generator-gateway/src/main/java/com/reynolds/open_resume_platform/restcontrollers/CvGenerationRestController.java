@@ -1,9 +1,15 @@
 package com.reynolds.open_resume_platform.restcontrollers;
 
-import com.reynolds.open_resume_platform.MockData;
+import com.reynolds.open_resume_platform.admission.RenderAdmissionControl;
+import com.reynolds.open_resume_platform.admission.RenderPermit;
+import com.reynolds.open_resume_platform.cache.RenderCache;
+import com.reynolds.open_resume_platform.cache.RenderKey;
 import com.reynolds.open_resume_platform.portal.dto.CvGenerationRequest;
 import com.reynolds.open_resume_platform.portal.dto.FileType;
 import com.reynolds.open_resume_platform.service.DocumentGeneratorService;
+import com.reynolds.open_resume_platform.service.PandocStream;
+import com.reynolds.open_resume_platform.service.RenderCoalescer;
+import com.reynolds.open_resume_platform.service.RenderStreamingProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,8 +19,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Optional;
 
 @RestController
 public class CvGenerationRestController {
@@ -23,34 +31,91 @@ public class CvGenerationRestController {
 			.getLogger(MethodHandles.lookup().lookupClass());
 
 	private final DocumentGeneratorService documentGeneratorService;
+	private final RenderCache renderCache;
+	private final RenderCoalescer renderCoalescer;
+	private final RenderStreamingProperties renderStreamingProperties;
+	private final RenderAdmissionControl renderAdmissionControl;
 
-	public CvGenerationRestController(DocumentGeneratorService documentGeneratorService) {
+	public CvGenerationRestController(DocumentGeneratorService documentGeneratorService, RenderCache renderCache,
+									  RenderCoalescer renderCoalescer, RenderStreamingProperties renderStreamingProperties,
+									  RenderAdmissionControl renderAdmissionControl) {
 		this.documentGeneratorService = documentGeneratorService;
+		this.renderCache = renderCache;
+		this.renderCoalescer = renderCoalescer;
+		this.renderStreamingProperties = renderStreamingProperties;
+		this.renderAdmissionControl = renderAdmissionControl;
 	}
 
 	@RequestMapping(value = "/", method = RequestMethod.POST)
-	public ResponseEntity<byte[]> generateCv(@RequestBody CvGenerationRequest cvGenerationRequest) {
+	public ResponseEntity<?> generateCv(@RequestBody CvGenerationRequest cvGenerationRequest) {
 
 		logger.debug("CvGenerationRestController called: {}", cvGenerationRequest);
 
 		String effectiveTemplateId = (cvGenerationRequest.templateId() != null && !cvGenerationRequest.templateId().isBlank())
 				? cvGenerationRequest.templateId()
 				: "default-template";
-		String base64TemplateVal = getBase64TemplateVal(effectiveTemplateId);
 		FileType fileType = cvGenerationRequest.fileType();
+		RenderKey renderKey = RenderKey.of(effectiveTemplateId, fileType, cvGenerationRequest.cvMarkdown());
 
-		byte[] body = documentGeneratorService.callService(
-				base64TemplateVal,
-				fileType.getMessageValue(),
-				cvGenerationRequest.cvMarkdown()
-		);
+		MediaType contentType = MediaType.parseMediaType(fileType.getContentTypeHeader());
+
+		Optional<byte[]> cached = renderCache.get(renderKey);
+		if (cached.isEmpty() && renderStreamingProperties.enabled()) {
+			return streamCv(effectiveTemplateId, fileType, cvGenerationRequest.cvMarkdown(), contentType);
+		}
+
+		// Only the coalescing leader takes a render slot; joined callers wait on its result
+		byte[] body = cached.orElseGet(() -> renderCoalescer.render(renderKey, () -> {
+			byte[] rendered;
+			try (RenderPermit permit = renderAdmissionControl.acquire()) {
+				try {
+					rendered = documentGeneratorService.callService(
+							effectiveTemplateId,
+							fileType.getMessageValue(),
+							cvGenerationRequest.cvMarkdown()
+					);
+				} catch (RuntimeException e) {
+					permit.markDropped();
+					throw e;
+				}
+			}
+			renderCache.put(renderKey, rendered);
+			return rendered;
+		}));
 
 		return ResponseEntity.ok()
-				.contentType(MediaType.parseMediaType(fileType.getContentTypeHeader()))
+				.contentType(contentType)
 				.body(body);
 	}
 
-	private String getBase64TemplateVal(String templateId) {
-		return MockData.CvTemplateDoc.getByTemplateId(templateId).getBase64Encoding();
+	/**
+	 * Copies the Pandoc response straight to the client. The stream is opened before the response is
+	 * committed, so a failing Pandoc call still maps to a normal error response.
+	 */
+	private ResponseEntity<StreamingResponseBody> streamCv(String templateId, FileType fileType, String cvMarkdown,
+														   MediaType contentType) {
+		// The render slot is held until the whole document has been copied to the client
+		RenderPermit permit = renderAdmissionControl.acquire();
+		PandocStream pandocStream;
+		try {
+			pandocStream = documentGeneratorService.openStream(templateId, fileType.getMessageValue(), cvMarkdown);
+		} catch (RuntimeException e) {
+			permit.markDropped();
+			permit.close();
+			throw e;
+		}
+		permit.markRendered();
+		int bufferSize = (int) renderStreamingProperties.bufferSize().toBytes();
+		StreamingResponseBody body = outputStream -> {
+			try (permit; pandocStream) {
+				pandocStream.copyTo(outputStream, bufferSize);
+			}
+		};
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(contentType);
+		if (pandocStream.contentLength() >= 0) {
+			response.contentLength(pandocStream.contentLength());
+		}
+		return response.body(body);
 	}
 }
\ No newline at end of file
@@ -1,14 +1,20 @@
 package com.reynolds.open_resume_platform.service;
 
+import com.reynolds.open_resume_platform.client.PandocBackend;
+import com.reynolds.open_resume_platform.client.PandocBackendPool;
 import com.reynolds.open_resume_platform.dto.PandocFileGenerationRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClientException;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Optional;
+import java.util.function.BiFunction;
 
 @Service
 public class DocumentGeneratorService {
@@ -16,27 +22,112 @@ public class DocumentGeneratorService {
     private static final Logger logger = LoggerFactory
             .getLogger(MethodHandles.lookup().lookupClass());
 
-    private final RestClient restClient;
+    private final PandocBackendPool backendPool;
+    private final ReferenceDocRegistry referenceDocRegistry;
+    private final RenderHedger renderHedger;
 
-    public DocumentGeneratorService(RestClient restClient) {
-        this.restClient = restClient;
+    public DocumentGeneratorService(PandocBackendPool backendPool, ReferenceDocRegistry referenceDocRegistry,
+                                    RenderHedger renderHedger) {
+        this.backendPool = backendPool;
+        this.referenceDocRegistry = referenceDocRegistry;
+        this.renderHedger = renderHedger;
     }
 
-    public byte[] callService(String base64TemplateVal, String fileConversionType, String cvMarkdown) {
-        PandocFileGenerationRequest.Files files = new PandocFileGenerationRequest.Files(base64TemplateVal);
-        PandocFileGenerationRequest pandocFileGenerationRequest =
-                new PandocFileGenerationRequest(cvMarkdown, fileConversionType, files);
-        logger.debug("Preparing Pandoc request...");
+    public byte[] callService(String templateId, String fileConversionType, String cvMarkdown) {
+        return renderHedger.render(templateId, backend -> renderOn(backend, templateId, fileConversionType, cvMarkdown));
+    }
+
+    private byte[] renderOn(PandocBackend backend, String templateId, String fileConversionType, String cvMarkdown) {
         try {
-            return this.restClient.post()
+            return withReferenceDoc(backend, templateId, (target, referenceDoc) -> target.restClient().post()
+                    .uri("/convert")
                     .contentType(MediaType.APPLICATION_JSON)
                     .header("Accept", "application/octet-stream")
-                    .body(pandocFileGenerationRequest)
+                    .body(buildRequest(referenceDoc, fileConversionType, cvMarkdown))
                     .retrieve()
-                    .body(byte[].class);
+                    .body(byte[].class));
+        } finally {
+            backend.release();
+        }
+    }
+
+    /**
+     * Starts a render and returns the Pandoc response without reading its body. Errors are reported
+     * before any of the document is returned, so the caller can still send a proper error response.
+     * The backend counts the render as outstanding until the stream is closed.
+     */
+    public PandocStream openStream(String templateId, String fileConversionType, String cvMarkdown) {
+        PandocBackend backend = backendPool.acquire(templateId);
+        try {
+            PandocStream stream = withReferenceDoc(backend, templateId, (target, referenceDoc) -> target.restClient().post()
+                    .uri("/convert")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Accept", "application/octet-stream")
+                    .body(buildRequest(referenceDoc, fileConversionType, cvMarkdown))
+                    .exchange((request, response) -> {
+                        HttpStatusCode status = response.getStatusCode();
+                        if (status.isError()) {
+                            try (response) {
+                                byte[] errorBody = response.getBody().readAllBytes();
+                                throw status.is4xxClientError()
+                                        ? HttpClientErrorException.create(status, response.getStatusText(), response.getHeaders(), errorBody, null)
+                                        : HttpServerErrorException.create(status, response.getStatusText(), response.getHeaders(), errorBody, null);
+                            }
+                        }
+                        return new PandocStream(response.getBody(), response.getHeaders().getContentLength(), response);
+                    }, false));
+            return new PandocStream(stream.body(), stream.contentLength(), () -> {
+                try {
+                    stream.close();
+                } finally {
+                    backend.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            backend.release();
+            throw e;
+        }
+    }
+
+    private <T> T withReferenceDoc(PandocBackend backend, String templateId,
+                                   BiFunction<PandocBackend, Optional<ReferenceDoc>, T> call) {
+        Optional<ReferenceDoc> referenceDoc = referenceDocRegistry.resolve(templateId);
+        logger.debug("Preparing Pandoc request for {}...", backend.url());
+        try {
+            referenceDoc.ifPresent(doc -> referenceDocRegistry.ensureUploaded(backend, doc));
+            T result;
+            try {
+                result = call.apply(backend, referenceDoc);
+            } catch (HttpClientErrorException.Conflict e) {
+                // The backend no longer knows the digest (e.g. it restarted): upload again and retry once
+                ReferenceDoc doc = referenceDoc.orElseThrow(() -> e);
+                logger.debug("Pandoc reported unknown reference doc {}, re-uploading", doc.digest());
+                backend.forgetUploaded(doc.digest());
+                referenceDocRegistry.upload(backend, doc);
+                result = call.apply(backend, referenceDoc);
+            }
+            backendPool.recordSuccess(backend);
+            return result;
+        } catch (HttpClientErrorException e) {
+            // The request was rejected, which says nothing about the backend's health
+            logger.warn("Pandoc rejected the request", e);
+            throw new PandocUnavailableException("Pandoc service failed");
         } catch (RestClientException e) {
-            logger.warn("Pandoc request failed", e);
+            if (Thread.currentThread().isInterrupted()) {
+                // Cancelled, e.g. the losing side of a hedged render; not the backend's fault
+                throw new PandocUnavailableException("Pandoc request cancelled");
+            }
+            logger.warn("Pandoc request to {} failed", backend.url(), e);
+            backendPool.recordFailure(backend);
             throw new PandocUnavailableException("Pandoc service failed");
         }
     }
+
+    private PandocFileGenerationRequest buildRequest(Optional<ReferenceDoc> referenceDoc,
+                                                     String fileConversionType, String cvMarkdown) {
+        PandocFileGenerationRequest.Files files = referenceDoc
+                .map(doc -> PandocFileGenerationRequest.Files.byDigest(doc.digest()))
+                .orElse(null);
+        return new PandocFileGenerationRequest(cvMarkdown, fileConversionType, files);
+    }
 }
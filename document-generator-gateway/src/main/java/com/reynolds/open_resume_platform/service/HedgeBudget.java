@@ -0,0 +1,41 @@
+package com.reynolds.open_resume_platform.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that limits hedges to a percentage of renders. Every render adds a fraction of a token,
+ * every hedge spends a whole one, and the bucket holds at most {@code maxTokens} so a quiet period
+ * cannot build up a large burst of hedges.
+ */
+class HedgeBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long depositPerRender;
+    private final long capacity;
+    private final AtomicLong balance = new AtomicLong();
+
+    HedgeBudget(int budgetPercent, int maxTokens) {
+        this.depositPerRender = budgetPercent * SCALE / 100;
+        this.capacity = maxTokens * SCALE;
+    }
+
+    void onRender() {
+        balance.accumulateAndGet(depositPerRender, (current, deposit) -> Math.min(capacity, current + deposit));
+    }
+
+    boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    void refund() {
+        balance.accumulateAndGet(SCALE, (current, refund) -> Math.min(capacity, current + refund));
+    }
+}
@@ -0,0 +1,35 @@
+package com.reynolds.open_resume_platform.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * An open Pandoc response whose body has not been read yet. The caller must close it,
+ * which releases the underlying connection.
+ *
+ * @param contentLength the response Content-Length, or -1 if Pandoc did not send one
+ */
+public record PandocStream(InputStream body, long contentLength, Closeable response) implements Closeable {
+
+    /**
+     * Copies the body to {@code out} through a single buffer of {@code bufferSize} bytes,
+     * so heap use does not grow with the document size.
+     */
+    public long copyTo(OutputStream out, int bufferSize) throws IOException {
+        byte[] buffer = new byte[bufferSize];
+        long copied = 0;
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            copied += read;
+        }
+        return copied;
+    }
+
+    @Override
+    public void close() throws IOException {
+        response.close();
+    }
+}
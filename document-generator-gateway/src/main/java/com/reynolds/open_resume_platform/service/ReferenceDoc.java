@@ -0,0 +1,7 @@
+package com.reynolds.open_resume_platform.service;
+
+/**
+ * A template's reference DOCX, decoded once and addressed by the SHA-256 digest of its bytes.
+ */
+public record ReferenceDoc(String templateId, String digest, byte[] content) {
+}
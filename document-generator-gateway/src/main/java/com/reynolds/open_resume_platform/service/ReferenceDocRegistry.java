@@ -0,0 +1,63 @@
+package com.reynolds.open_resume_platform.service;
+
+import com.reynolds.open_resume_platform.MockData;
+import com.reynolds.open_resume_platform.client.PandocBackend;
+import com.reynolds.open_resume_platform.digest.ContentDigests;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registers template reference docs with each Pandoc backend once, by content digest, so renders only
+ * need to send the digest instead of the base64 document.
+ */
+@Component
+public class ReferenceDocRegistry {
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    private final Map<String, ReferenceDoc> byTemplateId = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the decoded reference doc for the template, or empty if the template is unknown.
+     */
+    public Optional<ReferenceDoc> resolve(String templateId) {
+        MockData.CvTemplateDoc cvTemplateDoc = MockData.CvTemplateDoc.getByTemplateId(templateId);
+        if (cvTemplateDoc == null) {
+            return Optional.empty();
+        }
+        return Optional.of(byTemplateId.computeIfAbsent(templateId, id -> {
+            byte[] content = Base64.getDecoder().decode(cvTemplateDoc.getBase64Encoding());
+            return new ReferenceDoc(id, ContentDigests.sha256Hex(content), content);
+        }));
+    }
+
+    public void ensureUploaded(PandocBackend backend, ReferenceDoc referenceDoc) {
+        if (!backend.hasUploaded(referenceDoc.digest())) {
+            upload(backend, referenceDoc);
+        }
+    }
+
+    /**
+     * Uploads the reference doc unconditionally, e.g. after the server reported the digest as unknown.
+     */
+    public void upload(PandocBackend backend, ReferenceDoc referenceDoc) {
+        logger.debug("Uploading reference doc for template {} ({}) to {}",
+                referenceDoc.templateId(), referenceDoc.digest(), backend.url());
+        backend.restClient().put()
+                .uri("/templates/{digest}", referenceDoc.digest())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(referenceDoc.content())
+                .retrieve()
+                .toBodilessEntity();
+        backend.markUploaded(referenceDoc.digest());
+    }
+}
@@ -0,0 +1,79 @@
+package com.reynolds.open_resume_platform.service;
+
+import com.reynolds.open_resume_platform.cache.RenderKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical renders. The first caller for a {@link RenderKey} runs the render;
+ * concurrent callers with the same key wait on the same future and receive the same bytes or the same failure.
+ * The in-flight entry stays until the render itself completes or fails, so callers keep joining it however
+ * long it takes; the wait timeout only bounds how long each joining caller waits, and a caller that gives up
+ * does not start a render of its own.
+ */
+@Component
+public class RenderCoalescer {
+
+    private final ConcurrentHashMap<RenderKey, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final long waitTimeoutMillis;
+
+    private final Counter leaders;
+    private final Counter joined;
+
+    public RenderCoalescer(RenderCoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.waitTimeoutMillis = properties.waitTimeout().toMillis();
+        this.leaders = Counter.builder("gateway.render.coalescing.leaders").register(meterRegistry);
+        this.joined = Counter.builder("gateway.render.coalescing.joined").register(meterRegistry);
+        Gauge.builder("gateway.render.coalescing.in-flight", inFlight, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    public byte[] render(RenderKey key, Supplier<byte[]> render) {
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            joined.increment();
+            // A copy, so the timeout fails this caller's wait and not the render everyone else is waiting on
+            return await(existing.copy().orTimeout(waitTimeoutMillis, TimeUnit.MILLISECONDS));
+        }
+        leaders.increment();
+        try {
+            created.complete(render.get());
+        } catch (Throwable t) {
+            created.completeExceptionally(t);
+        } finally {
+            inFlight.remove(key, created);
+        }
+        return await(created);
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private byte[] await(CompletableFuture<byte[]> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            if (cause instanceof TimeoutException) {
+                throw new PandocUnavailableException("Timed out waiting for Pandoc render");
+            }
+            throw new PandocUnavailableException("Pandoc service failed");
+        }
+    }
+}
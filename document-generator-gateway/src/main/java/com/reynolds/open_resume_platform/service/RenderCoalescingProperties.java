@@ -0,0 +1,13 @@
+package com.reynolds.open_resume_platform.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "render.coalescing")
+@Validated
+public record RenderCoalescingProperties(
+        @DefaultValue("90s") Duration waitTimeout
+) {}
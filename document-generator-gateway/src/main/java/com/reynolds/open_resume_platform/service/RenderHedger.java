@@ -0,0 +1,249 @@
+package com.reynolds.open_resume_platform.service;
+
+import com.reynolds.open_resume_platform.client.PandocBackend;
+import com.reynolds.open_resume_platform.client.PandocBackendPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Runs a render on a backend chosen by the pool and, when hedging is enabled, sends a duplicate to a second
+ * backend if the first has not answered within the hedge delay. The first successful answer wins and the
+ * other attempt is cancelled by interrupting its thread. A failure is only reported once every attempt has failed.
+ * <p>
+ * Hedges are extra Pandoc work that admission control does not count, which is why they are capped by a budget.
+ */
+@Component
+public class RenderHedger {
+
+    /** Largest burst of hedges the budget allows after a quiet period. */
+    private static final int MAX_BUDGET_TOKENS = 10;
+
+    private final PandocBackendPool backendPool;
+    private final boolean enabled;
+    private final int percentile;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final LatencyWindow latencies;
+    private final HedgeBudget budget;
+    private final ExecutorService executor;
+
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    @Autowired
+    public RenderHedger(RenderHedgingProperties properties, PandocBackendPool backendPool, MeterRegistry meterRegistry) {
+        this(properties, backendPool, meterRegistry, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    RenderHedger(RenderHedgingProperties properties, PandocBackendPool backendPool, MeterRegistry meterRegistry,
+                 ExecutorService executor) {
+        this.backendPool = backendPool;
+        this.executor = executor;
+        this.enabled = properties.enabled();
+        this.percentile = properties.percentile();
+        this.minDelayNanos = properties.minDelay().toNanos();
+        this.minSamples = properties.minSamples();
+        this.latencies = new LatencyWindow(properties.sampleWindow());
+        this.budget = new HedgeBudget(properties.budgetPercent(), MAX_BUDGET_TOKENS);
+        this.hedgesSent = Counter.builder("gateway.render.hedging.sent").register(meterRegistry);
+        this.hedgesWon = Counter.builder("gateway.render.hedging.won").register(meterRegistry);
+    }
+
+    /**
+     * @param render renders on the given backend; it must release the backend when done
+     */
+    public byte[] render(String templateId, Function<PandocBackend, byte[]> render) {
+        PandocBackend primaryBackend = backendPool.acquire(templateId);
+        if (!enabled) {
+            return timed(primaryBackend, render);
+        }
+        budget.onRender();
+        long hedgeDelay = hedgeDelayNanos();
+        if (hedgeDelay < 0) {
+            return timed(primaryBackend, render);
+        }
+
+        Race race = new Race();
+        race.start(primaryBackend, render, false);
+        try {
+            return race.result.get(hedgeDelay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            startHedge(race, primaryBackend, render);
+            byte[] rendered = race.await();
+            race.cancelAll();
+            return rendered;
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            race.cancelAll();
+            throw new PandocUnavailableException("Interrupted waiting for Pandoc render");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    long hedgeDelayNanos() {
+        if (latencies.count() < minSamples) {
+            return -1;
+        }
+        return Math.max(minDelayNanos, latencies.percentile(percentile));
+    }
+
+    private void startHedge(Race race, PandocBackend primaryBackend, Function<PandocBackend, byte[]> render) {
+        if (race.result.isDone() || !budget.tryAcquire()) {
+            return;
+        }
+        PandocBackend hedgeBackend = backendPool.acquireAlternative(primaryBackend);
+        if (hedgeBackend == null) {
+            budget.refund();
+            return;
+        }
+        if (!race.start(hedgeBackend, render, true)) {
+            // The primary finished while the hedge backend was being picked
+            hedgeBackend.release();
+            budget.refund();
+            return;
+        }
+        hedgesSent.increment();
+    }
+
+    private byte[] timed(PandocBackend backend, Function<PandocBackend, byte[]> render) {
+        long start = System.nanoTime();
+        byte[] rendered = render.apply(backend);
+        latencies.record(System.nanoTime() - start);
+        return rendered;
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new PandocUnavailableException("Pandoc service failed");
+    }
+
+    /**
+     * The attempts for one render. The result completes with the first success, or with the last failure.
+     * Starting an attempt and failing the race on the last failure happen under one lock, so no attempt is
+     * started once the race is over.
+     */
+    private final class Race {
+
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private int pending;
+        private final List<Attempt> attempts = new CopyOnWriteArrayList<>();
+
+        /**
+         * @return false, without starting anything, if the race is already over
+         */
+        boolean start(PandocBackend backend, Function<PandocBackend, byte[]> render, boolean hedge) {
+            lock.lock();
+            try {
+                if (result.isDone()) {
+                    return false;
+                }
+                pending++;
+                Attempt attempt = new Attempt(backend, render, hedge);
+                attempt.future = executor.submit(attempt);
+                attempts.add(attempt);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void attempt(PandocBackend backend, Function<PandocBackend, byte[]> render, boolean hedge) {
+            try {
+                byte[] rendered = timed(backend, render);
+                if (result.complete(rendered) && hedge) {
+                    hedgesWon.increment();
+                }
+            } catch (Throwable t) {
+                lock.lock();
+                try {
+                    if (--pending == 0) {
+                        result.completeExceptionally(t);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        byte[] await() {
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                throw unwrap(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll();
+                throw new PandocUnavailableException("Interrupted waiting for Pandoc render");
+            }
+        }
+
+        void cancelAll() {
+            for (Attempt attempt : attempts) {
+                attempt.cancel();
+            }
+        }
+
+        /**
+         * One attempt's task. Whichever of running it and cancelling it comes first claims it, so an attempt
+         * cancelled before its thread got to it still has its backend released, which the render would have done.
+         */
+        private final class Attempt implements Runnable {
+
+            private final PandocBackend backend;
+            private final Function<PandocBackend, byte[]> render;
+            private final boolean hedge;
+            private final AtomicBoolean claimed = new AtomicBoolean();
+            private Future<?> future;
+
+            Attempt(PandocBackend backend, Function<PandocBackend, byte[]> render, boolean hedge) {
+                this.backend = backend;
+                this.render = render;
+                this.hedge = hedge;
+            }
+
+            @Override
+            public void run() {
+                if (claimed.compareAndSet(false, true)) {
+                    attempt(backend, render, hedge);
+                }
+            }
+
+            void cancel() {
+                if (claimed.compareAndSet(false, true)) {
+                    backend.release();
+                    future.cancel(false);
+                } else {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.reynolds.open_resume_platform.service;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Hedged renders: if a render has not finished after the {@code percentile} latency of recent renders
+ * (but at least {@code minDelay}), a duplicate is sent to another backend and the first answer wins.
+ *
+ * @param budgetPercent hedges allowed, as a percentage of all renders
+ * @param sampleWindow  number of recent render latencies the percentile is taken over
+ * @param minSamples    renders to observe before hedging starts
+ */
+@ConfigurationProperties(prefix = "render.hedging")
+@Validated
+public record RenderHedgingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("95") @Min(1) @Max(99) int percentile,
+        @DefaultValue("100ms") Duration minDelay,
+        @DefaultValue("5") @Min(0) @Max(100) int budgetPercent,
+        @DefaultValue("1000") @Min(1) int sampleWindow,
+        @DefaultValue("50") @Min(1) int minSamples
+) {
+}
@@ -0,0 +1,18 @@
+package com.reynolds.open_resume_platform.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * When enabled, renders that miss the cache are copied from Pandoc straight to the client instead of
+ * being buffered in memory. Streamed renders are not cached or coalesced.
+ */
+@ConfigurationProperties(prefix = "render.streaming")
+@Validated
+public record RenderStreamingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("8KB") DataSize bufferSize
+) {
+}
@@ -0,0 +1,71 @@
+package com.reynolds.open_resume_platform.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long HEALTHY = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void onSample_growsWhileLatencyIsHealthyAndLimitIsUsed() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(4, 1, 32, 2.0, 0.5);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(HEALTHY, limit.limit(), false);
+        }
+
+        assertEquals(32, limit.limit());
+        assertTrue(limit.rttBaselineNanos() > 0);
+    }
+
+    @Test
+    void onSample_doesNotGrowWhenMostSlotsAreIdle() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(16, 1, 64, 2.0, 0.5);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(HEALTHY, 1, false);
+        }
+
+        assertEquals(16, limit.limit());
+    }
+
+    @Test
+    void onSample_backsOffWhenLatencyRisesWellAboveBaseline() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(32, 1, 64, 2.0, 0.5);
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(HEALTHY, 32, false);
+        }
+        int before = limit.limit();
+
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(HEALTHY * 10, limit.limit(), false);
+        }
+
+        assertTrue(limit.limit() < before, "limit should shrink from " + before + " but was " + limit.limit());
+    }
+
+    @Test
+    void onSample_droppedRendersCutLimitButNotBelowMinimum() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 2, 64, 2.0, 0.5);
+
+        limit.onSample(HEALTHY, 10, true);
+        assertEquals(9, limit.limit());
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(HEALTHY, 1, true);
+        }
+        assertEquals(2, limit.limit());
+    }
+
+    @Test
+    void constructor_rejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimit(4, 8, 4, 2.0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimit(4, 1, 8, 0.5, 0.5));
+    }
+}
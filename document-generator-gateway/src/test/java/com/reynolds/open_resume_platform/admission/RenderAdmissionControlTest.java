@@ -0,0 +1,96 @@
+package com.reynolds.open_resume_platform.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenderAdmissionControlTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RenderAdmissionControl admissionControl(int maxConcurrent, int maxQueued, Duration maxWait) {
+        return new RenderAdmissionControl(new RenderAdmissionProperties(maxConcurrent, maxQueued, maxWait,
+                new RenderAdmissionProperties.Adaptive(false, 1, 64, 2.0, 0.2)), meterRegistry);
+    }
+
+    @Test
+    void acquire_rejectsImmediatelyWhenQueueIsFull() {
+        RenderAdmissionControl admission = admissionControl(1, 0, Duration.ofSeconds(10));
+
+        try (RenderPermit ignored = admission.acquire()) {
+            RenderRejectedException rejected = assertThrows(RenderRejectedException.class, admission::acquire);
+            assertFalse(rejected.getRetryAfter().isNegative());
+            assertTrue(rejected.getRetryAfter().compareTo(Duration.ofSeconds(1)) >= 0);
+        }
+        assertEquals(1.0, meterRegistry.get("gateway.render.admission.rejections").counter().count());
+        assertEquals(0, admission.inFlight());
+    }
+
+    @Test
+    void acquire_queuedCallerIsAdmittedWhenSlotIsReleased() throws Exception {
+        RenderAdmissionControl admission = admissionControl(1, 1, Duration.ofSeconds(10));
+        RenderPermit first = admission.acquire();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<RenderPermit> queued = executor.submit(admission::acquire);
+            while (admission.queueDepth() == 0) {
+                Thread.onSpinWait();
+            }
+            first.close();
+            first.close();
+
+            try (RenderPermit second = queued.get(5, TimeUnit.SECONDS)) {
+                assertEquals(1, admission.inFlight());
+            }
+        }
+        assertEquals(0, admission.inFlight());
+        assertEquals(0, admission.queueDepth());
+    }
+
+    @Test
+    void acquire_admitsAtOnceWhenASlotIsFreeEvenIfTheQueueIsFull() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            RenderAdmissionControl admission = admissionControl(2, 1, Duration.ofSeconds(10));
+            RenderPermit first = admission.acquire();
+            RenderPermit second = admission.acquire();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                Future<RenderPermit> queued = executor.submit(admission::acquire);
+                while (admission.queueDepth() == 0) {
+                    Thread.onSpinWait();
+                }
+                first.close();
+                second.close();
+
+                // The queued caller may not have woken yet, but at most one of the two slots is taken
+                try (RenderPermit admitted = admission.acquire()) {
+                    assertTrue(admission.inFlight() <= 2);
+                }
+                queued.get(5, TimeUnit.SECONDS).close();
+            }
+            assertEquals(0, admission.inFlight());
+        }
+        assertEquals(0.0, meterRegistry.get("gateway.render.admission.rejections").counter().count());
+    }
+
+    @Test
+    void acquire_queuedCallerIsRejectedAfterMaxWait() {
+        RenderAdmissionControl admission = admissionControl(1, 1, Duration.ofMillis(20));
+
+        try (RenderPermit ignored = admission.acquire()) {
+            assertThrows(RenderRejectedException.class, admission::acquire);
+        }
+        assertEquals(0, admission.queueDepth());
+        assertEquals(1, meterRegistry.get("gateway.render.admission.wait").timer().count());
+    }
+}
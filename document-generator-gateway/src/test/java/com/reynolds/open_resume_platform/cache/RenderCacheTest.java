@@ -0,0 +1,76 @@
+package com.reynolds.open_resume_platform.cache;
+
+import com.reynolds.open_resume_platform.portal.dto.FileType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenderCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private RenderCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RenderCache(new RenderCacheProperties(true, DataSize.ofBytes(10), DataSize.ofBytes(6)), meterRegistry);
+    }
+
+    @Test
+    void renderKey_isStableForSameInputsAndDiffersOtherwise() {
+        RenderKey key = RenderKey.of("fintech", FileType.DOCX, "# Hello");
+
+        assertEquals(key, RenderKey.of("fintech", FileType.DOCX, "# Hello"));
+        assertNotEquals(key, RenderKey.of("default-template", FileType.DOCX, "# Hello"));
+        assertNotEquals(key, RenderKey.of("fintech", FileType.DOCX, "# Hello!"));
+    }
+
+    @Test
+    void get_returnsStoredBytesAndCountsHitsAndMisses() {
+        RenderKey key = RenderKey.of("t1", FileType.DOCX, "# A");
+
+        assertTrue(cache.get(key).isEmpty());
+        cache.put(key, new byte[]{1, 2, 3});
+
+        assertArrayEquals(new byte[]{1, 2, 3}, cache.get(key).orElseThrow());
+        assertEquals(1.0, meterRegistry.get("gateway.render.cache.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.render.cache.misses").counter().count());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedWhenByteBudgetExceeded() {
+        RenderKey a = RenderKey.of("t1", FileType.DOCX, "# A");
+        RenderKey b = RenderKey.of("t1", FileType.DOCX, "# B");
+        RenderKey c = RenderKey.of("t1", FileType.DOCX, "# C");
+        cache.put(a, new byte[4]);
+        cache.put(b, new byte[4]);
+        cache.get(a);
+
+        cache.put(c, new byte[4]);
+
+        assertTrue(cache.get(a).isPresent());
+        assertTrue(cache.get(b).isEmpty());
+        assertTrue(cache.get(c).isPresent());
+        assertEquals(8, cache.totalBytes());
+        assertEquals(1.0, meterRegistry.get("gateway.render.cache.evictions").counter().count());
+    }
+
+    @Test
+    void put_skipsEmptyAndOversizedDocuments() {
+        RenderKey empty = RenderKey.of("t1", FileType.DOCX, "# Empty");
+        RenderKey large = RenderKey.of("t1", FileType.DOCX, "# Large");
+
+        cache.put(empty, new byte[0]);
+        cache.put(large, new byte[7]);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.totalBytes());
+    }
+}
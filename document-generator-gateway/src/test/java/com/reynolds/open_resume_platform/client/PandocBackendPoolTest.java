@@ -0,0 +1,183 @@
+package com.reynolds.open_resume_platform.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PandocBackendPoolTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PandocBackend a;
+    private PandocBackend b;
+    private PandocBackendPool pool;
+
+    @BeforeEach
+    void setUp() {
+        long admittedAt = clock.get() - 30 * SECOND;
+        a = new PandocBackend("http://a:8080", null, admittedAt);
+        b = new PandocBackend("http://b:8080", null, admittedAt);
+        PandocClientProperties.HealthCheck healthCheck = new PandocClientProperties.HealthCheck(
+                Duration.ofSeconds(5), 2, Duration.ofSeconds(30), Duration.ofSeconds(30));
+        pool = new PandocBackendPool(List.of(a, b), healthCheck, new PandocClientProperties.Affinity(true, 1.25, 100),
+                meterRegistry, clock::get);
+    }
+
+    @Test
+    void acquire_routesToBackendWithFewestOutstandingRequests() {
+        PandocBackend first = pool.acquire();
+        PandocBackend second = pool.acquire();
+        assertTrue(first != second);
+
+        first.release();
+        assertSame(first, pool.acquire());
+        assertEquals(1, a.outstanding());
+        assertEquals(1, b.outstanding());
+    }
+
+    @Test
+    void recordFailure_ejectsAfterThresholdAndRoutesAroundEjectedBackend() {
+        pool.recordFailure(a);
+        assertFalse(a.isEjected());
+        pool.recordFailure(a);
+        assertTrue(a.isEjected());
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(b, pool.acquire());
+        }
+        assertEquals(1.0, meterRegistry.get("gateway.pandoc.backend.ejections").counter().count());
+    }
+
+    @Test
+    void recordSuccess_resetsConsecutiveFailures() {
+        pool.recordFailure(a);
+        pool.recordSuccess(a);
+        pool.recordFailure(a);
+
+        assertFalse(a.isEjected());
+    }
+
+    @Test
+    void recordFailure_ejectsOnRenderFailuresSpreadOverHealthyProbes() {
+        pool.recordFailure(a);
+        clock.addAndGet(5 * SECOND);
+        pool.onProbeResult(a, true);
+        clock.addAndGet(5 * SECOND);
+        pool.onProbeResult(a, true);
+        assertFalse(a.isEjected());
+
+        pool.recordFailure(a);
+
+        assertTrue(a.isEjected());
+    }
+
+    @Test
+    void onProbeResult_ejectsAfterThresholdOfFailedProbesAndAHealthyProbeResetsThem() {
+        pool.onProbeResult(a, false);
+        pool.onProbeResult(a, true);
+        pool.onProbeResult(a, false);
+        assertFalse(a.isEjected());
+
+        pool.onProbeResult(a, false);
+
+        assertTrue(a.isEjected());
+    }
+
+    @Test
+    void onProbeResult_readmitsOnlyAfterEjectionTimeAndThenSlowStarts() {
+        a.markUploaded("digest");
+        pool.recordFailure(a);
+        pool.recordFailure(a);
+
+        clock.addAndGet(10 * SECOND);
+        pool.onProbeResult(a, true);
+        assertTrue(a.isEjected());
+
+        clock.addAndGet(25 * SECOND);
+        pool.onProbeResult(a, true);
+        assertFalse(a.isEjected());
+        assertFalse(a.hasUploaded("digest"));
+        assertEquals(0.1, pool.weight(a, clock.get()), 1e-9);
+        assertEquals(0.55, pool.weight(a, clock.get() + 15 * SECOND), 1e-9);
+        assertEquals(1.0, pool.weight(a, clock.get() + 30 * SECOND), 1e-9);
+
+        // b has two requests outstanding, but a's reduced weight still makes b the better choice
+        b.acquire();
+        b.acquire();
+        assertSame(b, pool.acquire());
+    }
+
+    @Test
+    void acquireForTemplate_sendsSameTemplateToSameBackendWhileLoadIsBalanced() {
+        PandocBackend home = pool.acquire("fintech");
+        home.release();
+
+        for (int i = 0; i < 10; i++) {
+            PandocBackend chosen = pool.acquire("fintech");
+            assertSame(home, chosen);
+            chosen.release();
+        }
+        assertEquals(0.0, meterRegistry.get("gateway.pandoc.backend.affinity.spills").counter().count());
+    }
+
+    @Test
+    void acquireForTemplate_spillsToNextBackendWhenHomeExceedsLoadBound() {
+        PandocBackend home = pool.acquire("fintech");
+        PandocBackend other = home == a ? b : a;
+
+        // With one request on home and none elsewhere, home is at ceil(1.25 * 2 / 2) = 2 and still has room
+        assertSame(home, pool.acquire("fintech"));
+        // Now home carries 2 of 3 requests: the bound is ceil(1.25 * 3 / 2) = 2, so the template spills
+        assertSame(other, pool.acquire("fintech"));
+        assertEquals(1.0, meterRegistry.get("gateway.pandoc.backend.affinity.spills").counter().count());
+    }
+
+    @Test
+    void acquireForTemplate_fallsBackToNextBackendWhenHomeIsEjected() {
+        PandocBackend home = pool.acquire("fintech");
+        home.release();
+        pool.recordFailure(home);
+        pool.recordFailure(home);
+
+        assertSame(home == a ? b : a, pool.acquire("fintech"));
+    }
+
+    @Test
+    void preferenceList_spreadsTemplatesAndListsEveryBackendOnce() {
+        PandocBackend c = new PandocBackend("http://c:8080", null, 0);
+        TemplateAffinityRing ring = new TemplateAffinityRing(List.of(a, b, c), 100);
+        int[] homes = new int[3];
+        for (int i = 0; i < 3_000; i++) {
+            List<PandocBackend> preference = ring.preferenceList("template-" + i);
+            assertEquals(3, preference.size());
+            assertEquals(3, preference.stream().distinct().count());
+            PandocBackend first = preference.getFirst();
+            homes[first == a ? 0 : first == b ? 1 : 2]++;
+        }
+        for (int count : homes) {
+            assertTrue(count > 700, "uneven spread: " + count);
+        }
+    }
+
+    @Test
+    void acquire_fallsBackToEjectedBackendsWhenNoneAreAvailable() {
+        for (PandocBackend backend : List.of(a, b)) {
+            pool.recordFailure(backend);
+            pool.recordFailure(backend);
+        }
+
+        PandocBackend chosen = pool.acquire();
+        assertTrue(chosen == a || chosen == b);
+    }
+}
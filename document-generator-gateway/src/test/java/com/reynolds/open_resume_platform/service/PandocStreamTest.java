@@ -0,0 +1,32 @@
+package com.reynolds.open_resume_platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PandocStreamTest {
+
+    @Test
+    void copyTo_copiesWholeBodyThroughSmallBufferAndCloseReleasesResponse() throws Exception {
+        byte[] document = new byte[10_000];
+        for (int i = 0; i < document.length; i++) {
+            document[i] = (byte) i;
+        }
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (PandocStream stream = new PandocStream(new ByteArrayInputStream(document), document.length,
+                () -> closed.set(true))) {
+            assertEquals(document.length, stream.copyTo(out, 64));
+        }
+
+        assertArrayEquals(document, out.toByteArray());
+        assertTrue(closed.get());
+    }
+}
@@ -0,0 +1,136 @@
+package com.reynolds.open_resume_platform.service;
+
+import com.reynolds.open_resume_platform.cache.RenderKey;
+import com.reynolds.open_resume_platform.portal.dto.FileType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RenderCoalescerTest {
+
+    private static final RenderKey KEY = RenderKey.of("t1", FileType.DOCX, "# Same");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RenderCoalescer coalescer(Duration waitTimeout) {
+        return new RenderCoalescer(new RenderCoalescingProperties(waitTimeout), meterRegistry);
+    }
+
+    private double joined() {
+        return meterRegistry.get("gateway.render.coalescing.joined").counter().count();
+    }
+
+    @Test
+    void render_concurrentCallersWithSameKeyShareOneRender() throws Exception {
+        RenderCoalescer coalescer = coalescer(Duration.ofSeconds(10));
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> coalescer.render(KEY, () -> {
+                    renders.incrementAndGet();
+                    await(release);
+                    return new byte[]{1, 2};
+                })));
+            }
+            while (joined() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<byte[]> result : results) {
+                assertArrayEquals(new byte[]{1, 2}, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, renders.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void render_failureReachesEveryWaiter() throws Exception {
+        RenderCoalescer coalescer = coalescer(Duration.ofSeconds(10));
+        PandocUnavailableException failure = new PandocUnavailableException("Pandoc service failed");
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<byte[]> leader = executor.submit(() -> coalescer.render(KEY, () -> {
+                await(release);
+                throw failure;
+            }));
+            while (coalescer.inFlightCount() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<byte[]> follower = executor.submit(() -> coalescer.render(KEY, () -> new byte[]{9}));
+            while (joined() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertSame(failure, leaderError.getCause());
+            assertSame(failure, followerError.getCause());
+        }
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void render_waiterThatTimesOutDoesNotStartASecondRender() throws Exception {
+        RenderCoalescer coalescer = coalescer(Duration.ofMillis(50));
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<byte[]> leader = executor.submit(() -> coalescer.render(KEY, () -> {
+                renders.incrementAndGet();
+                await(release);
+                return new byte[]{1};
+            }));
+            while (coalescer.inFlightCount() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(PandocUnavailableException.class, () -> coalescer.render(KEY, () -> {
+                renders.incrementAndGet();
+                return new byte[]{2};
+            }));
+            assertThrows(PandocUnavailableException.class, () -> coalescer.render(KEY, () -> {
+                renders.incrementAndGet();
+                return new byte[]{2};
+            }));
+            assertEquals(1, coalescer.inFlightCount());
+            assertEquals(1, renders.get());
+
+            release.countDown();
+            assertArrayEquals(new byte[]{1}, leader.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, coalescer.inFlightCount());
+        assertArrayEquals(new byte[]{3}, coalescer.render(KEY, () -> new byte[]{3}));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.reynolds.open_resume_platform.service;
+
+import com.reynolds.open_resume_platform.client.PandocBackend;
+import com.reynolds.open_resume_platform.client.PandocBackendPool;
+import com.reynolds.open_resume_platform.client.PandocClientProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenderHedgerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PandocBackend slow;
+    private PandocBackend fast;
+    private PandocBackendPool pool;
+    private RenderHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        slow = new PandocBackend("http://slow:8080", null, 0);
+        fast = new PandocBackend("http://fast:8080", null, 0);
+        pool = new PandocBackendPool(List.of(slow, fast),
+                new PandocClientProperties.HealthCheck(Duration.ofSeconds(5), 3, Duration.ofSeconds(30), Duration.ZERO),
+                new PandocClientProperties.Affinity(false, 1.25, 100), meterRegistry);
+        hedger = new RenderHedger(properties(), pool, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedger.shutdown();
+    }
+
+    @Test
+    void render_doesNotHedgeUntilEnoughLatencySamples() {
+        assertEquals(-1, hedger.hedgeDelayNanos());
+        hedger.render("t1", backend -> release(backend, new byte[]{1}));
+        hedger.render("t1", backend -> release(backend, new byte[]{1}));
+
+        assertEquals(Duration.ofMillis(20).toNanos(), hedger.hedgeDelayNanos());
+        assertEquals(0.0, meterRegistry.get("gateway.render.hedging.sent").counter().count());
+    }
+
+    @Test
+    void render_hedgesSlowPrimaryAndCancelsTheLoser() throws Exception {
+        warmUp();
+        CountDownLatch slowInterrupted = new CountDownLatch(1);
+
+        byte[] rendered = hedger.render("t1", backend -> {
+            try {
+                if (backend == slow) {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        slowInterrupted.countDown();
+                        throw new PandocUnavailableException("Pandoc request cancelled");
+                    }
+                }
+                return backend == fast ? new byte[]{2} : new byte[]{1};
+            } finally {
+                backend.release();
+            }
+        });
+
+        assertArrayEquals(new byte[]{2}, rendered);
+        assertTrue(slowInterrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("gateway.render.hedging.sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.render.hedging.won").counter().count());
+    }
+
+    @Test
+    void render_reportsFailureOnlyWhenEveryAttemptFailed() {
+        warmUp();
+        PandocUnavailableException failure = new PandocUnavailableException("Pandoc service failed");
+
+        PandocUnavailableException thrown = assertThrows(PandocUnavailableException.class, () -> hedger.render("t1", backend -> {
+            try {
+                sleepQuietly(backend == slow ? 100 : 0);
+                throw failure;
+            } finally {
+                backend.release();
+            }
+        }));
+
+        assertSame(failure, thrown);
+        assertEquals(0, slow.outstanding());
+        assertEquals(0, fast.outstanding());
+    }
+
+    @Test
+    void render_neverStartsAHedgeOnceThePrimaryHasFailed() {
+        warmUp();
+        PandocUnavailableException failure = new PandocUnavailableException("Pandoc service failed");
+        long hedgeDelayMillis = TimeUnit.NANOSECONDS.toMillis(hedger.hedgeDelayNanos());
+
+        for (int i = 0; i < 50; i++) {
+            AtomicInteger hedgeRenders = new AtomicInteger();
+            boolean succeeded;
+            try {
+                hedger.render("t1", backend -> {
+                    try {
+                        if (backend == fast) {
+                            hedgeRenders.incrementAndGet();
+                            return new byte[]{2};
+                        }
+                        // Fail right around the moment the hedge is due
+                        sleepQuietly(hedgeDelayMillis);
+                        throw failure;
+                    } finally {
+                        backend.release();
+                    }
+                });
+                succeeded = true;
+            } catch (PandocUnavailableException e) {
+                assertSame(failure, e);
+                succeeded = false;
+            }
+            sleepQuietly(5);
+            assertEquals(succeeded ? 1 : 0, hedgeRenders.get(), "a hedge ran after the race had failed");
+        }
+        assertEquals(0, slow.outstanding());
+        assertEquals(0, fast.outstanding());
+    }
+
+    @Test
+    void render_releasesTheHedgeBackendWhenThePrimaryWinsBeforeTheHedgeStarted() throws Exception {
+        CountDownLatch hedgeSubmitted = new CountDownLatch(1);
+        CountDownLatch hedgeThreadMayRun = new CountDownLatch(1);
+        AtomicInteger threads = new AtomicInteger();
+        // The hedge's thread is held back before it runs its task, as a virtual thread may be
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(task -> Thread.ofVirtual().unstarted(() -> {
+            if (threads.incrementAndGet() > 1) {
+                hedgeSubmitted.countDown();
+                try {
+                    hedgeThreadMayRun.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            task.run();
+        }));
+        hedger.shutdown();
+        hedger = new RenderHedger(properties(), pool, meterRegistry, executor);
+        warmUp();
+        threads.set(0);
+        AtomicInteger renders = new AtomicInteger();
+
+        byte[] rendered = hedger.render("t1", backend -> {
+            try {
+                if (renders.incrementAndGet() == 1) {
+                    hedgeSubmitted.await(5, TimeUnit.SECONDS);
+                    return new byte[]{1};
+                }
+                return new byte[]{2};
+            } catch (InterruptedException e) {
+                throw new PandocUnavailableException("Pandoc request cancelled");
+            } finally {
+                backend.release();
+            }
+        });
+        hedgeThreadMayRun.countDown();
+
+        assertArrayEquals(new byte[]{1}, rendered);
+        assertEquals(1.0, meterRegistry.get("gateway.render.hedging.sent").counter().count());
+        assertEquals(0, slow.outstanding());
+        assertEquals(0, fast.outstanding());
+        sleepQuietly(50);
+        assertEquals(1, renders.get());
+        assertEquals(0, slow.outstanding() + fast.outstanding());
+    }
+
+    @Test
+    void latencyWindow_keepsMostRecentSamples() {
+        LatencyWindow window = new LatencyWindow(4);
+        for (long sample : new long[]{100, 1, 2, 3, 4}) {
+            window.record(sample);
+        }
+
+        assertEquals(4, window.count());
+        assertEquals(2, window.percentile(50));
+        assertEquals(4, window.percentile(99));
+    }
+
+    @Test
+    void hedgeBudget_allowsConfiguredShareOfRenders() {
+        HedgeBudget budget = new HedgeBudget(10, 10);
+        for (int i = 0; i < 9; i++) {
+            budget.onRender();
+        }
+        assertFalse(budget.tryAcquire());
+
+        budget.onRender();
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    private static RenderHedgingProperties properties() {
+        return new RenderHedgingProperties(true, 50, Duration.ofMillis(20), 100, 10, 2);
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 2; i++) {
+            hedger.render("t1", backend -> release(backend, new byte[]{0}));
+        }
+    }
+
+    private static byte[] release(PandocBackend backend, byte[] rendered) {
+        backend.release();
+        return rendered;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.reynolds.open_resume_platform.digest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 content digests shared by the portal and the gateway, so both sides derive
+ * the same key for the same markdown or document bytes.
+ */
+public final class ContentDigests {
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private ContentDigests() {
+    }
+
+    public static String sha256Hex(String text) {
+        return sha256Hex(text != null ? text.getBytes(StandardCharsets.UTF_8) : new byte[0]);
+    }
+
+    public static String sha256Hex(byte[] bytes) {
+        return HEX.formatHex(newDigest().digest(bytes));
+    }
+
+    /**
+     * Digests several parts as one value. Each part is length-prefixed so that
+     * ("ab", "c") and ("a", "bc") never collide.
+     */
+    public static String sha256Hex(String... parts) {
+        MessageDigest digest = newDigest();
+        for (String part : parts) {
+            byte[] bytes = part != null ? part.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            int length = bytes.length;
+            digest.update(new byte[]{
+                    (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length
+            });
+            digest.update(bytes);
+        }
+        return HEX.formatHex(digest.digest());
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
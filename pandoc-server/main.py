@@ -10,28 +10,65 @@ async def log_requests(request: Request, call_next):
     return response
 
 import base64
+import hashlib
 import os
+import re
 import uuid
 import subprocess
 from fastapi import FastAPI, Response, Request
+from fastapi.responses import JSONResponse
 
 app = FastAPI()
 
+# Reference docs uploaded once by the gateway and then referenced by their SHA-256 digest
+TEMPLATE_DIR = os.environ.get("TEMPLATE_DIR", "/tmp/reference-docs")
+DIGEST_PATTERN = re.compile(r"^[0-9a-f]{64}$")
+os.makedirs(TEMPLATE_DIR, exist_ok=True)
+
+
+def template_path(digest):
+    return os.path.join(TEMPLATE_DIR, f"{digest}.docx")
+
+
+@app.put("/templates/{digest}")
+async def upload_template(digest: str, request: Request):
+    if not DIGEST_PATTERN.match(digest):
+        return JSONResponse(status_code=400, content={"error": "invalid-digest"})
+    body = await request.body()
+    if hashlib.sha256(body).hexdigest() != digest:
+        return JSONResponse(status_code=400, content={"error": "digest-mismatch"})
+
+    path = template_path(digest)
+    if not os.path.exists(path):
+        # Write to a temp file and rename so a concurrent convert never sees a partial file
+        temp_path = f"{path}.{uuid.uuid4()}.tmp"
+        with open(temp_path, "wb") as f:
+            f.write(body)
+        os.replace(temp_path, path)
+    return Response(status_code=204)
+
 @app.post("/convert")
 async def convert(request: Request):
     data = await request.json()
     markdown_content = data.get("text", "")
     output_format = data.get("to", "docx")
 
-    files_data = data.get("files", {})
+    files_data = data.get("files") or {}
     ref_doc_base64 = files_data.get("referenceDoc")
+    ref_doc_digest = files_data.get("referenceDocDigest")
 
     # Create a unique filename for this specific request
     temp_filename = f"style_{uuid.uuid4()}.docx"
     cmd = ['pandoc', '-f', 'markdown', '-t', output_format]
 
+    if ref_doc_digest:
+        if not DIGEST_PATTERN.match(ref_doc_digest) or not os.path.exists(template_path(ref_doc_digest)):
+            # The gateway re-uploads the template and retries on 409
+            return JSONResponse(status_code=409, content={"error": "unknown-reference-doc", "digest": ref_doc_digest})
+        cmd.extend(['--reference-doc', template_path(ref_doc_digest)])
+
     try:
-        if ref_doc_base64:
+        if ref_doc_base64 and not ref_doc_digest:
             with open(temp_filename, "wb") as f:
                 f.write(base64.b64decode(ref_doc_base64))
             cmd.extend(['--reference-doc', temp_filename])
@@ -1,6 +1,7 @@
 plugins {
 	java
 	id("org.springframework.boot")
+	alias(libs.plugins.jmh)
 }
 
 dependencies {
@@ -9,6 +10,7 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-webmvc")
 	implementation("org.springframework.boot:spring-boot-starter-restclient")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
 	implementation(libs.springdoc.ui)
 
 	compileOnly("org.projectlombok:lombok")
@@ -18,3 +20,11 @@ dependencies {
 	testImplementation("org.springframework.boot:spring-boot-starter-webmvc-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
+
+jmh {
+	// The 10M-version parameter needs a large heap to hold the fixture.
+	jvmArgs.add("-Xmx8g")
+	fork.set(1)
+	warmupIterations.set(3)
+	iterations.set(5)
+}
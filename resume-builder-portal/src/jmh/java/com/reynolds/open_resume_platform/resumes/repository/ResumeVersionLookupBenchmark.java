@@ -0,0 +1,77 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Version lookups against a repository holding {@code totalVersions} versions spread over resumes of
+ * {@link #VERSIONS_PER_RESUME} versions each. Lookups are constant-time, so as {@code totalVersions} grows their
+ * cost should only rise as the working set outgrows the CPU caches, like a plain map lookup's does.
+ * Run with {@code ./gradlew :resume-builder-portal:jmh}; recorded results are in
+ * {@code docs/resume-version-lookup-benchmark.md}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResumeVersionLookupBenchmark {
+
+    private static final int VERSIONS_PER_RESUME = 10;
+    private static final String MARKDOWN = "# Jane Doe\n\nSenior engineer.";
+    private static final Instant CREATED_AT = Instant.EPOCH;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int totalVersions;
+
+    private ResumeVersionRepository repository;
+    private String[] resumeIds;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = new InMemoryResumeVersionRepository(
+                new MarkdownStorageProperties(Duration.ofMinutes(10), 128, 256, Duration.ofMinutes(1)));
+        resumeIds = new String[totalVersions / VERSIONS_PER_RESUME];
+        for (int r = 0; r < resumeIds.length; r++) {
+            String resumeId = "resume-" + r;
+            resumeIds[r] = resumeId;
+            for (int v = 1; v <= VERSIONS_PER_RESUME; v++) {
+                repository.save(new ResumeVersion(resumeId + "-v" + v, resumeId, v, null, MARKDOWN,
+                        "default-template", CREATED_AT));
+            }
+        }
+    }
+
+    private String randomResumeId() {
+        return resumeIds[ThreadLocalRandom.current().nextInt(resumeIds.length)];
+    }
+
+    @Benchmark
+    public Optional<ResumeVersion> latestVersion() {
+        return repository.findLatestByResumeId(randomResumeId());
+    }
+
+    @Benchmark
+    public Optional<ResumeVersion> versionByNumber() {
+        return repository.findByResumeIdAndVersionNo(randomResumeId(),
+                1 + ThreadLocalRandom.current().nextInt(VERSIONS_PER_RESUME));
+    }
+
+    @Benchmark
+    public List<ResumeVersion> listVersions() {
+        return repository.findByResumeId(randomResumeId());
+    }
+}
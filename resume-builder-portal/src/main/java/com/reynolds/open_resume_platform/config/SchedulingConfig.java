@@ -0,0 +1,13 @@
+package com.reynolds.open_resume_platform.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the background housekeeping ({@code @Scheduled} methods) such as journal snapshots and the document
+ * retention sweep.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,44 @@
+package com.reynolds.open_resume_platform.documents.domain;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Bytes of a stored generated document. The buffer may be a region of a memory-mapped file, so callers should
+ * stream it with {@link #writeTo} rather than copy it onto the heap.
+ */
+public record DocumentContent(ByteBuffer buffer) {
+
+    public DocumentContent {
+        buffer = buffer.asReadOnlyBuffer();
+    }
+
+    public static DocumentContent of(byte[] bytes) {
+        return new DocumentContent(ByteBuffer.wrap(bytes));
+    }
+
+    public long size() {
+        return buffer.remaining();
+    }
+
+    /**
+     * Writes the content to {@code out} straight from the underlying buffer.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        ByteBuffer source = buffer.duplicate();
+        WritableByteChannel channel = Channels.newChannel(out);
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+        out.flush();
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
@@ -3,11 +3,24 @@ package com.reynolds.open_resume_platform.documents.domain;
 import java.time.Instant;
 
 /**
- * A stored generated DOCX file (document history entry).
+ * A stored generated DOCX file (document history entry). Once its content has been evicted to stay within the
+ * storage budget the entry stays listed, and the resume version and template it records allow it to be
+ * generated again.
  */
 public record GeneratedDocument(
         String id,
         String resumeId,
         String versionId,
-        Instant generatedAt
-) {}
+        String templateId,
+        Instant generatedAt,
+        boolean contentEvicted
+) {
+
+    public GeneratedDocument(String id, String resumeId, String versionId, String templateId, Instant generatedAt) {
+        this(id, resumeId, versionId, templateId, generatedAt, false);
+    }
+
+    public GeneratedDocument withContentEvicted() {
+        return new GeneratedDocument(id, resumeId, versionId, templateId, generatedAt, true);
+    }
+}
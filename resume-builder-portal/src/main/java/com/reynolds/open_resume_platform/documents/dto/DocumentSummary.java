@@ -12,8 +12,12 @@ public record DocumentSummary(
         String resumeId,
         @Schema(description = "Version id if generated from a version snapshot")
         String versionId,
+        @Schema(description = "Template the document was rendered with")
+        String templateId,
         @Schema(description = "When the document was generated")
         Instant generatedAt,
-        @Schema(description = "Path to download the DOCX (GET this path to retrieve the file)")
+        @Schema(description = "True when the stored file was evicted to save space; generate it again from versionId and templateId")
+        boolean regenerable,
+        @Schema(description = "Path to download the DOCX (GET this path to retrieve the file); null when regenerable")
         String downloadUrl
 ) {}
@@ -0,0 +1,22 @@
+package com.reynolds.open_resume_platform.documents.repository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes how much generated-document storage deduplication saves.
+ */
+@Component
+public class DocumentStorageMetrics {
+
+    public DocumentStorageMetrics(GeneratedDocumentRepository repository, MeterRegistry meterRegistry) {
+        Gauge.builder("portal.documents.count", repository, r -> r.stats().documents()).register(meterRegistry);
+        Gauge.builder("portal.documents.blobs", repository, r -> r.stats().blobs()).register(meterRegistry);
+        Gauge.builder("portal.documents.logical.bytes", repository, r -> r.stats().logicalBytes())
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("portal.documents.stored.bytes", repository, r -> r.stats().storedBytes())
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("portal.documents.dedup.ratio", repository, r -> r.stats().dedupRatio()).register(meterRegistry);
+    }
+}
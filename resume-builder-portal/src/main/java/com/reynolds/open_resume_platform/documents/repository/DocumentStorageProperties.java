@@ -0,0 +1,26 @@
+package com.reynolds.open_resume_platform.documents.repository;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+
+/**
+ * @param storage     {@code memory} keeps generated documents on the heap; {@code mapped} writes them to segment
+ *                    files under {@code directory} and serves downloads from memory-mapped regions
+ * @param directory   where document segments are kept
+ * @param segmentSize size of each segment file; a larger document gets a segment of its own
+ */
+@ConfigurationProperties(prefix = "portal.documents")
+@Validated
+public record DocumentStorageProperties(
+        @DefaultValue("memory") @NotNull Storage storage,
+        @DefaultValue("data/documents") @NotNull Path directory,
+        @DefaultValue("64MB") @NotNull DataSize segmentSize
+) {
+
+    public enum Storage { MEMORY, MAPPED }
+}
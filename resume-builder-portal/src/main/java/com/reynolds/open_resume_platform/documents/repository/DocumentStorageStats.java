@@ -0,0 +1,17 @@
+package com.reynolds.open_resume_platform.documents.repository;
+
+/**
+ * @param documents    stored document entries
+ * @param blobs        distinct contents those entries share
+ * @param logicalBytes bytes the documents would take if each had its own copy
+ * @param storedBytes  bytes actually held, one copy per distinct content
+ */
+public record DocumentStorageStats(long documents, long blobs, long logicalBytes, long storedBytes) {
+
+    /**
+     * Logical bytes per stored byte; 1.0 when nothing is shared or nothing is stored.
+     */
+    public double dedupRatio() {
+        return storedBytes == 0 ? 1.0 : (double) logicalBytes / storedBytes;
+    }
+}
@@ -1,17 +1,48 @@
 package com.reynolds.open_resume_platform.documents.repository;
 
+import com.reynolds.open_resume_platform.documents.domain.DocumentContent;
 import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Stores generated documents. Content is kept once per distinct SHA-256 digest and shared by every document
+ * with the same bytes; it is freed when the last such document is deleted.
+ */
 public interface GeneratedDocumentRepository {
 
+    /**
+     * @param content the document bytes; null exactly when the document is marked {@code contentEvicted}
+     */
     GeneratedDocument save(GeneratedDocument document, byte[] content);
 
     Optional<GeneratedDocument> findById(String id);
 
     List<GeneratedDocument> findByResumeId(String resumeId);
 
-    Optional<byte[]> getContent(String documentId);
+    List<GeneratedDocument> findAll();
+
+    /**
+     * Documents that still hold content, grouped by the digest of the content they share.
+     */
+    Map<String, List<GeneratedDocument>> findAllByContentDigest();
+
+    Optional<DocumentContent> getContent(String documentId);
+
+    /**
+     * @return whether a document was deleted
+     */
+    boolean deleteById(String id);
+
+    /**
+     * Drops the document's reference to its content but keeps the entry, marked {@code contentEvicted}. The
+     * bytes are freed only once no other document shares them.
+     *
+     * @return whether the document had content to drop
+     */
+    boolean evictContent(String id);
+
+    DocumentStorageStats stats();
 }
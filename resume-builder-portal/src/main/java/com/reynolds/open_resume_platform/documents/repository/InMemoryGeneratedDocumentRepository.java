@@ -1,42 +1,157 @@
 package com.reynolds.open_resume_platform.documents.repository;
 
+import com.reynolds.open_resume_platform.digest.ContentDigests;
+import com.reynolds.open_resume_platform.documents.domain.DocumentContent;
 import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Repository
+@ConditionalOnProperty(prefix = "portal.documents", name = "storage", havingValue = "memory", matchIfMissing = true)
 public class InMemoryGeneratedDocumentRepository implements GeneratedDocumentRepository {
 
-    private final Map<String, GeneratedDocument> documents = new ConcurrentHashMap<>();
-    private final Map<String, byte[]> contentByDocumentId = new ConcurrentHashMap<>();
+    private final Map<String, StoredDocument> documents = new ConcurrentHashMap<>();
+    private final Map<String, Blob> blobsByDigest = new ConcurrentHashMap<>();
+    // Guards reference counts and byte totals; reads go straight to the maps
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private long logicalBytes;
+    private long storedBytes;
 
     @Override
     public GeneratedDocument save(GeneratedDocument document, byte[] content) {
-        documents.put(document.id(), document);
-        contentByDocumentId.put(document.id(), content);
+        requireContentUnlessEvicted(document, content);
+        String digest = content != null ? ContentDigests.sha256Hex(content) : null;
+        writeLock.lock();
+        try {
+            if (digest != null) {
+                Blob blob = blobsByDigest.get(digest);
+                if (blob == null) {
+                    blobsByDigest.put(digest, new Blob(content, 1));
+                    storedBytes += content.length;
+                } else {
+                    blobsByDigest.put(digest, new Blob(blob.content, blob.references + 1));
+                }
+                logicalBytes += content.length;
+            }
+            StoredDocument previous = documents.put(document.id(), new StoredDocument(document, digest));
+            if (previous != null && previous.digest != null) {
+                release(previous.digest);
+            }
+        } finally {
+            writeLock.unlock();
+        }
         return document;
     }
 
     @Override
     public Optional<GeneratedDocument> findById(String id) {
-        return Optional.ofNullable(documents.get(id));
+        return Optional.ofNullable(documents.get(id)).map(StoredDocument::document);
     }
 
     @Override
     public List<GeneratedDocument> findByResumeId(String resumeId) {
         return documents.values().stream()
+                .map(StoredDocument::document)
                 .filter(doc -> resumeId.equals(doc.resumeId()))
                 .sorted((a, b) -> b.generatedAt().compareTo(a.generatedAt()))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public Optional<byte[]> getContent(String documentId) {
-        return Optional.ofNullable(contentByDocumentId.get(documentId));
+    public List<GeneratedDocument> findAll() {
+        return documents.values().stream().map(StoredDocument::document).toList();
     }
+
+    @Override
+    public Map<String, List<GeneratedDocument>> findAllByContentDigest() {
+        return documents.values().stream()
+                .filter(stored -> stored.digest != null)
+                .collect(Collectors.groupingBy(StoredDocument::digest,
+                        Collectors.mapping(StoredDocument::document, Collectors.toList())));
+    }
+
+    @Override
+    public Optional<DocumentContent> getContent(String documentId) {
+        return Optional.ofNullable(documents.get(documentId))
+                .filter(stored -> stored.digest != null)
+                .map(stored -> blobsByDigest.get(stored.digest))
+                .map(blob -> DocumentContent.of(blob.content));
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        writeLock.lock();
+        try {
+            StoredDocument removed = documents.remove(id);
+            if (removed == null) {
+                return false;
+            }
+            if (removed.digest != null) {
+                release(removed.digest);
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean evictContent(String id) {
+        writeLock.lock();
+        try {
+            StoredDocument stored = documents.get(id);
+            if (stored == null || stored.digest == null) {
+                return false;
+            }
+            documents.put(id, new StoredDocument(stored.document.withContentEvicted(), null));
+            release(stored.digest);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public DocumentStorageStats stats() {
+        writeLock.lock();
+        try {
+            return new DocumentStorageStats(documents.size(), blobsByDigest.size(), logicalBytes, storedBytes);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void release(String digest) {
+        Blob blob = blobsByDigest.get(digest);
+        logicalBytes -= blob.content.length;
+        if (blob.references == 1) {
+            blobsByDigest.remove(digest);
+            storedBytes -= blob.content.length;
+        } else {
+            blobsByDigest.put(digest, new Blob(blob.content, blob.references - 1));
+        }
+    }
+
+    public static void requireContentUnlessEvicted(GeneratedDocument document, byte[] content) {
+        if (content == null && !document.contentEvicted()) {
+            throw new IllegalArgumentException("Content of document " + document.id() + " is required");
+        }
+        if (content != null && document.contentEvicted()) {
+            throw new IllegalArgumentException("Document " + document.id() + " is marked as evicted but has content");
+        }
+    }
+
+    /**
+     * {@code digest} is null once the content has been evicted.
+     */
+    private record StoredDocument(GeneratedDocument document, String digest) {}
+
+    private record Blob(byte[] content, int references) {}
 }
@@ -0,0 +1,479 @@
+package com.reynolds.open_resume_platform.documents.repository;
+
+import com.reynolds.open_resume_platform.digest.ContentDigests;
+import com.reynolds.open_resume_platform.documents.domain.DocumentContent;
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps generated documents in memory-mapped segment files so that only their metadata lives on the heap.
+ * Records are appended to the current segment as
+ * {@code [int metadata length][int content length][int CRC32C][metadata][content]} and are durable before
+ * {@link #save} returns. Each distinct content is written once as a blob record; every document is a small
+ * record pointing at its blob by digest, or at none once its content is evicted. Deleting flips the sign of the
+ * record's metadata length in place, a blob is deleted with its last document, and a full segment with no live
+ * records left is removed.
+ * <p>
+ * Downloads read a slice of the mapping, so the bytes go from the page cache to the response without being
+ * copied onto the heap first. On startup the segments are scanned to rebuild the index; a record that is
+ * incomplete or fails its checksum ends its segment.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "portal.documents", name = "storage", havingValue = "mapped")
+public class MappedGeneratedDocumentRepository implements GeneratedDocumentRepository, Closeable {
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    static final int RECORD_HEADER_BYTES = 12;
+    private static final byte BLOB = 'B';
+    private static final byte DOCUMENT = 'D';
+    private static final String SEGMENT_PREFIX = "documents-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final Map<String, StoredDocument> documents = new ConcurrentHashMap<>();
+    private final Map<String, Blob> blobsByDigest = new ConcurrentHashMap<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Guarded by writeLock
+    private Segment active;
+    private int writePosition;
+    private long logicalBytes;
+    private long storedBytes;
+
+    public MappedGeneratedDocumentRepository(DocumentStorageProperties properties) {
+        this.directory = properties.directory();
+        this.segmentSize = properties.segmentSize().toBytes();
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open document segments in " + directory, e);
+        }
+    }
+
+    @Override
+    public GeneratedDocument save(GeneratedDocument document, byte[] content) {
+        InMemoryGeneratedDocumentRepository.requireContentUnlessEvicted(document, content);
+        String digest = content != null ? ContentDigests.sha256Hex(content) : null;
+        writeLock.lock();
+        try {
+            if (digest != null) {
+                Blob blob = blobsByDigest.get(digest);
+                if (blob == null) {
+                    Location location = append(encodeBlob(digest), content);
+                    blob = new Blob(location, content.length, 0);
+                    storedBytes += content.length;
+                }
+                blobsByDigest.put(digest, blob.withReferences(blob.references + 1));
+                logicalBytes += content.length;
+            }
+            StoredDocument previous = put(document, digest);
+            if (previous != null && previous.digest != null) {
+                release(previous.digest);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot store document " + document.id(), e);
+        } finally {
+            writeLock.unlock();
+        }
+        return document;
+    }
+
+    @Override
+    public Optional<GeneratedDocument> findById(String id) {
+        return Optional.ofNullable(documents.get(id)).map(StoredDocument::document);
+    }
+
+    @Override
+    public List<GeneratedDocument> findByResumeId(String resumeId) {
+        return documents.values().stream()
+                .map(StoredDocument::document)
+                .filter(doc -> resumeId.equals(doc.resumeId()))
+                .sorted((a, b) -> b.generatedAt().compareTo(a.generatedAt()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<GeneratedDocument> findAll() {
+        return documents.values().stream().map(StoredDocument::document).toList();
+    }
+
+    @Override
+    public Map<String, List<GeneratedDocument>> findAllByContentDigest() {
+        return documents.values().stream()
+                .filter(stored -> stored.digest != null)
+                .collect(Collectors.groupingBy(StoredDocument::digest,
+                        Collectors.mapping(StoredDocument::document, Collectors.toList())));
+    }
+
+    /**
+     * The returned slice stays readable even if the document is deleted meanwhile: deleting never overwrites
+     * content, and a removed segment stays mapped until no slice of it is left.
+     */
+    @Override
+    public Optional<DocumentContent> getContent(String documentId) {
+        return Optional.ofNullable(documents.get(documentId))
+                .filter(stored -> stored.digest != null)
+                .map(stored -> blobsByDigest.get(stored.digest))
+                .map(blob -> new DocumentContent(blob.location.segment.buffer.slice(blob.location.contentOffset, blob.length)));
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        writeLock.lock();
+        try {
+            StoredDocument removed = documents.remove(id);
+            if (removed == null) {
+                return false;
+            }
+            markDeleted(removed.location);
+            if (removed.digest != null) {
+                release(removed.digest);
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete document " + id, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean evictContent(String id) {
+        writeLock.lock();
+        try {
+            StoredDocument stored = documents.get(id);
+            if (stored == null || stored.digest == null) {
+                return false;
+            }
+            put(stored.document.withContentEvicted(), null);
+            release(stored.digest);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot evict content of document " + id, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public DocumentStorageStats stats() {
+        writeLock.lock();
+        try {
+            return new DocumentStorageStats(documents.size(), blobsByDigest.size(), logicalBytes, storedBytes);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.channel.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the document record before marking the one it replaces as deleted, so a crash in between leaves
+     * the newer record for recovery to keep.
+     */
+    private StoredDocument put(GeneratedDocument document, String digest) throws IOException {
+        Location location = append(encodeDocument(document, digest), new byte[0]);
+        StoredDocument previous = documents.put(document.id(), new StoredDocument(document, digest, location));
+        if (previous != null) {
+            markDeleted(previous.location);
+        }
+        return previous;
+    }
+
+    private Location append(byte[] metadata, byte[] content) throws IOException {
+        int recordLength = RECORD_HEADER_BYTES + metadata.length + content.length;
+        CRC32C crc = new CRC32C();
+        crc.update(metadata);
+        crc.update(content);
+        if (active == null || active.buffer.capacity() - writePosition < recordLength) {
+            active = openSegment(active == null ? 1 : active.number + 1, Math.max(segmentSize, recordLength));
+            writePosition = 0;
+        }
+        active.buffer.slice(writePosition, recordLength)
+                .putInt(metadata.length).putInt(content.length).putInt((int) crc.getValue())
+                .put(metadata).put(content);
+        active.buffer.force(writePosition, recordLength);
+        Location location = new Location(active, writePosition, writePosition + RECORD_HEADER_BYTES + metadata.length);
+        active.liveRecords++;
+        writePosition += recordLength;
+        return location;
+    }
+
+    private void release(String digest) throws IOException {
+        Blob blob = blobsByDigest.get(digest);
+        logicalBytes -= blob.length;
+        if (blob.references == 1) {
+            blobsByDigest.remove(digest);
+            storedBytes -= blob.length;
+            markDeleted(blob.location);
+        } else {
+            blobsByDigest.put(digest, blob.withReferences(blob.references - 1));
+        }
+    }
+
+    private void markDeleted(Location location) throws IOException {
+        MappedByteBuffer buffer = location.segment.buffer;
+        buffer.putInt(location.position, -buffer.getInt(location.position));
+        buffer.force(location.position, Integer.BYTES);
+        location.segment.liveRecords--;
+        removeIfDead(location.segment);
+    }
+
+    private void removeIfDead(Segment segment) throws IOException {
+        if (segment.liveRecords > 0 || segment == active) {
+            return;
+        }
+        segments.remove(segment);
+        segment.channel.close();
+        Files.deleteIfExists(segment.file);
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(MappedGeneratedDocumentRepository::isSegment).sorted().toList();
+        }
+        for (Path file : files) {
+            Segment segment = openSegment(segmentNumber(file), Files.size(file));
+            active = segment;
+            writePosition = scan(segment);
+        }
+
+        // A crash between writing a blob and its first document leaves a blob nothing refers to
+        Map<String, Integer> references = new HashMap<>();
+        for (StoredDocument stored : List.copyOf(documents.values())) {
+            if (stored.digest == null) {
+                continue;
+            }
+            Blob blob = blobsByDigest.get(stored.digest);
+            if (blob == null) {
+                logger.warn("Dropping document {} whose content is missing", stored.document.id());
+                documents.remove(stored.document.id());
+                markDeleted(stored.location);
+                continue;
+            }
+            references.merge(stored.digest, 1, Integer::sum);
+            logicalBytes += blob.length;
+        }
+        for (Map.Entry<String, Blob> entry : List.copyOf(blobsByDigest.entrySet())) {
+            int count = references.getOrDefault(entry.getKey(), 0);
+            Blob blob = entry.getValue();
+            if (count == 0) {
+                blobsByDigest.remove(entry.getKey());
+                markDeleted(blob.location);
+            } else {
+                blobsByDigest.put(entry.getKey(), blob.withReferences(count));
+                storedBytes += blob.length;
+            }
+        }
+        for (Segment segment : List.copyOf(segments)) {
+            removeIfDead(segment);
+        }
+        logger.info("Loaded {} documents sharing {} blobs from {} segments in {}",
+                documents.size(), blobsByDigest.size(), segments.size(), directory);
+    }
+
+    /**
+     * Indexes the live records of a segment and returns where the next record may be written. Anything after
+     * the last valid record is zeroed so a later scan cannot mistake stale bytes for a record.
+     */
+    private int scan(Segment segment) throws IOException {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (buffer.capacity() - position >= RECORD_HEADER_BYTES) {
+            int storedMetadataLength = buffer.getInt(position);
+            int metadataLength = Math.abs(storedMetadataLength);
+            int contentLength = buffer.getInt(position + 4);
+            long recordLength = (long) RECORD_HEADER_BYTES + metadataLength + contentLength;
+            if (storedMetadataLength == 0 || contentLength < 0 || recordLength > buffer.capacity() - position) {
+                break;
+            }
+            int metadataOffset = position + RECORD_HEADER_BYTES;
+            if (storedMetadataLength > 0) {
+                CRC32C crc = new CRC32C();
+                crc.update(buffer.slice(metadataOffset, metadataLength + contentLength));
+                if ((int) crc.getValue() != buffer.getInt(position + 8)) {
+                    break;
+                }
+                Location location = new Location(segment, position, metadataOffset + metadataLength);
+                index(buffer.slice(metadataOffset, metadataLength), location, contentLength);
+                segment.liveRecords++;
+            }
+            position += (int) recordLength;
+        }
+        if (buffer.capacity() - position >= RECORD_HEADER_BYTES && !isZeroHeader(buffer, position)) {
+            logger.warn("Discarding damaged tail of document segment {} at offset {}", segment.number, position);
+            for (int i = position; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+        return position;
+    }
+
+    private void index(ByteBuffer metadata, Location location, int contentLength) throws IOException {
+        byte[] bytes = new byte[metadata.remaining()];
+        metadata.get(bytes);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        byte kind = in.readByte();
+        if (kind == BLOB) {
+            blobsByDigest.put(in.readUTF(), new Blob(location, contentLength, 0));
+            return;
+        }
+        if (kind != DOCUMENT) {
+            throw new IOException("Unknown document record kind " + kind + " in segment " + location.segment.number);
+        }
+        String id = in.readUTF();
+        String resumeId = in.readUTF();
+        String versionId = readOptional(in);
+        String templateId = readOptional(in);
+        Instant generatedAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        String digest = readOptional(in);
+        GeneratedDocument document = new GeneratedDocument(id, resumeId, versionId, templateId, generatedAt, digest == null);
+        StoredDocument previous = documents.put(id, new StoredDocument(document, digest, location));
+        if (previous != null) {
+            // Saved again before the earlier record could be marked deleted
+            markDeleted(previous.location);
+        }
+    }
+
+    private static boolean isZeroHeader(ByteBuffer buffer, int position) {
+        return buffer.getInt(position) == 0 && buffer.getInt(position + 4) == 0 && buffer.getInt(position + 8) == 0;
+    }
+
+    private Segment openSegment(long number, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Document segments cannot exceed 2 GB");
+        }
+        Path file = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        Segment segment = new Segment(number, file, channel, buffer);
+        segments.add(segment);
+        return segment;
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] encodeBlob(String digest) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(80);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(BLOB);
+            out.writeUTF(digest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeDocument(GeneratedDocument document, String digest) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(192);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(DOCUMENT);
+            out.writeUTF(document.id());
+            out.writeUTF(document.resumeId());
+            writeOptional(out, document.versionId());
+            writeOptional(out, document.templateId());
+            out.writeLong(document.generatedAt().getEpochSecond());
+            out.writeInt(document.generatedAt().getNano());
+            writeOptional(out, digest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeOptional(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readOptional(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static final class Segment {
+        final long number;
+        final Path file;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        // Guarded by writeLock
+        int liveRecords;
+
+        Segment(long number, Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.number = number;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private record Location(Segment segment, int position, int contentOffset) {}
+
+    /**
+     * {@code digest} is null once the content has been evicted.
+     */
+    private record StoredDocument(GeneratedDocument document, String digest, Location location) {}
+
+    private record Blob(Location location, int length, int references) {
+
+        Blob withReferences(int count) {
+            return new Blob(location, length, count);
+        }
+    }
+}
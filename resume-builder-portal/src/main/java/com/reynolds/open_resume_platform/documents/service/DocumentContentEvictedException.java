@@ -0,0 +1,11 @@
+package com.reynolds.open_resume_platform.documents.service;
+
+/**
+ * The document is still listed but its content was evicted to stay within the storage budget.
+ */
+public class DocumentContentEvictedException extends RuntimeException {
+
+    public DocumentContentEvictedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.reynolds.open_resume_platform.documents.service;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * A document is kept while it is among the {@code keepLast} newest of its resume or younger than
+ * {@code maxAge}; otherwise the sweeper deletes it.
+ *
+ * @param keepLast      newest documents kept per resume regardless of age
+ * @param maxAge        documents younger than this are kept regardless of count
+ * @param maxBytes      budget for stored document content; beyond it the least recently downloaded content is
+ *                      evicted and its documents are listed as regenerable
+ * @param sweepInterval pause between sweeps
+ * @param batchSize     most deletions and evictions per sweep, so each sweep holds storage locks only briefly
+ */
+@ConfigurationProperties(prefix = "portal.documents.retention")
+@Validated
+public record DocumentRetentionProperties(
+        @DefaultValue("10") @Min(0) int keepLast,
+        @DefaultValue("30d") @NotNull Duration maxAge,
+        @DefaultValue("256MB") @NotNull DataSize maxBytes,
+        @DefaultValue("1m") Duration sweepInterval,
+        @DefaultValue("500") @Min(1) int batchSize
+) {}
@@ -0,0 +1,136 @@
+package com.reynolds.open_resume_platform.documents.service;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces {@link DocumentRetentionProperties} in the background. Each sweep first deletes documents that fall
+ * outside the per-resume retention, then evicts content least recently downloaded first until the stored bytes
+ * are back within budget. A sweep does about {@code batchSize} deletions and evictions, each taking the
+ * storage lock on its own, so request threads are never held up for a whole sweep; whatever is left over is
+ * picked up by the next one.
+ */
+@Component
+public class DocumentRetentionSweeper {
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    private final GeneratedDocumentRepository repository;
+    private final DocumentRetentionProperties properties;
+    // Documents not downloaded since startup count as last used when generated
+    private final Map<String, Instant> lastAccessByDocumentId = new ConcurrentHashMap<>();
+    private final Counter deleted;
+    private final Counter evicted;
+
+    public DocumentRetentionSweeper(GeneratedDocumentRepository repository,
+                                    DocumentRetentionProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.deleted = Counter.builder("portal.documents.retention.deleted").register(meterRegistry);
+        this.evicted = Counter.builder("portal.documents.retention.evicted").register(meterRegistry);
+    }
+
+    public void recordAccess(String documentId) {
+        lastAccessByDocumentId.put(documentId, Instant.now());
+    }
+
+    /**
+     * Drops what is tracked for a document deleted elsewhere.
+     */
+    public void forget(String documentId) {
+        lastAccessByDocumentId.remove(documentId);
+    }
+
+    @Scheduled(fixedDelayString = "${portal.documents.retention.sweep-interval:1m}")
+    public void sweep() {
+        int budget = properties.batchSize();
+        int deletedNow = deleteOutsideRetention(budget);
+        int evictedNow = evictOverBudget(budget - deletedNow);
+        if (deletedNow > 0 || evictedNow > 0) {
+            logger.debug("Document retention sweep deleted {} and evicted content of {} documents",
+                    deletedNow, evictedNow);
+        }
+    }
+
+    private int deleteOutsideRetention(int budget) {
+        Instant cutoff = Instant.now().minus(properties.maxAge());
+        Map<String, List<GeneratedDocument>> byResume = repository.findAll().stream()
+                .collect(Collectors.groupingBy(GeneratedDocument::resumeId));
+        int done = 0;
+        for (List<GeneratedDocument> documents : byResume.values()) {
+            if (documents.size() <= properties.keepLast()) {
+                continue;
+            }
+            List<GeneratedDocument> expired = documents.stream()
+                    .sorted(Comparator.comparing(GeneratedDocument::generatedAt).reversed())
+                    .skip(properties.keepLast())
+                    .filter(doc -> doc.generatedAt().isBefore(cutoff))
+                    .toList();
+            for (GeneratedDocument document : expired) {
+                if (done == budget) {
+                    return done;
+                }
+                if (repository.deleteById(document.id())) {
+                    lastAccessByDocumentId.remove(document.id());
+                    deleted.increment();
+                    done++;
+                }
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Content is shared by every document with the same bytes, so it is evicted per blob: blobs are ranked by
+     * the most recent access among the documents that share them, and all of a blob's documents are evicted
+     * together, as evicting only some of them frees nothing. A blob with more documents than the budget left
+     * waits for the next sweep, unless it is the first one, so a widely shared blob is not skipped forever.
+     */
+    private int evictOverBudget(int budget) {
+        long maxBytes = properties.maxBytes().toBytes();
+        if (budget <= 0 || repository.stats().storedBytes() <= maxBytes) {
+            return 0;
+        }
+        List<List<GeneratedDocument>> leastRecentlyUsed = repository.findAllByContentDigest().values().stream()
+                .sorted(Comparator.comparing(this::newestAccess))
+                .toList();
+        int done = 0;
+        for (List<GeneratedDocument> sharing : leastRecentlyUsed) {
+            if (repository.stats().storedBytes() <= maxBytes || (done > 0 && done + sharing.size() > budget)) {
+                break;
+            }
+            for (GeneratedDocument document : sharing) {
+                if (repository.evictContent(document.id())) {
+                    lastAccessByDocumentId.remove(document.id());
+                    evicted.increment();
+                    done++;
+                }
+            }
+        }
+        return done;
+    }
+
+    private Instant newestAccess(List<GeneratedDocument> sharing) {
+        return sharing.stream().map(this::lastAccess).max(Comparator.naturalOrder()).orElse(Instant.MIN);
+    }
+
+    private Instant lastAccess(GeneratedDocument document) {
+        return lastAccessByDocumentId.getOrDefault(document.id(), document.generatedAt());
+    }
+}
@@ -1,5 +1,6 @@
 package com.reynolds.open_resume_platform.documents.service;
 
+import com.reynolds.open_resume_platform.documents.domain.DocumentContent;
 import com.reynolds.open_resume_platform.documents.dto.DocumentSummary;
 
 import java.util.List;
@@ -9,5 +10,5 @@ public interface GeneratedDocumentService {
 
     List<DocumentSummary> listByResumeId(String resumeId);
 
-    Optional<byte[]> getContentForDownload(String resumeId, String documentId);
+    Optional<DocumentContent> getContentForDownload(String resumeId, String documentId);
 }
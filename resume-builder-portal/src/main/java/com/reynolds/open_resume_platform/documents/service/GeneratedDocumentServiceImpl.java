@@ -1,5 +1,6 @@
 package com.reynolds.open_resume_platform.documents.service;
 
+import com.reynolds.open_resume_platform.documents.domain.DocumentContent;
 import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
 import com.reynolds.open_resume_platform.documents.dto.DocumentSummary;
 import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
@@ -15,9 +16,12 @@ public class GeneratedDocumentServiceImpl implements GeneratedDocumentService {
     private static final String DOWNLOAD_PATH_TEMPLATE = "/api/v1/resumes/%s/documents/%s/download";
 
     private final GeneratedDocumentRepository repository;
+    private final DocumentRetentionSweeper retentionSweeper;
 
-    public GeneratedDocumentServiceImpl(GeneratedDocumentRepository repository) {
+    public GeneratedDocumentServiceImpl(GeneratedDocumentRepository repository,
+                                        DocumentRetentionSweeper retentionSweeper) {
         this.repository = repository;
+        this.retentionSweeper = retentionSweeper;
     }
 
     @Override
@@ -28,14 +32,21 @@ public class GeneratedDocumentServiceImpl implements GeneratedDocumentService {
     }
 
     @Override
-    public Optional<byte[]> getContentForDownload(String resumeId, String documentId) {
-        return repository.findById(documentId)
-                .filter(doc -> resumeId.equals(doc.resumeId()))
-                .flatMap(doc -> repository.getContent(documentId));
+    public Optional<DocumentContent> getContentForDownload(String resumeId, String documentId) {
+        Optional<GeneratedDocument> document = repository.findById(documentId)
+                .filter(doc -> resumeId.equals(doc.resumeId()));
+        if (document.isPresent() && document.get().contentEvicted()) {
+            throw new DocumentContentEvictedException("Document " + documentId
+                    + " is no longer stored; generate it again from its version and template");
+        }
+        Optional<DocumentContent> content = document.flatMap(doc -> repository.getContent(documentId));
+        content.ifPresent(c -> retentionSweeper.recordAccess(documentId));
+        return content;
     }
 
     private DocumentSummary toSummary(GeneratedDocument doc) {
-        String downloadUrl = String.format(DOWNLOAD_PATH_TEMPLATE, doc.resumeId(), doc.id());
-        return new DocumentSummary(doc.id(), doc.resumeId(), doc.versionId(), doc.generatedAt(), downloadUrl);
+        String downloadUrl = doc.contentEvicted() ? null : String.format(DOWNLOAD_PATH_TEMPLATE, doc.resumeId(), doc.id());
+        return new DocumentSummary(doc.id(), doc.resumeId(), doc.versionId(), doc.templateId(), doc.generatedAt(),
+                doc.contentEvicted(), downloadUrl);
     }
 }
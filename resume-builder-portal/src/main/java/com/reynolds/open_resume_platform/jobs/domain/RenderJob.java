@@ -0,0 +1,27 @@
+package com.reynolds.open_resume_platform.jobs.domain;
+
+import java.time.Instant;
+
+/**
+ * An asynchronous DOCX render. documentId and downloadUrl are set once the job is DONE; error once it has FAILED.
+ */
+public record RenderJob(
+        String id,
+        String resumeId,
+        String versionId,
+        String templateId,
+        Status status,
+        Instant createdAt,
+        Instant updatedAt,
+        String documentId,
+        String downloadUrl,
+        String error
+) {
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED;
+
+        public boolean isTerminal() {
+            return this == DONE || this == FAILED;
+        }
+    }
+}
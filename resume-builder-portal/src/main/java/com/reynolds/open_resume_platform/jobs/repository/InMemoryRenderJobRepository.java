@@ -0,0 +1,38 @@
+package com.reynolds.open_resume_platform.jobs.repository;
+
+import com.reynolds.open_resume_platform.jobs.domain.RenderJob;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+public class InMemoryRenderJobRepository implements RenderJobRepository {
+
+    private final Map<String, RenderJob> store = new ConcurrentHashMap<>();
+
+    @Override
+    public RenderJob save(RenderJob job) {
+        store.put(job.id(), job);
+        return job;
+    }
+
+    @Override
+    public Optional<RenderJob> findById(String id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return store.remove(id) != null;
+    }
+
+    @Override
+    public int deleteFinishedBefore(Instant cutoff) {
+        int before = store.size();
+        store.values().removeIf(job -> job.status().isTerminal() && job.updatedAt().isBefore(cutoff));
+        return Math.max(0, before - store.size());
+    }
+}
@@ -0,0 +1,21 @@
+package com.reynolds.open_resume_platform.jobs.repository;
+
+import com.reynolds.open_resume_platform.jobs.domain.RenderJob;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RenderJobRepository {
+
+    RenderJob save(RenderJob job);
+
+    Optional<RenderJob> findById(String id);
+
+    boolean deleteById(String id);
+
+    /**
+     * Removes finished jobs last updated before the cutoff.
+     * @return number of jobs removed
+     */
+    int deleteFinishedBefore(Instant cutoff);
+}
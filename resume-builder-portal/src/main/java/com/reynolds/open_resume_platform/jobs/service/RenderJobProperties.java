@@ -0,0 +1,23 @@
+package com.reynolds.open_resume_platform.jobs.service;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * @param workers       renders that run at the same time
+ * @param queueCapacity jobs that may wait for a worker; further submissions are refused
+ * @param retention     how long finished jobs stay available for polling
+ * @param pruneInterval how often finished jobs past their retention are deleted
+ */
+@ConfigurationProperties(prefix = "render-jobs")
+@Validated
+public record RenderJobProperties(
+        @DefaultValue("4") @Min(1) int workers,
+        @DefaultValue("100") @Min(1) int queueCapacity,
+        @DefaultValue("1h") Duration retention,
+        @DefaultValue("1m") Duration pruneInterval
+) {}
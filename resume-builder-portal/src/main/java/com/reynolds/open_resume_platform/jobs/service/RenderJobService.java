@@ -0,0 +1,25 @@
+package com.reynolds.open_resume_platform.jobs.service;
+
+import com.reynolds.open_resume_platform.jobs.domain.RenderJob;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface RenderJobService {
+
+    /**
+     * Queues a DOCX render for the resume and returns at once with the QUEUED job.
+     * The render uses the same rules as synchronous generation, and the result is stored in document history.
+     * @return the queued job, or empty if the resume does not exist
+     * @throws com.reynolds.open_resume_platform.service.DocumentGenerationUnavailableException if the job queue is full
+     */
+    Optional<RenderJob> submit(String resumeId, String versionId, String templateId);
+
+    Optional<RenderJob> getById(String id);
+
+    /**
+     * Calls the listener with every later state change of the job.
+     * @return a handle that removes the listener
+     */
+    Runnable subscribe(String jobId, Consumer<RenderJob> listener);
+}
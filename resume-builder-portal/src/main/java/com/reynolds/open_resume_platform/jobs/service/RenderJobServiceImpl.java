@@ -0,0 +1,172 @@
+package com.reynolds.open_resume_platform.jobs.service;
+
+import com.reynolds.open_resume_platform.documents.dto.GenerateDocxResponse;
+import com.reynolds.open_resume_platform.jobs.domain.RenderJob;
+import com.reynolds.open_resume_platform.jobs.repository.RenderJobRepository;
+import com.reynolds.open_resume_platform.resumes.service.ResumeDocxService;
+import com.reynolds.open_resume_platform.resumes.service.ResumeService;
+import com.reynolds.open_resume_platform.service.DocumentGenerationUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs renders on a fixed pool of workers with a bounded queue, so slow renders queue up here
+ * instead of holding HTTP requests open. When the queue is full, submissions are refused straight away.
+ */
+@Service
+public class RenderJobServiceImpl implements RenderJobService {
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    private final ResumeService resumeService;
+    private final ResumeDocxService resumeDocxService;
+    private final RenderJobRepository repository;
+    private final ThreadPoolExecutor executor;
+    private final RenderJobProperties properties;
+    private final Map<String, List<Consumer<RenderJob>>> listeners = new ConcurrentHashMap<>();
+
+    public RenderJobServiceImpl(ResumeService resumeService,
+                                ResumeDocxService resumeDocxService,
+                                RenderJobRepository repository,
+                                RenderJobProperties properties) {
+        this.resumeService = resumeService;
+        this.resumeDocxService = resumeDocxService;
+        this.repository = repository;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(
+                properties.workers(), properties.workers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                Thread.ofPlatform().name("render-job-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public Optional<RenderJob> submit(String resumeId, String versionId, String templateId) {
+        if (resumeService.getById(resumeId).isEmpty()) {
+            return Optional.empty();
+        }
+        Instant now = Instant.now();
+        pruneFinished();
+
+        RenderJob job = repository.save(new RenderJob(
+                UUID.randomUUID().toString(),
+                resumeId,
+                versionId,
+                templateId,
+                RenderJob.Status.QUEUED,
+                now,
+                now,
+                null,
+                null,
+                null
+        ));
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            repository.deleteById(job.id());
+            throw new DocumentGenerationUnavailableException("Too many documents are being generated; try again shortly");
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * A finished job past its retention is not returned even if the next prune has not deleted it yet.
+     */
+    @Override
+    public Optional<RenderJob> getById(String id) {
+        Instant cutoff = Instant.now().minus(properties.retention());
+        return repository.findById(id)
+                .filter(job -> !job.status().isTerminal() || !job.updatedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Also runs on every submission; the schedule covers a portal that has stopped submitting.
+     */
+    @Scheduled(fixedDelayString = "${render-jobs.prune-interval:1m}")
+    public void pruneFinished() {
+        repository.deleteFinishedBefore(Instant.now().minus(properties.retention()));
+    }
+
+    @Override
+    public Runnable subscribe(String jobId, Consumer<RenderJob> listener) {
+        listeners.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(listener);
+        return () -> listeners.computeIfPresent(jobId, (id, jobListeners) -> {
+            jobListeners.remove(listener);
+            return jobListeners.isEmpty() ? null : jobListeners;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void run(RenderJob queued) {
+        update(withStatus(queued, RenderJob.Status.RUNNING, null, null, null));
+        RenderJob finished;
+        try {
+            Optional<GenerateDocxResponse> response = resumeDocxService.generate(
+                    queued.resumeId(), queued.versionId(), queued.templateId());
+            finished = response
+                    .map(r -> withStatus(queued, RenderJob.Status.DONE, r.documentId(), r.downloadUrl(), null))
+                    .orElseGet(() -> withStatus(queued, RenderJob.Status.FAILED, null, null, "Resume or version not found"));
+        } catch (DocumentGenerationUnavailableException e) {
+            finished = withStatus(queued, RenderJob.Status.FAILED, null, null, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Render job {} failed", queued.id(), e);
+            finished = withStatus(queued, RenderJob.Status.FAILED, null, null, "Document generation failed");
+        }
+        update(finished);
+        listeners.remove(queued.id());
+    }
+
+    private void update(RenderJob job) {
+        repository.save(job);
+        List<Consumer<RenderJob>> jobListeners = listeners.get(job.id());
+        if (jobListeners == null) {
+            return;
+        }
+        for (Consumer<RenderJob> listener : jobListeners) {
+            try {
+                listener.accept(job);
+            } catch (RuntimeException e) {
+                logger.debug("Render job listener failed for {}", job.id(), e);
+            }
+        }
+    }
+
+    private static RenderJob withStatus(RenderJob job, RenderJob.Status status,
+                                        String documentId, String downloadUrl, String error) {
+        return new RenderJob(
+                job.id(),
+                job.resumeId(),
+                job.versionId(),
+                job.templateId(),
+                status,
+                job.createdAt(),
+                Instant.now(),
+                documentId,
+                downloadUrl,
+                error
+        );
+    }
+}
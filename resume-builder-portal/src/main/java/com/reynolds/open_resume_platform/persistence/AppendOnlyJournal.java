@@ -0,0 +1,338 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal split into numbered segment files. Appends are queued and written by a single writer
+ * thread, which writes everything queued so far (up to {@code maxBatch} records) and then makes it durable with
+ * one fsync, so concurrent writers share the cost of each fsync (group commit). The queue order is the journal
+ * order.
+ */
+class AppendOnlyJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d+)\\.log");
+
+    private final Path directory;
+    private final int maxBatch;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong recordsInSegment = new AtomicLong();
+    private final Thread writer;
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    // Only touched by the writer thread once started
+    private FileChannel channel;
+    private long segment;
+
+    /**
+     * Opens a new segment after any existing ones; existing segments are only read by {@link #replay}.
+     */
+    AppendOnlyJournal(Path directory, int maxBatch) {
+        this.directory = directory;
+        this.maxBatch = maxBatch;
+        try {
+            Files.createDirectories(directory);
+            this.segment = segments(directory).stream().mapToLong(Long::longValue).max().orElse(0) + 1;
+            this.channel = openSegment(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal in " + directory, e);
+        }
+        this.writer = Thread.ofPlatform().name("portal-journal-writer").daemon().start(this::runWriter);
+    }
+
+    /**
+     * Queues a record. The returned future completes once the record is durable on disk.
+     */
+    CompletableFuture<Void> append(JournalRecord record) {
+        Pending pending = new Pending(JournalFrames.frame(JournalCodec.encode(record)));
+        enqueue(pending);
+        return pending.done.thenApply(segmentNo -> null);
+    }
+
+    /**
+     * Starts a new segment after all records queued so far, completing with the new segment's number. Every record
+     * appended after this call returns lands in that segment or a later one.
+     */
+    CompletableFuture<Long> roll() {
+        Pending pending = new Pending(null);
+        enqueue(pending);
+        return pending.done;
+    }
+
+    long recordsInCurrentSegment() {
+        return recordsInSegment.get();
+    }
+
+    /**
+     * Writes out everything queued, then closes the current segment.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(Pending.CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failAll(new IllegalStateException("Journal is closed"));
+    }
+
+    /**
+     * Replays the records of every segment numbered {@code fromSegment} or higher, in order. A torn or corrupt
+     * tail of the newest segment (an interrupted write) is truncated; corruption anywhere else fails recovery.
+     *
+     * @return number of records replayed
+     */
+    static long replay(Path directory, long fromSegment, Consumer<JournalRecord> consumer) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try {
+            List<Long> segments = segments(directory).stream().filter(n -> n >= fromSegment).toList();
+            long records = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                records += replaySegment(segmentPath(directory, segments.get(i)), i == segments.size() - 1, consumer);
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replay journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Deletes segments numbered below {@code segment}, once a snapshot covers them.
+     */
+    static void deleteSegmentsBefore(Path directory, long segment) throws IOException {
+        for (long n : segments(directory)) {
+            if (n < segment) {
+                Files.deleteIfExists(segmentPath(directory, n));
+            }
+        }
+    }
+
+    private static long replaySegment(Path path, boolean newest, Consumer<JournalRecord> consumer) throws IOException {
+        long records = 0;
+        long validBytes = 0;
+        long size = Files.size(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] payload;
+            while ((payload = JournalFrames.next(in)) != null) {
+                consumer.accept(JournalCodec.decode(payload));
+                validBytes += JournalFrames.HEADER_BYTES + payload.length;
+                records++;
+            }
+        }
+        if (validBytes < size) {
+            if (!newest) {
+                throw new IllegalStateException("Corrupt journal segment " + path + " at offset " + validBytes);
+            }
+            logger.warn("Truncating torn journal tail of {} at offset {} ({} bytes dropped)", path, validBytes,
+                    size - validBytes);
+            try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                file.truncate(validBytes);
+                file.force(true);
+            }
+        }
+        return records;
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            boolean close = process(batch);
+            batch.clear();
+            if (close) {
+                closeChannel();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the batch's records in order, with one fsync per run of records. Returns true on a close request.
+     */
+    private boolean process(List<Pending> batch) {
+        List<Pending> run = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            if (pending.frame != null) {
+                run.add(pending);
+                continue;
+            }
+            flush(run);
+            if (pending == Pending.CLOSE) {
+                return true;
+            }
+            rollSegment(pending);
+        }
+        flush(run);
+        return false;
+    }
+
+    private void flush(List<Pending> run) {
+        if (run.isEmpty()) {
+            return;
+        }
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            ByteBuffer[] buffers = new ByteBuffer[run.size()];
+            for (int i = 0; i < run.size(); i++) {
+                buffers[i] = run.get(i).frame;
+            }
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            channel.force(false);
+            recordsInSegment.addAndGet(run.size());
+            for (Pending pending : run) {
+                pending.done.complete(segment);
+            }
+        } catch (IOException e) {
+            // A partial write may have left a torn frame; stop appending so nothing is written after it
+            if (failure == null) {
+                logger.error("Journal write failed; further writes are refused", e);
+                failure = e;
+            }
+            for (Pending pending : run) {
+                pending.done.completeExceptionally(new UncheckedIOException("Journal write failed", e));
+            }
+        }
+        run.clear();
+    }
+
+    private void rollSegment(Pending pending) {
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            channel.force(true);
+            channel.close();
+            segment++;
+            channel = openSegment(segment);
+            recordsInSegment.set(0);
+            pending.done.complete(segment);
+        } catch (IOException e) {
+            failure = e;
+            pending.done.completeExceptionally(new UncheckedIOException("Journal roll failed", e));
+        }
+    }
+
+    private void enqueue(Pending pending) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Journal is unavailable after a failed write", failure);
+        }
+        queue.add(pending);
+        if (closed && !writer.isAlive()) {
+            // Lost a race with close(): the writer has exited, so nothing would ever complete this
+            failAll(new IllegalStateException("Journal is closed"));
+        }
+    }
+
+    private void failAll(RuntimeException cause) {
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.done.completeExceptionally(cause);
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close journal segment {}", segment, e);
+        }
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        FileChannel file = FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        forceDirectory(directory);
+        return file;
+    }
+
+    private static List<Long> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("journal-%020d.log", number));
+    }
+
+    /**
+     * Makes a file creation or rename in the directory durable. Not supported on every platform, hence best effort.
+     */
+    static void forceDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            logger.debug("Cannot fsync directory {}", directory, e);
+        }
+    }
+
+    /**
+     * A queued record frame, or a roll request when {@code frame} is null. Completes with the segment number.
+     */
+    private static final class Pending {
+
+        static final Pending CLOSE = new Pending(null);
+
+        final ByteBuffer frame;
+        final CompletableFuture<Long> done = new CompletableFuture<>();
+
+        Pending(ByteBuffer frame) {
+            this.frame = frame;
+        }
+    }
+}
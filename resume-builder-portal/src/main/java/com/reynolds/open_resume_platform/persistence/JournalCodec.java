@@ -0,0 +1,288 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.resumes.domain.Resume;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionRef;
+import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary encoding of {@link JournalRecord}s: a type byte followed by the entity's fields. Strings are written as a
+ * length-prefixed UTF-8 byte array rather than with {@link DataOutput#writeUTF}, which is limited to 64 KB.
+ */
+final class JournalCodec {
+
+    private static final byte PUT_RESUME = 1;
+    private static final byte PUT_SECTIONS = 2;
+    private static final byte DELETE_SECTION = 3;
+    private static final byte PUT_SECTION_VERSION = 4;
+    private static final byte PUT_RESUME_VERSION = 5;
+    private static final byte PUT_DOCUMENT = 6;
+    private static final byte DELETE_DOCUMENT = 7;
+    private static final byte EVICT_DOCUMENT_CONTENT = 8;
+    private static final byte DELETE_RESUME = 9;
+    private static final byte DELETE_SECTION_VERSIONS = 10;
+    private static final byte DELETE_RESUME_VERSIONS = 11;
+
+    private JournalCodec() {
+    }
+
+    static byte[] encode(JournalRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            switch (record) {
+                case JournalRecord.PutResume(Resume resume) -> {
+                    out.writeByte(PUT_RESUME);
+                    writeResume(out, resume);
+                }
+                case JournalRecord.DeleteResume(String resumeId) -> {
+                    out.writeByte(DELETE_RESUME);
+                    writeString(out, resumeId);
+                }
+                case JournalRecord.PutSections(List<ResumeSection> sections) -> {
+                    out.writeByte(PUT_SECTIONS);
+                    out.writeInt(sections.size());
+                    for (ResumeSection section : sections) {
+                        writeSection(out, section);
+                    }
+                }
+                case JournalRecord.DeleteSection(String sectionId) -> {
+                    out.writeByte(DELETE_SECTION);
+                    writeString(out, sectionId);
+                }
+                case JournalRecord.PutSectionVersion(SectionVersion version) -> {
+                    out.writeByte(PUT_SECTION_VERSION);
+                    writeString(out, version.id());
+                    writeString(out, version.sectionId());
+                    out.writeInt(version.versionNo());
+                    writeString(out, version.markdown());
+                    writeInstant(out, version.createdAt());
+                }
+                case JournalRecord.DeleteSectionVersions(String sectionId, Set<String> keepVersionIds) -> {
+                    out.writeByte(DELETE_SECTION_VERSIONS);
+                    writeString(out, sectionId);
+                    out.writeInt(keepVersionIds.size());
+                    for (String versionId : keepVersionIds) {
+                        writeString(out, versionId);
+                    }
+                }
+                case JournalRecord.DeleteResumeVersions(String resumeId) -> {
+                    out.writeByte(DELETE_RESUME_VERSIONS);
+                    writeString(out, resumeId);
+                }
+                case JournalRecord.PutResumeVersion(ResumeVersion version) -> {
+                    out.writeByte(PUT_RESUME_VERSION);
+                    writeString(out, version.id());
+                    writeString(out, version.resumeId());
+                    out.writeInt(version.versionNo());
+                    writeString(out, version.label());
+                    writeString(out, version.markdown());
+                    writeString(out, version.templateId());
+                    writeInstant(out, version.createdAt());
+                    writeSectionRefs(out, version.sections());
+                }
+                case JournalRecord.PutDocument(GeneratedDocument document, byte[] content) -> {
+                    out.writeByte(PUT_DOCUMENT);
+                    writeString(out, document.id());
+                    writeString(out, document.resumeId());
+                    writeString(out, document.versionId());
+                    writeString(out, document.templateId());
+                    writeInstant(out, document.generatedAt());
+                    writeBytes(out, content);
+                }
+                case JournalRecord.DeleteDocument(String documentId) -> {
+                    out.writeByte(DELETE_DOCUMENT);
+                    writeString(out, documentId);
+                }
+                case JournalRecord.EvictDocumentContent(String documentId) -> {
+                    out.writeByte(EVICT_DOCUMENT_CONTENT);
+                    writeString(out, documentId);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IOException if the payload is truncated or has an unknown record type
+     */
+    static JournalRecord decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        return switch (type) {
+            case PUT_RESUME -> new JournalRecord.PutResume(readResume(in));
+            case PUT_SECTIONS -> {
+                int count = in.readInt();
+                List<ResumeSection> sections = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    sections.add(readSection(in));
+                }
+                yield new JournalRecord.PutSections(List.copyOf(sections));
+            }
+            case DELETE_SECTION -> new JournalRecord.DeleteSection(readString(in));
+            case DELETE_RESUME -> new JournalRecord.DeleteResume(readString(in));
+            case DELETE_SECTION_VERSIONS -> {
+                String sectionId = readString(in);
+                int count = in.readInt();
+                Set<String> keep = new HashSet<>(count * 2);
+                for (int i = 0; i < count; i++) {
+                    keep.add(readString(in));
+                }
+                yield new JournalRecord.DeleteSectionVersions(sectionId, Set.copyOf(keep));
+            }
+            case DELETE_RESUME_VERSIONS -> new JournalRecord.DeleteResumeVersions(readString(in));
+            case PUT_SECTION_VERSION -> new JournalRecord.PutSectionVersion(new SectionVersion(
+                    readString(in), readString(in), in.readInt(), readString(in), readInstant(in)));
+            case PUT_RESUME_VERSION -> new JournalRecord.PutResumeVersion(new ResumeVersion(
+                    readString(in), readString(in), in.readInt(), readString(in), readString(in), readString(in),
+                    readInstant(in), readSectionRefs(in)));
+            case PUT_DOCUMENT -> readPutDocument(in);
+            case DELETE_DOCUMENT -> new JournalRecord.DeleteDocument(readString(in));
+            case EVICT_DOCUMENT_CONTENT -> new JournalRecord.EvictDocumentContent(readString(in));
+            default -> throw new IOException("Unknown journal record type " + type);
+        };
+    }
+
+    private static JournalRecord readPutDocument(DataInput in) throws IOException {
+        String id = readString(in);
+        String resumeId = readString(in);
+        String versionId = readString(in);
+        String templateId = readString(in);
+        Instant generatedAt = readInstant(in);
+        byte[] content = readBytes(in);
+        return new JournalRecord.PutDocument(
+                new GeneratedDocument(id, resumeId, versionId, templateId, generatedAt, content == null), content);
+    }
+
+    /**
+     * A count of -1 stands for a version without a manifest.
+     */
+    private static void writeSectionRefs(DataOutput out, List<SectionRef> refs) throws IOException {
+        if (refs == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(refs.size());
+        for (SectionRef ref : refs) {
+            writeString(out, ref.sectionId());
+            writeString(out, ref.sectionVersionId());
+            writeString(out, ref.title());
+        }
+    }
+
+    private static List<SectionRef> readSectionRefs(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+        List<SectionRef> refs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            refs.add(new SectionRef(readString(in), readString(in), readString(in)));
+        }
+        return List.copyOf(refs);
+    }
+
+    private static void writeResume(DataOutput out, Resume resume) throws IOException {
+        writeString(out, resume.id());
+        writeString(out, resume.status() != null ? resume.status().name() : null);
+        out.writeInt(resume.latestVersionNo());
+        writeInstant(out, resume.createdAt());
+        writeInstant(out, resume.updatedAt());
+        writeString(out, resume.title());
+        writeString(out, resume.targetRole());
+        writeString(out, resume.targetCompany());
+        writeString(out, resume.templateId());
+        writeString(out, resume.markdown());
+    }
+
+    private static Resume readResume(DataInput in) throws IOException {
+        String id = readString(in);
+        String status = readString(in);
+        return new Resume(
+                id,
+                status != null ? Resume.Status.valueOf(status) : null,
+                in.readInt(),
+                readInstant(in),
+                readInstant(in),
+                readString(in),
+                readString(in),
+                readString(in),
+                readString(in),
+                readString(in)
+        );
+    }
+
+    private static void writeSection(DataOutput out, ResumeSection section) throws IOException {
+        writeString(out, section.id());
+        writeString(out, section.resumeId());
+        writeString(out, section.title());
+        writeString(out, section.markdown());
+        out.writeInt(section.order());
+        writeInstant(out, section.createdAt());
+        writeInstant(out, section.updatedAt());
+    }
+
+    private static ResumeSection readSection(DataInput in) throws IOException {
+        return new ResumeSection(readString(in), readString(in), readString(in), readString(in), in.readInt(),
+                readInstant(in), readInstant(in));
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        writeBytes(out, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = readBytes(in);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static void writeBytes(DataOutput out, byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeInstant(DataOutput out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static Instant readInstant(DataInput in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Framing shared by journal segments and snapshots: each payload is preceded by its length and its CRC32C,
+ * so a torn or corrupted write is detected when reading instead of being decoded as data.
+ */
+final class JournalFrames {
+
+    static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MAX_PAYLOAD_BYTES = 256 * 1024 * 1024;
+
+    private JournalFrames() {
+    }
+
+    static ByteBuffer frame(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt(crc(payload));
+        buffer.put(payload);
+        return buffer.flip();
+    }
+
+    /**
+     * Reads the next payload, or returns null at a clean end of input, a partial frame or a checksum mismatch.
+     */
+    static byte[] next(DataInputStream in) throws IOException {
+        int length;
+        int expectedCrc;
+        try {
+            length = in.readInt();
+            expectedCrc = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        if (in.readNBytes(payload, 0, length) < length || crc(payload) != expectedCrc) {
+            return null;
+        }
+        return payload;
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,236 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import com.reynolds.open_resume_platform.documents.domain.DocumentContent;
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the in-memory repositories durable. On creation it loads the latest snapshot into them and replays the
+ * journal written since; afterwards every change is appended to the journal, and once enough records have
+ * accumulated the whole state is written to a new snapshot and the journal segments it covers are deleted.
+ * Recovery time is therefore bounded by the snapshot size plus the journal tail.
+ */
+public class JournalPersistence implements Closeable {
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    private final Path directory;
+    private final int snapshotAfterRecords;
+    private final ResumeRepository resumes;
+    private final SectionRepository sections;
+    private final SectionVersionRepository sectionVersions;
+    private final ResumeVersionRepository resumeVersions;
+    private final GeneratedDocumentRepository documents;
+    private final AppendOnlyJournal journal;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    // Held shared from journaling a change until it is applied, and exclusively to start a new segment, so a
+    // snapshot never misses a change whose record is in a segment it replaces
+    private final ReentrantReadWriteLock changeLock = new ReentrantReadWriteLock();
+
+    // Records replayed at startup that no snapshot covers yet
+    private volatile long recoveredRecords;
+    private long skippedDocuments;
+
+    /**
+     * The repositories passed in are the in-memory stores being made durable, not the journaling decorators.
+     * {@code documents} is null when generated documents live in a store that is durable by itself; document
+     * records left in the journal from before are then skipped.
+     */
+    public JournalPersistence(PersistenceProperties properties,
+                              ResumeRepository resumes,
+                              SectionRepository sections,
+                              SectionVersionRepository sectionVersions,
+                              ResumeVersionRepository resumeVersions,
+                              GeneratedDocumentRepository documents) {
+        this.directory = properties.directory();
+        this.snapshotAfterRecords = properties.journal().snapshotAfterRecords();
+        this.resumes = resumes;
+        this.sections = sections;
+        this.sectionVersions = sectionVersions;
+        this.resumeVersions = resumeVersions;
+        this.documents = documents;
+
+        long started = System.nanoTime();
+        long replayFrom;
+        try {
+            Files.createDirectories(directory);
+            replayFrom = JournalSnapshot.read(directory, this::apply);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read snapshot in " + directory, e);
+        }
+        this.recoveredRecords = AppendOnlyJournal.replay(directory, replayFrom, this::apply);
+        this.journal = new AppendOnlyJournal(directory, properties.journal().maxBatch());
+        logger.info("Recovered portal state from {} in {} ms ({} journal records replayed)", directory,
+                (System.nanoTime() - started) / 1_000_000, recoveredRecords);
+        if (skippedDocuments > 0) {
+            logger.warn("Skipped {} journalled documents because documents are not stored in memory", skippedDocuments);
+        }
+    }
+
+    /**
+     * Queues a record; the future completes once it is durable. Use this to fix the journal order of a change
+     * while holding a lock, and {@link #await} after releasing it.
+     */
+    CompletableFuture<Void> append(JournalRecord record) {
+        return journal.append(record);
+    }
+
+    /**
+     * Appends a record, waits until it is durable and only then applies {@code change} to the in-memory store,
+     * so a change that fails to reach the journal is never visible.
+     */
+    <T> T write(JournalRecord record, Supplier<T> change) {
+        return applying(() -> {
+            await(append(record));
+            return change.get();
+        });
+    }
+
+    /**
+     * Runs a change that queues its own record with {@link #append}, e.g. from inside an atomic update, so no
+     * snapshot starts between the record and the change.
+     */
+    <T> T applying(Supplier<T> change) {
+        changeLock.readLock().lock();
+        try {
+            return change.get();
+        } finally {
+            changeLock.readLock().unlock();
+        }
+    }
+
+    static void await(CompletableFuture<Void> durable) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${portal.persistence.journal.snapshot-check-interval:1m}")
+    public void snapshotIfDue() {
+        if (recoveredRecords + journal.recordsInCurrentSegment() >= snapshotAfterRecords) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Starts a new journal segment, writes the current state as a snapshot and deletes the older segments.
+     * Changes made while the snapshot is being written may or may not be in it; they are all in the new
+     * segment, and replaying them over the snapshot gives the same state either way.
+     */
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            long started = System.nanoTime();
+            long replayFrom;
+            changeLock.writeLock().lock();
+            try {
+                replayFrom = journal.roll().join();
+            } finally {
+                changeLock.writeLock().unlock();
+            }
+            JournalSnapshot.write(directory, replayFrom, records());
+            AppendOnlyJournal.deleteSegmentsBefore(directory, replayFrom);
+            recoveredRecords = 0;
+            logger.info("Wrote portal snapshot in {} ms", (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write snapshot in " + directory, e);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    private Stream<JournalRecord> records() {
+        Stream<JournalRecord> sectionRecords = sections.findAll().stream()
+                .collect(Collectors.groupingBy(ResumeSection::resumeId))
+                .values().stream()
+                .map(JournalRecord.PutSections::new);
+        return Stream.of(
+                resumes.findAll().stream().<JournalRecord>map(JournalRecord.PutResume::new),
+                sectionRecords,
+                sectionVersions.findAll().stream().<JournalRecord>map(JournalRecord.PutSectionVersion::new),
+                resumeVersions.findAll().stream().<JournalRecord>map(JournalRecord.PutResumeVersion::new),
+                documentRecords()
+        ).flatMap(records -> records);
+    }
+
+    private Stream<JournalRecord> documentRecords() {
+        if (documents == null) {
+            return Stream.empty();
+        }
+        return documents.findAll().stream().flatMap(this::documentRecord);
+    }
+
+    private Stream<JournalRecord> documentRecord(GeneratedDocument document) {
+        if (document.contentEvicted()) {
+            return Stream.of(new JournalRecord.PutDocument(document, null));
+        }
+        Optional<DocumentContent> content = documents.getContent(document.id());
+        return content.<JournalRecord>map(c -> new JournalRecord.PutDocument(document, c.toByteArray())).stream();
+    }
+
+    private void apply(JournalRecord record) {
+        switch (record) {
+            case JournalRecord.PutResume(var resume) -> resumes.save(resume);
+            case JournalRecord.DeleteResume(String resumeId) -> resumes.deleteById(resumeId);
+            case JournalRecord.PutSections(List<ResumeSection> batch) -> sections.saveAll(batch);
+            case JournalRecord.DeleteSection(String sectionId) -> sections.deleteById(sectionId);
+            case JournalRecord.PutSectionVersion(var version) -> sectionVersions.save(version);
+            case JournalRecord.DeleteSectionVersions(String sectionId, var keep) ->
+                    sectionVersions.deleteBySectionId(sectionId, keep);
+            case JournalRecord.PutResumeVersion(var version) -> resumeVersions.save(version);
+            case JournalRecord.DeleteResumeVersions(String resumeId) -> resumeVersions.deleteByResumeId(resumeId);
+            case JournalRecord.PutDocument(var document, var content) -> {
+                if (documents == null) {
+                    skippedDocuments++;
+                } else {
+                    documents.save(document, content);
+                }
+            }
+            case JournalRecord.DeleteDocument(String documentId) -> {
+                if (documents != null) {
+                    documents.deleteById(documentId);
+                }
+            }
+            case JournalRecord.EvictDocumentContent(String documentId) -> {
+                if (documents != null) {
+                    documents.evictContent(documentId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.documents.repository.InMemoryGeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.Optional;
+
+/**
+ * With {@code portal.persistence.mode=journal}, wraps the in-memory repositories in journaling decorators that
+ * every other bean receives instead. Generated documents are journalled only while they are stored in memory.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "portal.persistence", name = "mode", havingValue = "journal")
+public class JournalPersistenceConfig {
+
+    @Bean
+    public JournalPersistence journalPersistence(PersistenceProperties properties,
+                                                 InMemoryResumeRepository resumes,
+                                                 InMemorySectionRepository sections,
+                                                 InMemorySectionVersionRepository sectionVersions,
+                                                 InMemoryResumeVersionRepository resumeVersions,
+                                                 Optional<InMemoryGeneratedDocumentRepository> documents) {
+        return new JournalPersistence(properties, resumes, sections, sectionVersions, resumeVersions,
+                documents.orElse(null));
+    }
+
+    @Bean
+    @Primary
+    public ResumeRepository journaledResumeRepository(InMemoryResumeRepository delegate, JournalPersistence persistence) {
+        return new JournaledResumeRepository(delegate, persistence);
+    }
+
+    @Bean
+    @Primary
+    public SectionRepository journaledSectionRepository(InMemorySectionRepository delegate, JournalPersistence persistence) {
+        return new JournaledSectionRepository(delegate, persistence);
+    }
+
+    @Bean
+    @Primary
+    public SectionVersionRepository journaledSectionVersionRepository(InMemorySectionVersionRepository delegate,
+                                                                     JournalPersistence persistence) {
+        return new JournaledSectionVersionRepository(delegate, persistence);
+    }
+
+    @Bean
+    @Primary
+    public ResumeVersionRepository journaledResumeVersionRepository(InMemoryResumeVersionRepository delegate,
+                                                                   JournalPersistence persistence) {
+        return new JournaledResumeVersionRepository(delegate, persistence);
+    }
+
+    /**
+     * Only when documents are kept in memory; the mapped document store is durable by itself.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "portal.documents", name = "storage", havingValue = "memory", matchIfMissing = true)
+    public GeneratedDocumentRepository journaledGeneratedDocumentRepository(InMemoryGeneratedDocumentRepository delegate,
+                                                                           JournalPersistence persistence) {
+        return new JournaledGeneratedDocumentRepository(delegate, persistence);
+    }
+}
@@ -0,0 +1,53 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.resumes.domain.Resume;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One change to portal state. Every record carries the whole entity (or the id for deletes), so replaying a
+ * record that a snapshot already reflects leaves the state unchanged.
+ */
+sealed interface JournalRecord {
+
+    record PutResume(Resume resume) implements JournalRecord {}
+
+    record DeleteResume(String resumeId) implements JournalRecord {}
+
+    /**
+     * Sections of one resume written together, e.g. by a reorder, so recovery sees all of them or none.
+     */
+    record PutSections(List<ResumeSection> sections) implements JournalRecord {
+
+        // Checked before journalling, as a record that cannot be replayed must never reach the journal
+        public PutSections {
+            if (sections.stream().map(ResumeSection::resumeId).distinct().count() > 1) {
+                throw new IllegalArgumentException("Sections must belong to one resume");
+            }
+        }
+    }
+
+    record DeleteSection(String sectionId) implements JournalRecord {}
+
+    record PutSectionVersion(SectionVersion version) implements JournalRecord {}
+
+    record DeleteSectionVersions(String sectionId, Set<String> keepVersionIds) implements JournalRecord {}
+
+    record PutResumeVersion(ResumeVersion version) implements JournalRecord {}
+
+    record DeleteResumeVersions(String resumeId) implements JournalRecord {}
+
+    /**
+     * {@code content} is null for a document whose content has been evicted.
+     */
+    record PutDocument(GeneratedDocument document, byte[] content) implements JournalRecord {}
+
+    record EvictDocumentContent(String documentId) implements JournalRecord {}
+
+    record DeleteDocument(String documentId) implements JournalRecord {}
+}
@@ -0,0 +1,103 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A compacted copy of the whole portal state, written as framed records after a header naming the first journal
+ * segment that is not covered by it. The file is written under a temporary name and renamed into place, so a
+ * crash while snapshotting leaves the previous snapshot intact.
+ */
+final class JournalSnapshot {
+
+    private static final String FILE_NAME = "snapshot.bin";
+    private static final String TEMP_FILE_NAME = "snapshot.bin.tmp";
+    private static final int MAGIC = 0x4f525053; // "ORPS"
+    // Bumped with every change to the record layout; 2: resume versions carry their section manifest,
+    // 3: records for deleting resumes and their history
+    private static final int FORMAT_VERSION = 3;
+
+    private JournalSnapshot() {
+    }
+
+    /**
+     * @param replayFrom first journal segment whose records are not (necessarily) reflected in {@code records}
+     */
+    static void write(Path directory, long replayFrom, Stream<JournalRecord> records) throws IOException {
+        Path temp = directory.resolve(TEMP_FILE_NAME);
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(file), 64 * 1024);
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 2 + Long.BYTES)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(replayFrom);
+            out.write(header.array());
+            try {
+                records.forEach(record -> {
+                    try {
+                        ByteBuffer frame = JournalFrames.frame(JournalCodec.encode(record));
+                        out.write(frame.array(), 0, frame.limit());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+            file.force(true);
+        }
+        Files.move(temp, directory.resolve(FILE_NAME), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        AppendOnlyJournal.forceDirectory(directory);
+    }
+
+    /**
+     * Loads the snapshot, if any, into {@code consumer}.
+     *
+     * @return the first journal segment to replay after the snapshot; 0 when there is no snapshot
+     * @throws IllegalStateException if the snapshot is damaged, rather than silently starting from empty
+     */
+    static long read(Path directory, Consumer<JournalRecord> consumer) throws IOException {
+        Path path = directory.resolve(FILE_NAME);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long size = Files.size(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("Unrecognised snapshot " + path);
+            }
+            int formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IllegalStateException("Snapshot " + path + " has format version " + formatVersion
+                        + ", this build reads only version " + FORMAT_VERSION);
+            }
+            long replayFrom = in.readLong();
+            long position = Integer.BYTES * 2 + Long.BYTES;
+            byte[] payload;
+            while ((payload = JournalFrames.next(in)) != null) {
+                consumer.accept(JournalCodec.decode(payload));
+                position += JournalFrames.HEADER_BYTES + payload.length;
+            }
+            if (position != size) {
+                throw new IllegalStateException("Corrupt snapshot " + path + " at offset " + position);
+            }
+            return replayFrom;
+        }
+    }
+}
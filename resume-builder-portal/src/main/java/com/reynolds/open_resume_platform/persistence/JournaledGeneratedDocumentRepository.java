@@ -0,0 +1,79 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import com.reynolds.open_resume_platform.documents.domain.DocumentContent;
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.documents.repository.DocumentStorageStats;
+import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.documents.repository.InMemoryGeneratedDocumentRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Journals generated documents, content included, before adding them to the in-memory store.
+ */
+public class JournaledGeneratedDocumentRepository implements GeneratedDocumentRepository {
+
+    private final GeneratedDocumentRepository delegate;
+    private final JournalPersistence persistence;
+
+    public JournaledGeneratedDocumentRepository(GeneratedDocumentRepository delegate, JournalPersistence persistence) {
+        this.delegate = delegate;
+        this.persistence = persistence;
+    }
+
+    @Override
+    public GeneratedDocument save(GeneratedDocument document, byte[] content) {
+        // Rejected before journalling, as replaying the record would fail the same way
+        InMemoryGeneratedDocumentRepository.requireContentUnlessEvicted(document, content);
+        return persistence.write(new JournalRecord.PutDocument(document, content),
+                () -> delegate.save(document, content));
+    }
+
+    @Override
+    public Optional<GeneratedDocument> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<GeneratedDocument> findByResumeId(String resumeId) {
+        return delegate.findByResumeId(resumeId);
+    }
+
+    @Override
+    public List<GeneratedDocument> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Map<String, List<GeneratedDocument>> findAllByContentDigest() {
+        return delegate.findAllByContentDigest();
+    }
+
+    @Override
+    public Optional<DocumentContent> getContent(String documentId) {
+        return delegate.getContent(documentId);
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        if (delegate.findById(id).isEmpty()) {
+            return false;
+        }
+        return persistence.write(new JournalRecord.DeleteDocument(id), () -> delegate.deleteById(id));
+    }
+
+    @Override
+    public boolean evictContent(String id) {
+        if (delegate.findById(id).filter(document -> !document.contentEvicted()).isEmpty()) {
+            return false;
+        }
+        return persistence.write(new JournalRecord.EvictDocumentContent(id), () -> delegate.evictContent(id));
+    }
+
+    @Override
+    public DocumentStorageStats stats() {
+        return delegate.stats();
+    }
+}
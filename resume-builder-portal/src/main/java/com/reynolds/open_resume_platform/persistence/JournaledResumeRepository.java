@@ -0,0 +1,77 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import com.reynolds.open_resume_platform.resumes.domain.Resume;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Journals resume writes before applying them to the in-memory store. Reads go straight to the store.
+ */
+public class JournaledResumeRepository implements ResumeRepository {
+
+    private final ResumeRepository delegate;
+    private final JournalPersistence persistence;
+
+    public JournaledResumeRepository(ResumeRepository delegate, JournalPersistence persistence) {
+        this.delegate = delegate;
+        this.persistence = persistence;
+    }
+
+    @Override
+    public Resume save(Resume resume) {
+        return persistence.write(new JournalRecord.PutResume(resume), () -> delegate.save(resume));
+    }
+
+    @Override
+    public Optional<Resume> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Resume> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * The record is queued inside the atomic update, so concurrent updates reach the journal in the order they
+     * were applied; only the wait for durability happens outside it. An update whose record does not become
+     * durable is undone, unless a later update has already replaced it.
+     */
+    @Override
+    public Optional<Resume> updateById(String id, UnaryOperator<Resume> update) {
+        AtomicReference<CompletableFuture<Void>> durable = new AtomicReference<>();
+        AtomicReference<Resume> previous = new AtomicReference<>();
+        AtomicReference<Resume> applied = new AtomicReference<>();
+        Optional<Resume> updated = persistence.applying(() -> delegate.updateById(id, existing -> {
+            Resume next = update.apply(existing);
+            if (next != existing) {
+                durable.set(persistence.append(new JournalRecord.PutResume(next)));
+                previous.set(existing);
+                applied.set(next);
+            }
+            return next;
+        }));
+        if (durable.get() != null) {
+            try {
+                JournalPersistence.await(durable.get());
+            } catch (RuntimeException e) {
+                delegate.updateById(id, current -> current == applied.get() ? previous.get() : current);
+                throw e;
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        if (delegate.findById(id).isEmpty()) {
+            return false;
+        }
+        return persistence.write(new JournalRecord.DeleteResume(id), () -> delegate.deleteById(id));
+    }
+}
@@ -0,0 +1,67 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Journals resume versions before adding them to the in-memory store. Versions are immutable once saved, and
+ * only deleted together with their resume.
+ */
+public class JournaledResumeVersionRepository implements ResumeVersionRepository {
+
+    private final ResumeVersionRepository delegate;
+    private final JournalPersistence persistence;
+
+    public JournaledResumeVersionRepository(ResumeVersionRepository delegate, JournalPersistence persistence) {
+        this.delegate = delegate;
+        this.persistence = persistence;
+    }
+
+    @Override
+    public ResumeVersion save(ResumeVersion version) {
+        return persistence.write(new JournalRecord.PutResumeVersion(version), () -> delegate.save(version));
+    }
+
+    @Override
+    public Optional<ResumeVersion> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<ResumeVersion> findByResumeId(String resumeId) {
+        return delegate.findByResumeId(resumeId);
+    }
+
+    @Override
+    public List<ResumeVersion> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Optional<ResumeVersion> findByResumeIdAndVersionNo(String resumeId, int versionNo) {
+        return delegate.findByResumeIdAndVersionNo(resumeId, versionNo);
+    }
+
+    @Override
+    public Optional<ResumeVersion> findLatestByResumeId(String resumeId) {
+        return delegate.findLatestByResumeId(resumeId);
+    }
+
+    @Override
+    public Set<String> findResumeIds() {
+        return delegate.findResumeIds();
+    }
+
+    /**
+     * Journalled whether or not the resume has versions to delete; replaying it then changes nothing.
+     */
+    @Override
+    public long deleteByResumeId(String resumeId) {
+        return persistence.write(new JournalRecord.DeleteResumeVersions(resumeId),
+                () -> delegate.deleteByResumeId(resumeId));
+    }
+}
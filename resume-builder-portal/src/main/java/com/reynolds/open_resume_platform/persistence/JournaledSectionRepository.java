@@ -0,0 +1,61 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Journals section writes before applying them to the in-memory store. Section writes for a resume are
+ * serialised by the section services, so the store and the journal see them in the same order.
+ */
+public class JournaledSectionRepository implements SectionRepository {
+
+    private final SectionRepository delegate;
+    private final JournalPersistence persistence;
+
+    public JournaledSectionRepository(SectionRepository delegate, JournalPersistence persistence) {
+        this.delegate = delegate;
+        this.persistence = persistence;
+    }
+
+    @Override
+    public ResumeSection save(ResumeSection section) {
+        return persistence.write(new JournalRecord.PutSections(List.of(section)), () -> delegate.save(section));
+    }
+
+    @Override
+    public void saveAll(List<ResumeSection> sections) {
+        if (sections.isEmpty()) {
+            return;
+        }
+        persistence.write(new JournalRecord.PutSections(List.copyOf(sections)), () -> {
+            delegate.saveAll(sections);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<ResumeSection> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<ResumeSection> findByResumeIdOrderByOrder(String resumeId) {
+        return delegate.findByResumeIdOrderByOrder(resumeId);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        persistence.write(new JournalRecord.DeleteSection(id), () -> {
+            delegate.deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public List<ResumeSection> findAll() {
+        return delegate.findAll();
+    }
+}
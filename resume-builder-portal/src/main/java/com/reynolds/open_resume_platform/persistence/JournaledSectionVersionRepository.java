@@ -0,0 +1,62 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Journals section versions before adding them to the in-memory store. Versions are immutable once saved, and
+ * only deleted together with their section.
+ */
+public class JournaledSectionVersionRepository implements SectionVersionRepository {
+
+    private final SectionVersionRepository delegate;
+    private final JournalPersistence persistence;
+
+    public JournaledSectionVersionRepository(SectionVersionRepository delegate, JournalPersistence persistence) {
+        this.delegate = delegate;
+        this.persistence = persistence;
+    }
+
+    @Override
+    public SectionVersion save(SectionVersion version) {
+        return persistence.write(new JournalRecord.PutSectionVersion(version), () -> delegate.save(version));
+    }
+
+    @Override
+    public Optional<SectionVersion> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<SectionVersion> findBySectionIdOrderByVersionNoDesc(String sectionId) {
+        return delegate.findBySectionIdOrderByVersionNoDesc(sectionId);
+    }
+
+    @Override
+    public List<SectionVersion> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Optional<SectionVersion> findLatestBySectionId(String sectionId) {
+        return delegate.findLatestBySectionId(sectionId);
+    }
+
+    @Override
+    public Set<String> findSectionIds() {
+        return delegate.findSectionIds();
+    }
+
+    /**
+     * Journalled whether or not the section has history to delete; replaying it then changes nothing.
+     */
+    @Override
+    public long deleteBySectionId(String sectionId, Set<String> keepVersionIds) {
+        return persistence.write(new JournalRecord.DeleteSectionVersions(sectionId, Set.copyOf(keepVersionIds)),
+                () -> delegate.deleteBySectionId(sectionId, keepVersionIds));
+    }
+}
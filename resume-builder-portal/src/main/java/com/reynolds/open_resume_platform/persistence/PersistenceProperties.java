@@ -0,0 +1,38 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param mode      {@code memory} keeps portal state in memory only; {@code journal} also writes every change
+ *                  to an append-only journal under {@code directory} and recovers from it on startup
+ * @param directory where journal segments and snapshots are kept
+ */
+@ConfigurationProperties(prefix = "portal.persistence")
+@Validated
+public record PersistenceProperties(
+        @DefaultValue("memory") @NotNull Mode mode,
+        @DefaultValue("data") @NotNull Path directory,
+        @DefaultValue @Valid Journal journal
+) {
+
+    public enum Mode { MEMORY, JOURNAL }
+
+    /**
+     * @param maxBatch              most records written together and made durable with one fsync
+     * @param snapshotAfterRecords  journal records after which a snapshot is taken and older segments deleted
+     * @param snapshotCheckInterval how often to check whether a snapshot is due
+     */
+    public record Journal(
+            @DefaultValue("256") @Min(1) int maxBatch,
+            @DefaultValue("10000") @Min(1) int snapshotAfterRecords,
+            @DefaultValue("1m") Duration snapshotCheckInterval
+    ) {}
+}
@@ -1,5 +1,7 @@
 package com.reynolds.open_resume_platform.restcontrollers;
 
+import com.reynolds.open_resume_platform.documents.service.DocumentContentEvictedException;
+import com.reynolds.open_resume_platform.resumes.service.SectionContentChangedException;
 import com.reynolds.open_resume_platform.service.DocumentGenerationUnavailableException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -41,6 +43,22 @@ public class ApiExceptionHandler {
                 .body(new ErrorBody(ex.getMessage()));
     }
 
+    @ExceptionHandler(DocumentContentEvictedException.class)
+    public ResponseEntity<ErrorBody> handleDocumentContentEvicted(DocumentContentEvictedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.GONE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorBody(ex.getMessage()));
+    }
+
+    @ExceptionHandler(SectionContentChangedException.class)
+    public ResponseEntity<ErrorBody> handleSectionContentChanged(SectionContentChangedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorBody(ex.getMessage()));
+    }
+
     public record ErrorBody(String message) {}
 
     public record ValidationErrorBody(String message, List<String> errors) {}
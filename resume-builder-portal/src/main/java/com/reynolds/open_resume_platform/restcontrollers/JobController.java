@@ -0,0 +1,78 @@
+package com.reynolds.open_resume_platform.restcontrollers;
+
+import com.reynolds.open_resume_platform.jobs.domain.RenderJob;
+import com.reynolds.open_resume_platform.jobs.service.RenderJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+@Tag(name = "Jobs", description = "Poll or stream the progress of asynchronous DOCX generation")
+@RestController
+@RequestMapping("/api/v1/jobs")
+public class JobController {
+
+    private static final long EVENTS_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+
+    private final RenderJobService renderJobService;
+
+    public JobController(RenderJobService renderJobService) {
+        this.renderJobService = renderJobService;
+    }
+
+    @Operation(summary = "Get job", description = "Returns the job's status: QUEUED, RUNNING, DONE (with documentId and downloadUrl) or FAILED (with error).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Job found"),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<RenderJob> getById(@PathVariable String id) {
+        return renderJobService.getById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Stream job events", description = "Server-sent events with the job's current state and every change after it. Event names are queued, running, done and failed; the stream ends after done or failed.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream"),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    })
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable String id) {
+        if (renderJobService.getById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT_MILLIS);
+        // Subscribe before reading the current state so no change in between is missed
+        Runnable unsubscribe = renderJobService.subscribe(id, job -> send(emitter, job));
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        renderJobService.getById(id).ifPresent(job -> send(emitter, job));
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static void send(SseEmitter emitter, RenderJob job) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(job.status().name().toLowerCase(Locale.ROOT))
+                    .data(job, MediaType.APPLICATION_JSON));
+            if (job.status().isTerminal()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream already ended
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.reynolds.open_resume_platform.restcontrollers;
 import com.reynolds.open_resume_platform.documents.dto.DocumentSummary;
 import com.reynolds.open_resume_platform.documents.dto.GenerateDocxResponse;
 import com.reynolds.open_resume_platform.documents.service.GeneratedDocumentService;
+import com.reynolds.open_resume_platform.jobs.domain.RenderJob;
+import com.reynolds.open_resume_platform.jobs.service.RenderJobService;
 import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
 import com.reynolds.open_resume_platform.resumes.command.CreateResumeVersionCommand;
 import com.reynolds.open_resume_platform.resumes.command.CreateSectionCommand;
@@ -14,6 +16,7 @@ import com.reynolds.open_resume_platform.resumes.domain.Resume;
 import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
 import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
 import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+import com.reynolds.open_resume_platform.resumes.service.ResumeDeletionService;
 import com.reynolds.open_resume_platform.resumes.service.ResumeDocxService;
 import com.reynolds.open_resume_platform.resumes.service.ResumeService;
 import com.reynolds.open_resume_platform.resumes.service.ResumeVersionService;
@@ -32,10 +35,13 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.List;
 
 @Tag(name = "Resumes", description = "Create, list, get, update resumes; sections; generate DOCX")
@@ -51,14 +57,18 @@ public class ResumeController {
     private final GeneratedDocumentService generatedDocumentService;
     private final SectionService sectionService;
     private final SectionVersionService sectionVersionService;
+    private final RenderJobService renderJobService;
+    private final ResumeDeletionService resumeDeletionService;
 
-    public ResumeController(ResumeService resumeService, ResumeDocxService resumeDocxService, ResumeVersionService resumeVersionService, GeneratedDocumentService generatedDocumentService, SectionService sectionService, SectionVersionService sectionVersionService) {
+    public ResumeController(ResumeService resumeService, ResumeDocxService resumeDocxService, ResumeVersionService resumeVersionService, GeneratedDocumentService generatedDocumentService, SectionService sectionService, SectionVersionService sectionVersionService, RenderJobService renderJobService, ResumeDeletionService resumeDeletionService) {
         this.resumeService = resumeService;
         this.resumeDocxService = resumeDocxService;
         this.resumeVersionService = resumeVersionService;
         this.generatedDocumentService = generatedDocumentService;
         this.sectionService = sectionService;
         this.sectionVersionService = sectionVersionService;
+        this.renderJobService = renderJobService;
+        this.resumeDeletionService = resumeDeletionService;
     }
 
     @Operation(summary = "Create a resume", description = "Creates a new draft resume. Returns the created resume with id, status DRAFT, latestVersionNo 1.")
@@ -104,6 +114,16 @@ public class ResumeController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Delete a resume", description = "Deletes the resume with its sections and their history, its version snapshots and its generated documents.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Resume deleted"),
+            @ApiResponse(responseCode = "404", description = "Resume not found")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        return resumeDeletionService.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
     @Operation(summary = "Create version snapshot", description = "Creates a named snapshot (client variant) of the resume. Optional label, markdown, templateId; when omitted, current resume values are used.")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Version created"),
@@ -144,6 +164,23 @@ public class ResumeController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Generate DOCX asynchronously", description = "Queues DOCX generation and returns the job at once. Poll GET /api/v1/jobs/{jobId} or subscribe to /api/v1/jobs/{jobId}/events; when the job is DONE it carries the documentId and downloadUrl.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Job queued; Location header points at the job"),
+            @ApiResponse(responseCode = "404", description = "Resume not found"),
+            @ApiResponse(responseCode = "503", description = "Too many documents queued")
+    })
+    @PostMapping(value = "/{id}/generate", params = "async=true")
+    public ResponseEntity<RenderJob> generateDocxAsync(@PathVariable String id, @RequestBody(required = false) GenerateDocxRequest request) {
+        String versionId = request != null && request.versionId() != null && !request.versionId().isBlank() ? request.versionId() : null;
+        String templateId = request != null && request.templateId() != null && !request.templateId().isBlank() ? request.templateId() : null;
+        return renderJobService.submit(id, versionId, templateId)
+                .map(job -> ResponseEntity.accepted()
+                        .location(URI.create("/api/v1/jobs/" + job.id()))
+                        .body(job))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @Operation(summary = "List generated documents", description = "Returns all stored generated DOCX documents for the resume, newest first.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "List of documents (may be empty)"),
@@ -160,15 +197,17 @@ public class ResumeController {
     @Operation(summary = "Download generated document", description = "Returns the DOCX file for a stored document. Document must belong to the resume.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "DOCX file"),
-            @ApiResponse(responseCode = "404", description = "Resume or document not found")
+            @ApiResponse(responseCode = "404", description = "Resume or document not found"),
+            @ApiResponse(responseCode = "410", description = "Document content was evicted; generate it again")
     })
     @GetMapping("/{id}/documents/{documentId}/download")
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable String id, @PathVariable String documentId) {
+    public ResponseEntity<StreamingResponseBody> downloadDocument(@PathVariable String id, @PathVariable String documentId) {
         return generatedDocumentService.getContentForDownload(id, documentId)
-                .map(bytes -> ResponseEntity.ok()
+                .map(content -> ResponseEntity.ok()
                         .contentType(MediaType.parseMediaType(DOCX_CONTENT_TYPE))
+                        .contentLength(content.size())
                         .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"resume.docx\"")
-                        .body(bytes))
+                        .<StreamingResponseBody>body(content::writeTo))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -200,7 +239,7 @@ public class ResumeController {
         }
         try {
             ResumeSection section = sectionService.create(id, command);
-            return ResponseEntity.status(201).body(section);
+            return ResponseEntity.status(201).eTag(section.contentDigest()).body(section);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -220,20 +259,28 @@ public class ResumeController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Update section", description = "Updates a section's title and markdown. Section must belong to the resume.")
+    @Operation(summary = "Update section", description = "Updates a section's title and markdown. Section must belong to the resume. "
+            + "Send the section's contentDigest as If-Match to update only if nobody else has changed it; an unchanged title and markdown are not saved again.")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Section updated"),
+            @ApiResponse(responseCode = "200", description = "Section updated (ETag is the new contentDigest)"),
             @ApiResponse(responseCode = "404", description = "Resume or section not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid input")
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "412", description = "Section changed since the If-Match digest")
     })
     @PatchMapping("/{id}/sections/{sectionId}")
-    public ResponseEntity<ResumeSection> updateSection(@PathVariable String id, @PathVariable String sectionId, @Valid @RequestBody UpdateSectionCommand command) {
+    public ResponseEntity<ResumeSection> updateSection(@PathVariable String id, @PathVariable String sectionId,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                       @Valid @RequestBody UpdateSectionCommand command) {
         if (resumeService.getById(id).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        return sectionService.update(sectionId, command)
-                .filter(section -> id.equals(section.resumeId()))
-                .map(ResponseEntity::ok)
+        boolean sectionBelongsToResume = sectionService.listByResumeId(id).stream()
+                .anyMatch(s -> sectionId.equals(s.id()));
+        if (!sectionBelongsToResume) {
+            return ResponseEntity.notFound().build();
+        }
+        return sectionService.update(sectionId, command, entityTag(ifMatch))
+                .map(section -> ResponseEntity.ok().eTag(section.contentDigest()).body(section))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -287,7 +334,24 @@ public class ResumeController {
             return ResponseEntity.notFound().build();
         }
         return sectionVersionService.restore(sectionId, versionId)
-                .map(ResponseEntity::ok)
+                .map(section -> ResponseEntity.ok().eTag(section.contentDigest()).body(section))
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * The opaque value of an If-Match header, or null when absent or "*" (any current content matches).
+     */
+    private static String entityTag(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+        String tag = header.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        return tag;
+    }
 }
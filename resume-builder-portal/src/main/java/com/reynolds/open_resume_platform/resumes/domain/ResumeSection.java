@@ -1,11 +1,16 @@
 package com.reynolds.open_resume_platform.resumes.domain;
 
+import com.reynolds.open_resume_platform.digest.ContentDigests;
+
 import java.time.Instant;
 import java.util.Objects;
 
 /**
  * A section of a resume (e.g. Profile, Employment, Education).
  * Sections belong to a resume and have an order for assembly.
+ * <p>
+ * {@link #contentDigest()} identifies the title and markdown, so writes that would not change them can be
+ * skipped and clients can make writes conditional on the content they last saw.
  */
 public class ResumeSection {
 
@@ -16,6 +21,8 @@ public class ResumeSection {
     private final int order;
     private final Instant createdAt;
     private final Instant updatedAt;
+    // Computed on first use; sections are built far more often (reorders, listings) than their digest is read
+    private volatile String contentDigest;
 
     public ResumeSection(String id, String resumeId, String title, String markdown,
                          int order, Instant createdAt, Instant updatedAt) {
@@ -28,6 +35,13 @@ public class ResumeSection {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * SHA-256 hex digest of a section title and markdown, as returned by {@link #contentDigest()}.
+     */
+    public static String digestOf(String title, String markdown) {
+        return ContentDigests.sha256Hex(title, markdown);
+    }
+
     public String id() {
         return id;
     }
@@ -56,6 +70,16 @@ public class ResumeSection {
         return updatedAt;
     }
 
+    public String contentDigest() {
+        String digest = contentDigest;
+        if (digest == null) {
+            // Racing callers compute the same value, so the write needs no lock
+            digest = digestOf(title, markdown);
+            contentDigest = digest;
+        }
+        return digest;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
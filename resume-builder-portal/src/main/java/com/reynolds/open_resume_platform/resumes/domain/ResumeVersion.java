@@ -1,9 +1,14 @@
 package com.reynolds.open_resume_platform.resumes.domain;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * A snapshot of a resume at a point in time (e.g. "client variant").
+ * <p>
+ * A snapshot of a resume built from sections is stored as {@code sections}, references to the section versions
+ * it was assembled from, with {@code markdown} left null; the markdown is rebuilt from them when read. Snapshots
+ * of explicit or section-less markdown store the markdown itself and have no {@code sections}.
  */
 public record ResumeVersion(
         String id,
@@ -12,5 +17,20 @@ public record ResumeVersion(
         String label,
         String markdown,
         String templateId,
-        Instant createdAt
-) {}
+        Instant createdAt,
+        List<SectionRef> sections
+) {
+
+    public ResumeVersion(String id, String resumeId, int versionNo, String label, String markdown,
+                         String templateId, Instant createdAt) {
+        this(id, resumeId, versionNo, label, markdown, templateId, createdAt, null);
+    }
+
+    public boolean isManifest() {
+        return sections != null;
+    }
+
+    public ResumeVersion withMarkdown(String markdown) {
+        return new ResumeVersion(id, resumeId, versionNo, label, markdown, templateId, createdAt, sections);
+    }
+}
@@ -0,0 +1,11 @@
+package com.reynolds.open_resume_platform.resumes.domain;
+
+/**
+ * One section of a resume version snapshot: the section version whose markdown it shows, and the title the
+ * section had when the snapshot was taken.
+ */
+public record SectionRef(
+        String sectionId,
+        String sectionVersionId,
+        String title
+) {}
@@ -0,0 +1,138 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One stored markdown text: held as a {@code String} while it is being read, and as deflated UTF-8 once
+ * {@link ColdMarkdownStore} finds it has not been read for a while. It is never inflated back in place;
+ * reads of a compressed text go through the store's hot cache.
+ */
+final class ColdMarkdown {
+
+    // Rough heap cost of the String or byte[] object header and fields
+    private static final int OBJECT_OVERHEAD = 24;
+
+    private volatile String text;
+    private volatile byte[] deflated;
+    private volatile long lastRead;
+
+    ColdMarkdown(String text, long now) {
+        this.text = text;
+        this.lastRead = now;
+    }
+
+    /**
+     * The text if it has not been compressed, else null.
+     */
+    String hotText() {
+        return text;
+    }
+
+    boolean isCompressed() {
+        return text == null;
+    }
+
+    long lastRead() {
+        return lastRead;
+    }
+
+    void touch(long now) {
+        lastRead = now;
+    }
+
+    /**
+     * Compresses the text unless a concurrent read has made it warm again. {@code deflated} is published
+     * before {@code text} is cleared, so a reader always sees one of them.
+     */
+    boolean compressIfReadBefore(long cutoff) {
+        String current = text;
+        if (current == null || lastRead > cutoff) {
+            return false;
+        }
+        deflated = deflate(current);
+        text = null;
+        return true;
+    }
+
+    String inflate() {
+        String current = text;
+        if (current != null) {
+            return current;
+        }
+        byte[] bytes = deflated;
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, 4, bytes.length - 4);
+            byte[] utf8 = new byte[readLength(bytes)];
+            int read = 0;
+            while (read < utf8.length) {
+                int n = inflater.inflate(utf8, read, utf8.length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalStateException("Compressed markdown is truncated");
+                }
+                read += n;
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed markdown is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Approximate heap held for the text: its characters while hot (Latin-1 text is stored one byte per
+     * character), the compressed bytes once cold.
+     */
+    long heldBytes() {
+        String current = text;
+        if (current != null) {
+            return OBJECT_OVERHEAD + (long) current.length() * (isLatin1(current) ? 1 : 2);
+        }
+        return OBJECT_OVERHEAD + deflated.length;
+    }
+
+    /**
+     * The UTF-8 length as four big-endian bytes, then the raw deflate stream.
+     */
+    private static byte[] deflate(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            byte[] out = new byte[4 + Math.max(64, utf8.length / 2)];
+            out[0] = (byte) (utf8.length >>> 24);
+            out[1] = (byte) (utf8.length >>> 16);
+            out[2] = (byte) (utf8.length >>> 8);
+            out[3] = (byte) utf8.length;
+            int size = 4;
+            while (!deflater.finished()) {
+                if (size == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                size += deflater.deflate(out, size, out.length - size);
+            }
+            return Arrays.copyOf(out, size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static int readLength(byte[] bytes) {
+        return (bytes[0] & 0xff) << 24 | (bytes[1] & 0xff) << 16 | (bytes[2] & 0xff) << 8 | bytes[3] & 0xff;
+    }
+
+    private static boolean isLatin1(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xff) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
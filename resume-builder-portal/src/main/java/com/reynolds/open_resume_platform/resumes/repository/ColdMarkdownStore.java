@@ -0,0 +1,123 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a repository's stored markdown compressed once it goes cold: {@link #compressCold} compresses texts
+ * not read within {@code coldAfter}, and reads of compressed texts are served from a small LRU of inflated
+ * texts, so a version read repeatedly is inflated once. Listing a history therefore returns exactly the same
+ * text as before, only the heap held between reads shrinks.
+ */
+final class ColdMarkdownStore {
+
+    private final long coldAfterNanos;
+    private final int minCompressLength;
+    private final int hotCacheSize;
+    private final LongSupplier clock;
+    private final ReentrantLock hotLock = new ReentrantLock();
+    private final LinkedHashMap<ColdMarkdown, String> hot = new LinkedHashMap<>(16, 0.75f, true);
+
+    ColdMarkdownStore(MarkdownStorageProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    ColdMarkdownStore(MarkdownStorageProperties properties, LongSupplier clock) {
+        this.coldAfterNanos = properties.coldAfter().toNanos();
+        this.minCompressLength = properties.minCompressLength();
+        this.hotCacheSize = properties.hotCacheSize();
+        this.clock = clock;
+    }
+
+    /**
+     * Null for null markdown.
+     */
+    ColdMarkdown store(String markdown) {
+        return markdown != null ? new ColdMarkdown(markdown, clock.getAsLong()) : null;
+    }
+
+    String read(ColdMarkdown markdown) {
+        if (markdown == null) {
+            return null;
+        }
+        markdown.touch(clock.getAsLong());
+        String text = markdown.hotText();
+        if (text != null) {
+            return text;
+        }
+        text = cached(markdown);
+        if (text == null) {
+            text = markdown.inflate();
+            cache(markdown, text);
+        }
+        return text;
+    }
+
+    /**
+     * Reads without counting as a use, for bulk reads such as journal snapshots that should not keep
+     * everything warm.
+     */
+    String peek(ColdMarkdown markdown) {
+        if (markdown == null) {
+            return null;
+        }
+        String text = markdown.hotText();
+        if (text != null) {
+            return text;
+        }
+        text = cached(markdown);
+        return text != null ? text : markdown.inflate();
+    }
+
+    /**
+     * Returns the number of texts compressed.
+     */
+    int compressCold(Iterable<ColdMarkdown> texts) {
+        long cutoff = clock.getAsLong() - coldAfterNanos;
+        int compressed = 0;
+        for (ColdMarkdown markdown : texts) {
+            String text = markdown != null ? markdown.hotText() : null;
+            if (text != null && text.length() >= minCompressLength && markdown.compressIfReadBefore(cutoff)) {
+                compressed++;
+            }
+        }
+        return compressed;
+    }
+
+    void forget(ColdMarkdown markdown) {
+        if (markdown == null) {
+            return;
+        }
+        hotLock.lock();
+        try {
+            hot.remove(markdown);
+        } finally {
+            hotLock.unlock();
+        }
+    }
+
+    private String cached(ColdMarkdown markdown) {
+        hotLock.lock();
+        try {
+            return hot.get(markdown);
+        } finally {
+            hotLock.unlock();
+        }
+    }
+
+    private void cache(ColdMarkdown markdown, String text) {
+        if (hotCacheSize == 0) {
+            return;
+        }
+        hotLock.lock();
+        try {
+            hot.put(markdown, text);
+            if (hot.size() > hotCacheSize) {
+                hot.remove(hot.keySet().iterator().next());
+            }
+        } finally {
+            hotLock.unlock();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 
 @Repository
 public class InMemoryResumeRepository implements ResumeRepository {
@@ -29,4 +30,14 @@ public class InMemoryResumeRepository implements ResumeRepository {
     public List<Resume> findAll() {
         return List.copyOf(store.values());
     }
+
+    @Override
+    public Optional<Resume> updateById(String id, UnaryOperator<Resume> update) {
+        return Optional.ofNullable(store.computeIfPresent(id, (key, existing) -> update.apply(existing)));
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return store.remove(id) != null;
+    }
 }
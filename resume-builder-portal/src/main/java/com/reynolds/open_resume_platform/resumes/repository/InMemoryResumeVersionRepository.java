@@ -2,42 +2,158 @@ package com.reynolds.open_resume_platform.resumes.repository;
 
 import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
 
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
+/**
+ * Versions by id, plus a per-resume index of versions keyed by version number, so lookups by resume
+ * never scan versions of other resumes.
+ * <p>
+ * A version's markdown is held apart from the rest of it in a {@link ColdMarkdown}, so versions that are no
+ * longer read are kept compressed.
+ */
 @Repository
 public class InMemoryResumeVersionRepository implements ResumeVersionRepository {
 
-    private final Map<String, ResumeVersion> byId = new ConcurrentHashMap<>();
+    private final ColdMarkdownStore markdownStore;
+    private final Map<String, StoredVersion> byId = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentNavigableMap<Integer, StoredVersion>> byResumeId = new ConcurrentHashMap<>();
 
+    public InMemoryResumeVersionRepository(MarkdownStorageProperties properties) {
+        this.markdownStore = new ColdMarkdownStore(properties);
+    }
+
+    /**
+     * Saving a version under a version number the resume already uses replaces the version stored there, and
+     * saving an existing id under a new version number moves it; either way both indexes keep agreeing.
+     */
     @Override
     public ResumeVersion save(ResumeVersion version) {
-        byId.put(version.id(), version);
+        StoredVersion stored = new StoredVersion(version.withMarkdown(null), markdownStore.store(version.markdown()));
+        byResumeId.compute(version.resumeId(), (resumeId, versions) -> {
+            ConcurrentNavigableMap<Integer, StoredVersion> updated = versions != null ? versions : new ConcurrentSkipListMap<>();
+            StoredVersion displaced = updated.put(version.versionNo(), stored);
+            if (displaced != null && !displaced.version().id().equals(version.id())) {
+                byId.remove(displaced.version().id(), displaced);
+                markdownStore.forget(displaced.markdown());
+            }
+            StoredVersion replaced = byId.put(version.id(), stored);
+            if (replaced != null) {
+                markdownStore.forget(replaced.markdown());
+                if (replaced.version().versionNo() != version.versionNo()) {
+                    updated.remove(replaced.version().versionNo(), replaced);
+                }
+            }
+            return updated;
+        });
         return version;
     }
 
     @Override
     public Optional<ResumeVersion> findById(String id) {
-        return Optional.ofNullable(byId.get(id));
+        return Optional.ofNullable(byId.get(id)).map(this::read);
     }
 
     @Override
     public List<ResumeVersion> findByResumeId(String resumeId) {
-        return byId.values().stream()
-                .filter(v -> resumeId.equals(v.resumeId()))
-                .sorted(Comparator.comparingInt(ResumeVersion::versionNo))
-                .toList();
+        ConcurrentNavigableMap<Integer, StoredVersion> versions = byResumeId.get(resumeId);
+        return versions != null ? versions.values().stream().map(this::read).toList() : List.of();
+    }
+
+    /**
+     * Reads every version without marking it as used, so a journal snapshot does not keep all markdown warm.
+     */
+    @Override
+    public List<ResumeVersion> findAll() {
+        List<ResumeVersion> all = new ArrayList<>(byId.size());
+        for (StoredVersion stored : byId.values()) {
+            all.add(stored.withMarkdown(markdownStore.peek(stored.markdown())));
+        }
+        return List.copyOf(all);
     }
 
     @Override
     public Optional<ResumeVersion> findByResumeIdAndVersionNo(String resumeId, int versionNo) {
+        ConcurrentNavigableMap<Integer, StoredVersion> versions = byResumeId.get(resumeId);
+        return versions != null ? Optional.ofNullable(versions.get(versionNo)).map(this::read) : Optional.empty();
+    }
+
+    @Override
+    public Optional<ResumeVersion> findLatestByResumeId(String resumeId) {
+        ConcurrentNavigableMap<Integer, StoredVersion> versions = byResumeId.get(resumeId);
+        if (versions == null) {
+            return Optional.empty();
+        }
+        Map.Entry<Integer, StoredVersion> latest = versions.lastEntry();
+        return latest != null ? Optional.of(read(latest.getValue())) : Optional.empty();
+    }
+
+    @Override
+    public Set<String> findResumeIds() {
+        return Set.copyOf(byResumeId.keySet());
+    }
+
+    @Override
+    public long deleteByResumeId(String resumeId) {
+        ConcurrentNavigableMap<Integer, StoredVersion> versions = byResumeId.remove(resumeId);
+        if (versions == null) {
+            return 0;
+        }
+        long released = 0;
+        for (StoredVersion stored : versions.values()) {
+            if (byId.remove(stored.version().id(), stored)) {
+                released += stored.heldBytes();
+            }
+            markdownStore.forget(stored.markdown());
+        }
+        return released;
+    }
+
+    @Scheduled(fixedDelayString = "${portal.markdown-storage.sweep-interval:1m}")
+    public void compressColdMarkdown() {
+        markdownStore.compressCold(byId.values().stream().map(StoredVersion::markdown)::iterator);
+    }
+
+    /**
+     * Approximate heap held for version markdown.
+     */
+    long markdownHeldBytes() {
         return byId.values().stream()
-                .filter(v -> resumeId.equals(v.resumeId()) && v.versionNo() == versionNo)
-                .findFirst();
+                .filter(stored -> stored.markdown() != null)
+                .mapToLong(stored -> stored.markdown().heldBytes())
+                .sum();
+    }
+
+    private ResumeVersion read(StoredVersion stored) {
+        return stored.withMarkdown(markdownStore.read(stored.markdown()));
+    }
+
+    /**
+     * {@code version} has its markdown cleared; it is kept in {@code markdown}, which is null when the version has
+     * none (e.g. a manifest snapshot).
+     */
+    private record StoredVersion(ResumeVersion version, ColdMarkdown markdown) {
+
+        // Rough heap cost of the entry and the version's other fields, and of one manifest reference
+        private static final int ENTRY_OVERHEAD = 160;
+        private static final int REF_OVERHEAD = 120;
+
+        ResumeVersion withMarkdown(String text) {
+            return text != null ? version.withMarkdown(text) : version;
+        }
+
+        long heldBytes() {
+            long refs = version.sections() != null ? version.sections().size() : 0;
+            return ENTRY_OVERHEAD + refs * REF_OVERHEAD + (markdown != null ? markdown.heldBytes() : 0);
+        }
     }
 }
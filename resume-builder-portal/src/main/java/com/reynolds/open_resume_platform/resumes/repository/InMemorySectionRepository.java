@@ -3,24 +3,80 @@ package com.reynolds.open_resume_platform.resumes.repository;
 import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
+/**
+ * Sections by id, plus an index of each resume's sections sorted by order. The index holds an immutable
+ * list per resume that is replaced on every write, so reads return it as-is without scanning or sorting.
+ * Writes for one resume are serialised by {@link ConcurrentHashMap#compute}, which keeps the index and
+ * the id map consistent.
+ */
 @Repository
 public class InMemorySectionRepository implements SectionRepository {
 
+    private static final Comparator<ResumeSection> BY_ORDER = Comparator.comparingInt(ResumeSection::order);
+
     private final Map<String, ResumeSection> store = new ConcurrentHashMap<>();
+    private final Map<String, List<ResumeSection>> sectionsByResumeId = new ConcurrentHashMap<>();
 
     @Override
     public ResumeSection save(ResumeSection section) {
-        store.put(section.id(), section);
+        ResumeSection previous = store.get(section.id());
+        if (previous != null && !previous.resumeId().equals(section.resumeId())) {
+            sectionsByResumeId.computeIfPresent(previous.resumeId(), (resumeId, sections) -> without(sections, section.id()));
+        }
+        sectionsByResumeId.compute(section.resumeId(), (resumeId, sections) -> {
+            store.put(section.id(), section);
+            List<ResumeSection> updated = new ArrayList<>(sections != null ? sections.size() + 1 : 1);
+            if (sections != null) {
+                for (ResumeSection existing : sections) {
+                    if (!existing.id().equals(section.id())) {
+                        updated.add(existing);
+                    }
+                }
+            }
+            updated.add(insertionPoint(updated, section), section);
+            return Collections.unmodifiableList(updated);
+        });
         return section;
     }
 
+    @Override
+    public void saveAll(List<ResumeSection> sections) {
+        if (sections.isEmpty()) {
+            return;
+        }
+        String resumeId = sections.getFirst().resumeId();
+        Map<String, ResumeSection> byId = new LinkedHashMap<>();
+        for (ResumeSection section : sections) {
+            if (!resumeId.equals(section.resumeId())) {
+                throw new IllegalArgumentException("Sections must belong to one resume");
+            }
+            byId.put(section.id(), section);
+        }
+        sectionsByResumeId.compute(resumeId, (id, existing) -> {
+            List<ResumeSection> updated = new ArrayList<>();
+            if (existing != null) {
+                for (ResumeSection section : existing) {
+                    if (!byId.containsKey(section.id())) {
+                        updated.add(section);
+                    }
+                }
+            }
+            updated.addAll(byId.values());
+            updated.sort(BY_ORDER);
+            store.putAll(byId);
+            return Collections.unmodifiableList(updated);
+        });
+    }
+
     @Override
     public Optional<ResumeSection> findById(String id) {
         return Optional.ofNullable(store.get(id));
@@ -28,14 +84,54 @@ public class InMemorySectionRepository implements SectionRepository {
 
     @Override
     public List<ResumeSection> findByResumeIdOrderByOrder(String resumeId) {
-        return store.values().stream()
-                .filter(s -> resumeId.equals(s.resumeId()))
-                .sorted(Comparator.comparingInt(ResumeSection::order))
-                .collect(Collectors.toList());
+        return sectionsByResumeId.getOrDefault(resumeId, List.of());
+    }
+
+    @Override
+    public List<ResumeSection> findAll() {
+        return List.copyOf(store.values());
     }
 
     @Override
     public void deleteById(String id) {
-        store.remove(id);
+        ResumeSection existing = store.get(id);
+        if (existing == null) {
+            return;
+        }
+        sectionsByResumeId.computeIfPresent(existing.resumeId(), (resumeId, sections) -> {
+            store.remove(id);
+            return without(sections, id);
+        });
+    }
+
+    /**
+     * Position after the last section with an order less than or equal to the new one, so sections
+     * with equal order keep the order they were saved in.
+     */
+    private static int insertionPoint(List<ResumeSection> sorted, ResumeSection section) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (BY_ORDER.compare(sorted.get(mid), section) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the list without the section, or null (which removes the map entry) if nothing is left.
+     */
+    private static List<ResumeSection> without(List<ResumeSection> sections, String sectionId) {
+        List<ResumeSection> remaining = new ArrayList<>(sections.size());
+        for (ResumeSection section : sections) {
+            if (!section.id().equals(sectionId)) {
+                remaining.add(section);
+            }
+        }
+        return remaining.isEmpty() ? null : Collections.unmodifiableList(remaining);
     }
 }
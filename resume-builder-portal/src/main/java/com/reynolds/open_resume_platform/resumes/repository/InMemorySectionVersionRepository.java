@@ -1,36 +1,359 @@
 package com.reynolds.open_resume_platform.resumes.repository;
 
 import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
-import java.util.Comparator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
+/**
+ * Versions by id, plus a per-section index keyed by version number for history and latest-version lookups.
+ * <p>
+ * Most versions are stored as a {@link MarkdownDelta} against the version before them, so a section's history
+ * grows with the size of its edits rather than with the size of the section. Every {@code keyframeInterval}
+ * versions, and whenever a delta would not be much smaller than the text itself, the full markdown is stored
+ * instead; rebuilding a version therefore applies fewer than {@code keyframeInterval} deltas, and rebuilt
+ * versions are kept in a small LRU cache.
+ * <p>
+ * Keyframe markdown is held in a {@link ColdMarkdown}, so keyframes that are no longer read are kept compressed.
+ */
 @Repository
 public class InMemorySectionVersionRepository implements SectionVersionRepository {
 
-    private final Map<String, SectionVersion> store = new ConcurrentHashMap<>();
+    private final int keyframeInterval;
+    private final ColdMarkdownStore markdownStore;
+    private final Map<String, StoredVersion> store = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentNavigableMap<Integer, StoredVersion>> bySectionId = new ConcurrentHashMap<>();
+    private final RebuiltVersionCache cache;
+    private final AtomicLong deltasApplied = new AtomicLong();
 
+    public InMemorySectionVersionRepository(SectionHistoryProperties properties,
+                                            MarkdownStorageProperties storageProperties) {
+        this.keyframeInterval = properties.keyframeInterval();
+        this.cache = new RebuiltVersionCache(properties.cacheSize());
+        this.markdownStore = new ColdMarkdownStore(storageProperties);
+    }
+
+    /**
+     * Writes to one section are serialised by computing on its index entry, so each delta is taken against the
+     * version it actually follows. Reads that rebuild a version do the same (see {@link #readSection}).
+     */
     @Override
     public SectionVersion save(SectionVersion version) {
-        store.put(version.id(), version);
+        bySectionId.compute(version.sectionId(), (sectionId, versions) -> {
+            ConcurrentNavigableMap<Integer, StoredVersion> history =
+                    versions != null ? versions : new ConcurrentSkipListMap<>();
+            StoredVersion replaced = history.get(version.versionNo());
+            if (replaced != null && isSameVersion(replaced, version, history)) {
+                // Saved again unchanged, e.g. a journal record replayed over the snapshot that contains it
+                return history;
+            }
+            if (replaced != null) {
+                detachDependents(history, replaced);
+                store.remove(replaced.id);
+                cache.remove(replaced.id);
+                markdownStore.forget(replaced.keyframe);
+            }
+            StoredVersion stored = encode(version, history.lowerEntry(version.versionNo()), history);
+            history.put(version.versionNo(), stored);
+            store.put(version.id(), stored);
+            if (stored.delta != null) {
+                cache.put(version.id(), version.markdown());
+            }
+            return history;
+        });
         return version;
     }
 
     @Override
     public Optional<SectionVersion> findById(String id) {
-        return Optional.ofNullable(store.get(id));
+        StoredVersion stored = store.get(id);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        return readSection(stored.sectionId, history -> {
+            StoredVersion current = history.get(stored.versionNo);
+            return current != null && current.id.equals(id) ? current.toVersion(rebuild(current, history)) : null;
+        });
     }
 
     @Override
     public List<SectionVersion> findBySectionIdOrderByVersionNoDesc(String sectionId) {
+        List<SectionVersion> versions = history(sectionId, true);
+        Collections.reverse(versions);
+        return Collections.unmodifiableList(versions);
+    }
+
+    /**
+     * Reads every version without marking keyframes as used, so a journal snapshot does not keep them all warm.
+     */
+    @Override
+    public List<SectionVersion> findAll() {
+        List<SectionVersion> all = new ArrayList<>(store.size());
+        for (String sectionId : bySectionId.keySet()) {
+            all.addAll(history(sectionId, false));
+        }
+        return List.copyOf(all);
+    }
+
+    @Override
+    public Optional<SectionVersion> findLatestBySectionId(String sectionId) {
+        return readSection(sectionId, versions -> {
+            Map.Entry<Integer, StoredVersion> latest = versions.lastEntry();
+            return latest != null ? latest.getValue().toVersion(rebuild(latest.getValue(), versions)) : null;
+        });
+    }
+
+    @Override
+    public Set<String> findSectionIds() {
+        return Set.copyOf(bySectionId.keySet());
+    }
+
+    /**
+     * A kept version stored as a delta against a deleted one is stored in full instead; one whose base is also
+     * kept stays a delta. What is released is net of those rewrites, so it is 0 when they outweigh what was
+     * deleted.
+     */
+    @Override
+    public long deleteBySectionId(String sectionId, Set<String> keepVersionIds) {
+        long[] released = {0};
+        bySectionId.computeIfPresent(sectionId, (id, history) -> {
+            if (keepVersionIds.containsAll(history.values().stream().map(StoredVersion::id).toList())) {
+                return history;
+            }
+            Map<Integer, StoredVersion> kept = new LinkedHashMap<>();
+            for (StoredVersion stored : history.values()) {
+                if (!keepVersionIds.contains(stored.id)) {
+                    continue;
+                }
+                boolean baseKept = stored.delta == null || kept.containsKey(stored.baseVersionNo);
+                kept.put(stored.versionNo, baseKept ? stored : keyframe(stored.toVersion(rebuild(stored, history))));
+            }
+            for (StoredVersion stored : history.values()) {
+                released[0] += stored.heldBytes();
+                StoredVersion keeping = kept.get(stored.versionNo);
+                if (keeping != null) {
+                    released[0] -= keeping.heldBytes();
+                } else {
+                    store.remove(stored.id);
+                    cache.remove(stored.id);
+                    markdownStore.forget(stored.keyframe);
+                }
+            }
+            if (kept.isEmpty()) {
+                return null;
+            }
+            ConcurrentNavigableMap<Integer, StoredVersion> remaining = new ConcurrentSkipListMap<>(kept);
+            remaining.values().forEach(stored -> store.put(stored.id, stored));
+            return remaining;
+        });
+        return Math.max(released[0], 0);
+    }
+
+    @Scheduled(fixedDelayString = "${portal.markdown-storage.sweep-interval:1m}")
+    public void compressColdMarkdown() {
+        markdownStore.compressCold(store.values().stream().map(StoredVersion::keyframe)::iterator);
+    }
+
+    /**
+     * Approximate heap held for the stored versions: the keyframe text (compressed once cold), and the encoded
+     * size of deltas.
+     */
+    long storedSize() {
         return store.values().stream()
-                .filter(v -> sectionId.equals(v.sectionId()))
-                .sorted(Comparator.comparingInt(SectionVersion::versionNo).reversed())
-                .collect(Collectors.toList());
+                .mapToLong(StoredVersion::heldBytes)
+                .sum();
+    }
+
+    long deltasApplied() {
+        return deltasApplied.get();
+    }
+
+    /**
+     * Oldest first. Walks the history once, rebuilding each delta from the text just built before it. Keyframes
+     * are only marked as used when {@code touch} is set.
+     */
+    private List<SectionVersion> history(String sectionId, boolean touch) {
+        return readSection(sectionId, versions -> {
+            List<SectionVersion> history = new ArrayList<>(versions.size());
+            Map<Integer, String> built = new HashMap<>();
+            for (StoredVersion stored : versions.values()) {
+                String markdown;
+                if (stored.delta == null) {
+                    markdown = touch ? markdownStore.read(stored.keyframe) : markdownStore.peek(stored.keyframe);
+                } else if (built.containsKey(stored.baseVersionNo)) {
+                    markdown = apply(stored, built.get(stored.baseVersionNo));
+                } else {
+                    markdown = rebuild(stored, versions);
+                }
+                built.put(stored.versionNo, markdown);
+                history.add(stored.toVersion(markdown));
+            }
+            return history;
+        }).orElseGet(ArrayList::new);
+    }
+
+    /**
+     * Runs {@code read} on a section's history inside its index entry's compute, as writes do, so a concurrent
+     * save or delete cannot replace or remove a version's base between looking the version up and rebuilding it.
+     * Empty when the section has no history or {@code read} returns null.
+     */
+    private <T> Optional<T> readSection(String sectionId,
+                                        Function<ConcurrentNavigableMap<Integer, StoredVersion>, T> read) {
+        AtomicReference<T> result = new AtomicReference<>();
+        bySectionId.computeIfPresent(sectionId, (id, versions) -> {
+            result.set(read.apply(versions));
+            return versions;
+        });
+        return Optional.ofNullable(result.get());
+    }
+
+    private String rebuild(StoredVersion stored, Map<Integer, StoredVersion> versions) {
+        if (stored.delta == null) {
+            return markdownStore.read(stored.keyframe);
+        }
+        String cached = cache.get(stored.id);
+        if (cached != null) {
+            return cached;
+        }
+        StoredVersion base = versions != null ? versions.get(stored.baseVersionNo) : null;
+        if (base == null) {
+            throw new IllegalStateException("Section version " + stored.id + " is missing its base version "
+                    + stored.baseVersionNo);
+        }
+        String markdown = apply(stored, rebuild(base, versions));
+        cache.put(stored.id, markdown);
+        return markdown;
+    }
+
+    private String apply(StoredVersion stored, String base) {
+        deltasApplied.incrementAndGet();
+        return stored.delta.apply(base);
+    }
+
+    private StoredVersion encode(SectionVersion version,
+                                 Map.Entry<Integer, StoredVersion> previous,
+                                 Map<Integer, StoredVersion> history) {
+        String markdown = version.markdown();
+        if (previous == null || previous.getValue().depth + 1 >= keyframeInterval || markdown == null) {
+            return keyframe(version);
+        }
+        String base = rebuild(previous.getValue(), history);
+        if (base == null) {
+            return keyframe(version);
+        }
+        MarkdownDelta delta = MarkdownDelta.between(base, markdown);
+        if (delta.encodedSize() * 2 >= markdown.length()) {
+            return keyframe(version);
+        }
+        return new StoredVersion(version.id(), version.sectionId(), version.versionNo(), version.createdAt(),
+                null, delta, previous.getKey(), previous.getValue().depth + 1);
+    }
+
+    private boolean isSameVersion(StoredVersion stored, SectionVersion version, Map<Integer, StoredVersion> history) {
+        return stored.id.equals(version.id())
+                && Objects.equals(stored.createdAt, version.createdAt())
+                && Objects.equals(rebuild(stored, history), version.markdown());
+    }
+
+    /**
+     * Turns versions stored as deltas against {@code replaced} into keyframes, so replacing it cannot change them.
+     */
+    private void detachDependents(Map<Integer, StoredVersion> history, StoredVersion replaced) {
+        for (StoredVersion dependent : List.copyOf(history.values())) {
+            if (dependent.delta != null && dependent.baseVersionNo == replaced.versionNo) {
+                StoredVersion keyframe = keyframe(dependent.toVersion(rebuild(dependent, history)));
+                history.put(dependent.versionNo, keyframe);
+                store.put(dependent.id, keyframe);
+            }
+        }
+    }
+
+    private StoredVersion keyframe(SectionVersion version) {
+        return new StoredVersion(version.id(), version.sectionId(), version.versionNo(), version.createdAt(),
+                markdownStore.store(version.markdown()), null, 0, 0);
+    }
+
+    /**
+     * A version as stored: either the full markdown ({@code delta == null}) or a delta against
+     * {@code baseVersionNo}, which is {@code depth} deltas away from the nearest keyframe.
+     */
+    private record StoredVersion(String id, String sectionId, int versionNo, Instant createdAt,
+                                 ColdMarkdown keyframe, MarkdownDelta delta, int baseVersionNo, int depth) {
+
+        SectionVersion toVersion(String markdown) {
+            return new SectionVersion(id, sectionId, versionNo, markdown, createdAt);
+        }
+
+        long heldBytes() {
+            if (delta != null) {
+                return delta.encodedSize();
+            }
+            return keyframe != null ? keyframe.heldBytes() : 0;
+        }
+    }
+
+    /**
+     * LRU of rebuilt markdown by version id. A lock rather than {@code synchronized}, so virtual threads are not
+     * pinned while waiting.
+     */
+    private static final class RebuiltVersionCache {
+
+        private final int capacity;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        RebuiltVersionCache(int capacity) {
+            this.capacity = capacity;
+        }
+
+        String get(String id) {
+            lock.lock();
+            try {
+                return entries.get(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(String id, String markdown) {
+            if (capacity == 0 || markdown == null) {
+                return;
+            }
+            lock.lock();
+            try {
+                entries.put(id, markdown);
+                if (entries.size() > capacity) {
+                    entries.remove(entries.keySet().iterator().next());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(String id) {
+            lock.lock();
+            try {
+                entries.remove(id);
+            } finally {
+                lock.unlock();
+            }
+        }
     }
 }
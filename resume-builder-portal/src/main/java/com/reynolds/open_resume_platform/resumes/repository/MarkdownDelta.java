@@ -0,0 +1,152 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The edit that turns one markdown text into the next: the common prefix and suffix are kept as lengths, and the
+ * part in between as runs of lines copied from the base text plus newly inserted text. Its size therefore
+ * follows the size of the edit rather than the size of the text.
+ */
+final class MarkdownDelta {
+
+    // Lines shorter than this are inserted rather than looked up elsewhere in the base, since a copy costs more
+    private static final int MIN_COPY_LENGTH = 8;
+    // Rough heap cost of one copy or insert operation, used when comparing a delta with a full copy
+    private static final int OP_OVERHEAD = 32;
+
+    private final int prefixLength;
+    private final int suffixLength;
+    private final int targetLength;
+    private final List<Op> ops;
+
+    private MarkdownDelta(int prefixLength, int suffixLength, int targetLength, List<Op> ops) {
+        this.prefixLength = prefixLength;
+        this.suffixLength = suffixLength;
+        this.targetLength = targetLength;
+        this.ops = ops;
+    }
+
+    static MarkdownDelta between(String base, String target) {
+        int prefix = commonPrefix(base, target);
+        int suffix = commonSuffix(base, target, prefix);
+        int baseEnd = base.length() - suffix;
+        int targetEnd = target.length() - suffix;
+
+        Map<String, Integer> lineOffsets = new HashMap<>();
+        for (int start = prefix; start < baseEnd; ) {
+            int end = lineEnd(base, start, baseEnd);
+            if (end - start >= MIN_COPY_LENGTH) {
+                lineOffsets.putIfAbsent(base.substring(start, end), start);
+            }
+            start = end;
+        }
+
+        List<Op> ops = new ArrayList<>();
+        StringBuilder inserted = new StringBuilder();
+        int copyStart = -1;
+        int copyLength = 0;
+        for (int start = prefix; start < targetEnd; ) {
+            int end = lineEnd(target, start, targetEnd);
+            int length = end - start;
+            int next = copyStart + copyLength;
+            int at = -1;
+            if (copyStart >= 0 && next + length <= baseEnd && base.regionMatches(next, target, start, length)) {
+                at = next;
+            } else if (length >= MIN_COPY_LENGTH) {
+                at = lineOffsets.getOrDefault(target.substring(start, end), -1);
+            }
+            if (at < 0) {
+                if (copyStart >= 0) {
+                    ops.add(Op.copy(copyStart, copyLength));
+                    copyStart = -1;
+                }
+                inserted.append(target, start, end);
+            } else if (copyStart >= 0 && at == next) {
+                copyLength += length;
+            } else {
+                if (copyStart >= 0) {
+                    ops.add(Op.copy(copyStart, copyLength));
+                }
+                if (!inserted.isEmpty()) {
+                    ops.add(Op.insert(inserted.toString()));
+                    inserted.setLength(0);
+                }
+                copyStart = at;
+                copyLength = length;
+            }
+            start = end;
+        }
+        if (copyStart >= 0) {
+            ops.add(Op.copy(copyStart, copyLength));
+        }
+        if (!inserted.isEmpty()) {
+            ops.add(Op.insert(inserted.toString()));
+        }
+        return new MarkdownDelta(prefix, suffix, target.length(), List.copyOf(ops));
+    }
+
+    String apply(String base) {
+        StringBuilder out = new StringBuilder(targetLength);
+        out.append(base, 0, prefixLength);
+        for (Op op : ops) {
+            if (op.text != null) {
+                out.append(op.text);
+            } else {
+                out.append(base, op.start, op.start + op.length);
+            }
+        }
+        out.append(base, base.length() - suffixLength, base.length());
+        return out.toString();
+    }
+
+    /**
+     * Approximate heap footprint in characters, comparable with the length of a full copy.
+     */
+    int encodedSize() {
+        int size = OP_OVERHEAD;
+        for (Op op : ops) {
+            size += OP_OVERHEAD + (op.text != null ? op.text.length() : 0);
+        }
+        return size;
+    }
+
+    private static int lineEnd(String text, int start, int limit) {
+        int newline = text.indexOf('\n', start);
+        return newline < 0 || newline >= limit ? limit : newline + 1;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int commonSuffix(String a, String b, int prefix) {
+        int max = Math.min(a.length(), b.length()) - prefix;
+        int i = 0;
+        while (i < max && a.charAt(a.length() - 1 - i) == b.charAt(b.length() - 1 - i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Either a copy of {@code length} characters of the base from {@code start}, or inserted {@code text}.
+     */
+    private record Op(int start, int length, String text) {
+
+        static Op copy(int start, int length) {
+            return new Op(start, length, null);
+        }
+
+        static Op insert(String text) {
+            return new Op(0, 0, text);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * @param coldAfter          stored version markdown not read for this long is compressed
+ * @param hotCacheSize       decompressed markdown kept per repository, least recently used dropped first
+ * @param minCompressLength  markdown shorter than this (in characters) is never compressed, as the saving would
+ *                           not cover the overhead
+ * @param sweepInterval      how often stored markdown is checked for cold entries
+ */
+@ConfigurationProperties(prefix = "portal.markdown-storage")
+@Validated
+public record MarkdownStorageProperties(
+        @DefaultValue("10m") @NotNull Duration coldAfter,
+        @DefaultValue("128") @Min(0) int hotCacheSize,
+        @DefaultValue("256") @Min(0) int minCompressLength,
+        @DefaultValue("1m") @NotNull Duration sweepInterval
+) {}
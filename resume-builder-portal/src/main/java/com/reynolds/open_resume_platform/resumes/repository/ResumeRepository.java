@@ -4,6 +4,7 @@ import com.reynolds.open_resume_platform.resumes.domain.Resume;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 public interface ResumeRepository {
 
@@ -12,4 +13,15 @@ public interface ResumeRepository {
     Optional<Resume> findById(String id);
 
     List<Resume> findAll();
+
+    /**
+     * Atomically replaces the stored resume with {@code update} applied to it, so concurrent updates of
+     * different fields are not lost. Returns empty if no resume has the given id.
+     */
+    Optional<Resume> updateById(String id, UnaryOperator<Resume> update);
+
+    /**
+     * @return whether a resume was deleted
+     */
+    boolean deleteById(String id);
 }
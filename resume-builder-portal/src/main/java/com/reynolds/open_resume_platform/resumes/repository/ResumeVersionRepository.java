@@ -4,6 +4,7 @@ import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface ResumeVersionRepository {
 
@@ -13,5 +14,24 @@ public interface ResumeVersionRepository {
 
     List<ResumeVersion> findByResumeId(String resumeId);
 
+    List<ResumeVersion> findAll();
+
     Optional<ResumeVersion> findByResumeIdAndVersionNo(String resumeId, int versionNo);
+
+    /**
+     * Returns the resume's version with the highest version number, if any.
+     */
+    Optional<ResumeVersion> findLatestByResumeId(String resumeId);
+
+    /**
+     * Ids of the resumes that have at least one stored version.
+     */
+    Set<String> findResumeIds();
+
+    /**
+     * Deletes all versions of the resume.
+     *
+     * @return approximate heap released, 0 if the resume had no versions
+     */
+    long deleteByResumeId(String resumeId);
 }
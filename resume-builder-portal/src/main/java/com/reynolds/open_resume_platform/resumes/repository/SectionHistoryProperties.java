@@ -0,0 +1,18 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * @param keyframeInterval a section version is stored in full at least this often; the ones in between are
+ *                         stored as deltas, so rebuilding one applies fewer than this many deltas
+ * @param cacheSize        rebuilt section versions kept in memory, least recently used dropped first
+ */
+@ConfigurationProperties(prefix = "portal.section-history")
+@Validated
+public record SectionHistoryProperties(
+        @DefaultValue("16") @Min(1) int keyframeInterval,
+        @DefaultValue("256") @Min(0) int cacheSize
+) {}
@@ -9,9 +9,19 @@ public interface SectionRepository {
 
     ResumeSection save(ResumeSection section);
 
+    /**
+     * Saves sections of one resume as a single batch: readers of the resume's section list see either
+     * none or all of the changes.
+     *
+     * @throws IllegalArgumentException if the sections belong to more than one resume
+     */
+    void saveAll(List<ResumeSection> sections);
+
     Optional<ResumeSection> findById(String id);
 
     List<ResumeSection> findByResumeIdOrderByOrder(String resumeId);
 
     void deleteById(String id);
+
+    List<ResumeSection> findAll();
 }
@@ -4,6 +4,7 @@ import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface SectionVersionRepository {
 
@@ -12,4 +13,23 @@ public interface SectionVersionRepository {
     Optional<SectionVersion> findById(String id);
 
     List<SectionVersion> findBySectionIdOrderByVersionNoDesc(String sectionId);
+
+    List<SectionVersion> findAll();
+
+    /**
+     * Returns the section's version with the highest version number, if any.
+     */
+    Optional<SectionVersion> findLatestBySectionId(String sectionId);
+
+    /**
+     * Ids of the sections that have at least one stored version.
+     */
+    Set<String> findSectionIds();
+
+    /**
+     * Deletes the section's versions except those in {@code keepVersionIds}, which stay readable.
+     *
+     * @return approximate heap released, net of kept versions that had to be stored in full; 0 if nothing was
+     */
+    long deleteBySectionId(String sectionId, Set<String> keepVersionIds);
 }
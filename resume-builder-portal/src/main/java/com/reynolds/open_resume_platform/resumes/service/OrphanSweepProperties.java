@@ -0,0 +1,23 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * @param sweepInterval   pause between sweeps
+ * @param timeSlice       how long one sweep may spend reclaiming; orphans left over wait for the next sweep
+ * @param lateWriteWindow how long after a resume is deleted sweeps still look for data written for it late,
+ *                        e.g. a document that finished rendering after the delete; anything written later waits
+ *                        for a discovery pass
+ */
+@ConfigurationProperties(prefix = "portal.orphan-sweep")
+@Validated
+public record OrphanSweepProperties(
+        @DefaultValue("10s") Duration sweepInterval,
+        @DefaultValue("20ms") @NotNull Duration timeSlice,
+        @DefaultValue("10m") @NotNull Duration lateWriteWindow
+) {}
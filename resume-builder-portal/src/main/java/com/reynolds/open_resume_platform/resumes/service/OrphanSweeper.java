@@ -0,0 +1,255 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionRef;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reclaims what deletes leave behind. Data written for a resume after it was deleted, e.g. a document that
+ * finished rendering or a version saved while the delete ran, is found quickly: {@link ResumeDeletionService}
+ * hands over every resume it deletes, and sweeps look for leftovers by resume id until the
+ * {@code lateWriteWindow} has passed.
+ * <p>
+ * Anything else, such as data written after that window or left by a delete that a restart or crash cut short,
+ * is found by a discovery pass that walks the stored ids and checks each one by id:
+ * <ol>
+ *     <li>sections with history: a live section of a deleted resume means the resume is an orphan, and a
+ *     section that is gone is a candidate for having its history deleted;</li>
+ *     <li>resumes with versions or documents: a deleted one is reclaimed, and a live one's versions clear the
+ *     candidates they refer to;</li>
+ *     <li>the remaining candidates, whose history nothing refers to any more.</li>
+ * </ol>
+ * A candidate was already gone when it was listed, so no version written later can refer to it. Each sweep
+ * first checks the watched resumes, then advances the pass until its {@code timeSlice} is used up, and carries
+ * on from the same place next time, so the storage locks are never held for long.
+ */
+@Component
+public class OrphanSweeper {
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    private final ResumeRepository resumeRepository;
+    private final SectionRepository sectionRepository;
+    private final SectionVersionRepository sectionVersionRepository;
+    private final ResumeVersionRepository resumeVersionRepository;
+    private final GeneratedDocumentRepository documentRepository;
+    private final ResumeDeletionService deletionService;
+    private final OrphanSweepProperties properties;
+    private final Counter reclaimed;
+    private final Counter reclaimedBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Watched> watched = new ArrayDeque<>();
+    // Discovery pass in progress, if phase is not null
+    private Phase phase;
+    private Iterator<String> cursor;
+    private Set<String> unreferencedSectionIds;
+
+    public OrphanSweeper(ResumeRepository resumeRepository,
+                         SectionRepository sectionRepository,
+                         SectionVersionRepository sectionVersionRepository,
+                         ResumeVersionRepository resumeVersionRepository,
+                         GeneratedDocumentRepository documentRepository,
+                         ResumeDeletionService deletionService,
+                         OrphanSweepProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.resumeRepository = resumeRepository;
+        this.sectionRepository = sectionRepository;
+        this.sectionVersionRepository = sectionVersionRepository;
+        this.resumeVersionRepository = resumeVersionRepository;
+        this.documentRepository = documentRepository;
+        this.deletionService = deletionService;
+        this.properties = properties;
+        this.reclaimed = Counter.builder("portal.orphans.reclaimed").register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("portal.orphans.reclaimed.bytes").baseUnit("bytes").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${portal.orphan-sweep.sweep-interval:10s}")
+    public void sweep() {
+        sweepOnce();
+    }
+
+    /**
+     * @return approximate bytes released by this sweep
+     */
+    long sweepOnce() {
+        long started = System.nanoTime();
+        long deadline = started + properties.timeSlice().toNanos();
+        lock.lock();
+        try {
+            long watchUntil = started + properties.lateWriteWindow().toNanos();
+            for (String resumeId : deletionService.drainDeleted()) {
+                watched.add(new Watched(resumeId, watchUntil));
+            }
+            long released = 0;
+            int done = 0;
+            // Each watched resume at most once per sweep, and at least one, so a short slice still makes progress
+            for (int left = watched.size(); left > 0; left--) {
+                Watched resume = watched.poll();
+                long bytes = reclaim(resume.resumeId());
+                if (bytes > 0) {
+                    reclaimed.increment();
+                    reclaimedBytes.increment(bytes);
+                    released += bytes;
+                    done++;
+                }
+                long now = System.nanoTime();
+                if (now - resume.watchUntil() < 0) {
+                    watched.add(resume);
+                }
+                if (now - deadline >= 0) {
+                    break;
+                }
+            }
+            // Likewise at least one discovery step; a pass that ends is started again by the next sweep
+            do {
+                long bytes = discoverNext();
+                if (bytes < 0) {
+                    break;
+                }
+                if (bytes > 0) {
+                    reclaimed.increment();
+                    reclaimedBytes.increment(bytes);
+                    released += bytes;
+                    done++;
+                }
+            } while (System.nanoTime() - deadline < 0);
+            if (done > 0) {
+                logger.debug("Orphan sweep reclaimed {} orphans, about {} bytes; {} deleted resumes still watched",
+                        done, released, watched.size());
+            }
+            return released;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks the next id of the discovery pass, starting a pass or moving on to its next phase as needed.
+     *
+     * @return approximate bytes released, or -1 if the pass has just ended
+     */
+    private long discoverNext() {
+        while (cursor == null || !cursor.hasNext()) {
+            if (!advancePhase()) {
+                return -1;
+            }
+        }
+        String id = cursor.next();
+        return switch (phase) {
+            case SECTIONS -> checkSection(id);
+            case RESUMES -> checkResume(id);
+            case HISTORY -> checkHistory(id);
+        };
+    }
+
+    private boolean advancePhase() {
+        if (phase == null) {
+            phase = Phase.SECTIONS;
+            unreferencedSectionIds = new HashSet<>();
+            cursor = sectionVersionRepository.findSectionIds().iterator();
+            return true;
+        }
+        switch (phase) {
+            case SECTIONS -> {
+                phase = Phase.RESUMES;
+                Set<String> resumeIds = new LinkedHashSet<>(resumeVersionRepository.findResumeIds());
+                for (GeneratedDocument document : documentRepository.findAll()) {
+                    resumeIds.add(document.resumeId());
+                }
+                cursor = resumeIds.iterator();
+                return true;
+            }
+            case RESUMES -> {
+                phase = Phase.HISTORY;
+                cursor = unreferencedSectionIds.iterator();
+                return true;
+            }
+            default -> {
+                phase = null;
+                cursor = null;
+                unreferencedSectionIds = null;
+                return false;
+            }
+        }
+    }
+
+    private long checkSection(String sectionId) {
+        Optional<ResumeSection> section = sectionRepository.findById(sectionId);
+        if (section.isEmpty()) {
+            unreferencedSectionIds.add(sectionId);
+            return 0;
+        }
+        return reclaim(section.get().resumeId());
+    }
+
+    private long checkResume(String resumeId) {
+        if (resumeRepository.findById(resumeId).isEmpty()) {
+            return reclaim(resumeId);
+        }
+        if (!unreferencedSectionIds.isEmpty()) {
+            for (ResumeVersion version : resumeVersionRepository.findByResumeId(resumeId)) {
+                if (version.sections() != null) {
+                    for (SectionRef ref : version.sections()) {
+                        unreferencedSectionIds.remove(ref.sectionId());
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * A deleted section cannot come back, but it is checked again in case it was listed while being created.
+     */
+    private long checkHistory(String sectionId) {
+        if (sectionRepository.findById(sectionId).isPresent()) {
+            return 0;
+        }
+        return deletionService.reclaimSectionHistory(sectionId);
+    }
+
+    /**
+     * Looks up only what is stored for the resume, and reclaims only when something is there, so watching a
+     * resume that nothing was written for costs no writes.
+     */
+    private long reclaim(String resumeId) {
+        if (resumeRepository.findById(resumeId).isPresent()) {
+            return 0;
+        }
+        boolean leftovers = !sectionRepository.findByResumeIdOrderByOrder(resumeId).isEmpty()
+                || resumeVersionRepository.findLatestByResumeId(resumeId).isPresent()
+                || !documentRepository.findByResumeId(resumeId).isEmpty();
+        return leftovers ? deletionService.reclaim(resumeId) : 0;
+    }
+
+    /**
+     * A deleted resume, watched until {@code watchUntil} ({@link System#nanoTime()}).
+     */
+    private record Watched(String resumeId, long watchUntil) {}
+
+    private enum Phase { SECTIONS, RESUMES, HISTORY }
+}
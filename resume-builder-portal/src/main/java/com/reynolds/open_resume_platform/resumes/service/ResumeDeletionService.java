@@ -0,0 +1,150 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.documents.service.DocumentRetentionSweeper;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionRef;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Deletes a resume together with everything stored for it: its version snapshots, its sections and their
+ * history, and its generated documents. Deleted resumes are handed to {@link OrphanSweeper}, which uses the same
+ * cleanup for data written for them late, e.g. a document that finished rendering after the delete.
+ */
+@Service
+public class ResumeDeletionService {
+
+    private final ResumeRepository resumeRepository;
+    private final SectionRepository sectionRepository;
+    private final SectionVersionRepository sectionVersionRepository;
+    private final ResumeVersionRepository resumeVersionRepository;
+    private final GeneratedDocumentRepository documentRepository;
+    private final DocumentRetentionSweeper retentionSweeper;
+    private final ResumeLocks resumeLocks;
+    private final VersionNumberAllocator versionNumberAllocator;
+    private final ResumeMarkdownAssembler markdownAssembler;
+    private final ResumeVersionManifests manifests;
+    private final Queue<String> deletedResumeIds = new ConcurrentLinkedQueue<>();
+
+    public ResumeDeletionService(ResumeRepository resumeRepository,
+                                 SectionRepository sectionRepository,
+                                 SectionVersionRepository sectionVersionRepository,
+                                 ResumeVersionRepository resumeVersionRepository,
+                                 GeneratedDocumentRepository documentRepository,
+                                 DocumentRetentionSweeper retentionSweeper,
+                                 ResumeLocks resumeLocks,
+                                 VersionNumberAllocator versionNumberAllocator,
+                                 ResumeMarkdownAssembler markdownAssembler,
+                                 ResumeVersionManifests manifests) {
+        this.resumeRepository = resumeRepository;
+        this.sectionRepository = sectionRepository;
+        this.sectionVersionRepository = sectionVersionRepository;
+        this.resumeVersionRepository = resumeVersionRepository;
+        this.documentRepository = documentRepository;
+        this.retentionSweeper = retentionSweeper;
+        this.resumeLocks = resumeLocks;
+        this.versionNumberAllocator = versionNumberAllocator;
+        this.markdownAssembler = markdownAssembler;
+        this.manifests = manifests;
+    }
+
+    /**
+     * @return whether the resume existed
+     */
+    public boolean delete(String resumeId) {
+        if (resumeId == null || resumeId.isBlank()) {
+            return false;
+        }
+        return resumeLocks.withLock(resumeId, () -> {
+            if (!resumeRepository.deleteById(resumeId)) {
+                return false;
+            }
+            reclaim(resumeId);
+            deletedResumeIds.add(resumeId);
+            return true;
+        });
+    }
+
+    /**
+     * Resumes deleted since the last call.
+     */
+    List<String> drainDeleted() {
+        List<String> resumeIds = new ArrayList<>();
+        for (String resumeId; (resumeId = deletedResumeIds.poll()) != null; ) {
+            resumeIds.add(resumeId);
+        }
+        return resumeIds;
+    }
+
+    /**
+     * Deletes whatever is still stored for the resume, which must already be deleted. Versions go first so that
+     * no snapshot is left pointing at a deleted section version; the history they kept of sections deleted
+     * before the resume goes with the sections.
+     *
+     * @return approximate bytes released
+     */
+    long reclaim(String resumeId) {
+        return resumeLocks.withLock(resumeId, () -> {
+            Set<String> sectionIds = new HashSet<>();
+            for (ResumeVersion version : resumeVersionRepository.findByResumeId(resumeId)) {
+                if (version.sections() != null) {
+                    for (SectionRef ref : version.sections()) {
+                        sectionIds.add(ref.sectionId());
+                    }
+                }
+            }
+            long released = resumeVersionRepository.deleteByResumeId(resumeId);
+            for (ResumeSection section : sectionRepository.findByResumeIdOrderByOrder(resumeId)) {
+                sectionRepository.deleteById(section.id());
+                sectionIds.add(section.id());
+            }
+            for (String sectionId : sectionIds) {
+                released += sectionVersionRepository.deleteBySectionId(sectionId, Set.of());
+                versionNumberAllocator.forgetSection(sectionId);
+            }
+            released += deleteDocuments(resumeId);
+            versionNumberAllocator.forgetResume(resumeId);
+            markdownAssembler.forget(resumeId);
+            manifests.forgetResume(resumeId);
+            return released;
+        });
+    }
+
+    /**
+     * Deletes the whole history of a section that no longer exists and that no resume version refers to.
+     *
+     * @return approximate bytes released
+     */
+    long reclaimSectionHistory(String sectionId) {
+        long released = sectionVersionRepository.deleteBySectionId(sectionId, Set.of());
+        versionNumberAllocator.forgetSection(sectionId);
+        return released;
+    }
+
+    /**
+     * Content is shared between documents with the same bytes, so what is released is read off the storage
+     * stats rather than summed per document.
+     */
+    private long deleteDocuments(String resumeId) {
+        long storedBefore = documentRepository.stats().storedBytes();
+        for (GeneratedDocument document : documentRepository.findByResumeId(resumeId)) {
+            if (documentRepository.deleteById(document.id())) {
+                retentionSweeper.forget(document.id());
+            }
+        }
+        return Math.max(0, storedBefore - documentRepository.stats().storedBytes());
+    }
+}
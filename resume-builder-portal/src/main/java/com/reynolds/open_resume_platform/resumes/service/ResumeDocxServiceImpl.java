@@ -36,32 +36,34 @@ public class ResumeDocxServiceImpl implements ResumeDocxService {
     @Override
     public Optional<GenerateDocxResponse> generate(String resumeId, String versionId, String templateId) {
         String effectiveTemplateId = (templateId != null && !templateId.isBlank()) ? templateId.trim() : null;
-        Optional<byte[]> bytesOpt;
+        Optional<Rendered> renderedOpt;
         String effectiveVersionId = (versionId != null && !versionId.isBlank()) ? versionId : null;
 
         if (effectiveVersionId != null) {
-            bytesOpt = resumeVersionService.getById(effectiveVersionId)
+            renderedOpt = resumeVersionService.getById(effectiveVersionId)
                     .filter(v -> resumeId.equals(v.resumeId()))
                     .map(version -> {
                         String t = effectiveTemplateId != null ? effectiveTemplateId : version.templateId();
-                        return documentGeneratorGatewayService.createCv(t, version.markdown());
+                        return new Rendered(t, documentGeneratorGatewayService.createCv(t, version.markdown()));
                     });
         } else {
-            bytesOpt = resumeService.getById(resumeId)
+            renderedOpt = resumeService.getById(resumeId)
                     .map(resume -> {
                         String t = effectiveTemplateId != null ? effectiveTemplateId : resume.templateId();
                         String markdown = markdownAssembler.assembleMarkdown(resumeId);
-                        return documentGeneratorGatewayService.createCv(t, markdown);
+                        return new Rendered(t, documentGeneratorGatewayService.createCv(t, markdown));
                     });
         }
 
-        return bytesOpt.map(bytes -> {
+        return renderedOpt.map(rendered -> {
             String documentId = UUID.randomUUID().toString();
             Instant now = Instant.now();
-            GeneratedDocument doc = new GeneratedDocument(documentId, resumeId, effectiveVersionId, now);
-            generatedDocumentRepository.save(doc, bytes);
+            GeneratedDocument doc = new GeneratedDocument(documentId, resumeId, effectiveVersionId, rendered.templateId(), now);
+            generatedDocumentRepository.save(doc, rendered.bytes());
             String downloadUrl = String.format(DOWNLOAD_PATH_TEMPLATE, resumeId, documentId);
             return new GenerateDocxResponse(documentId, downloadUrl);
         });
     }
+
+    private record Rendered(String templateId, byte[] bytes) {}
 }
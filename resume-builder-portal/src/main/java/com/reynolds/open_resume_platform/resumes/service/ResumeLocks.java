@@ -0,0 +1,53 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * One lock per resume for section writes, so a multi-step write (read, then save) on a resume is not
+ * interleaved with another, while writes to different resumes never contend. Locks exist only while held
+ * or waited on. A lock is used rather than {@code synchronized} so virtual threads are not pinned.
+ */
+@Component
+public class ResumeLocks {
+
+    private final Map<String, Holder> locks = new ConcurrentHashMap<>();
+
+    public <T> T withLock(String resumeId, Supplier<T> action) {
+        Holder holder = locks.compute(resumeId, (id, existing) -> {
+            Holder h = existing != null ? existing : new Holder();
+            h.users++;
+            return h;
+        });
+        holder.lock.lock();
+        try {
+            return action.get();
+        } finally {
+            holder.lock.unlock();
+            locks.computeIfPresent(resumeId, (id, h) -> --h.users == 0 ? null : h);
+        }
+    }
+
+    public void withLock(String resumeId, Runnable action) {
+        withLock(resumeId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    int activeLocks() {
+        return locks.size();
+    }
+
+    /**
+     * {@code users} is only changed inside {@link ConcurrentHashMap#compute} for the resume's key.
+     */
+    private static final class Holder {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+}
@@ -5,47 +5,146 @@ import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
 import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Builds the effective markdown for a resume: from ordered sections if any exist,
  * otherwise from the resume's single markdown field (backward compatibility).
+ * <p>
+ * The result is memoised per resume until {@link #invalidate(String)} is called. Writers must save first and
+ * then invalidate: an assembly in progress holds the resume's cache entry, so the invalidation waits for it
+ * and then drops its possibly stale result.
+ * <p>
+ * Each section's rendered fragment is also kept, keyed by section id, so re-assembling after a one-section edit
+ * only re-renders that section and then joins the fragments into a buffer sized up front.
  */
 @Component
 public class ResumeMarkdownAssembler {
 
+    private static final String SEPARATOR = "\n\n";
+
     private final ResumeRepository resumeRepository;
     private final SectionRepository sectionRepository;
 
+    private final Map<String, String> assembled = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Fragment>> fragmentsByResumeId = new ConcurrentHashMap<>();
+    private final AtomicLong fragmentsRendered = new AtomicLong();
+
     public ResumeMarkdownAssembler(ResumeRepository resumeRepository, SectionRepository sectionRepository) {
         this.resumeRepository = resumeRepository;
         this.sectionRepository = sectionRepository;
     }
 
     /**
-     * Returns the full markdown for the resume. If the resume has sections, concatenates
-     * their markdown in order (with optional heading from section title). Otherwise
-     * returns the resume's markdown field.
+     * Returns the full markdown for the resume, from the cache when possible. If the resume has sections,
+     * concatenates their markdown in order (with optional heading from section title). Otherwise
+     * returns the resume's markdown field. Unknown resumes assemble to empty markdown and are not cached.
      */
     public String assembleMarkdown(String resumeId) {
         if (resumeId == null || resumeId.isBlank()) {
             return "";
         }
+        String cached = assembled.get(resumeId);
+        if (cached != null) {
+            return cached;
+        }
+        String result = assembled.computeIfAbsent(resumeId, this::build);
+        return result != null ? result : "";
+    }
+
+    /**
+     * Drops the memoised markdown for the resume. Call after any write that changes its sections or markdown.
+     */
+    public void invalidate(String resumeId) {
+        if (resumeId != null) {
+            assembled.remove(resumeId);
+        }
+    }
+
+    /**
+     * Drops everything kept for a deleted resume.
+     */
+    public void forget(String resumeId) {
+        if (resumeId != null) {
+            assembled.remove(resumeId);
+            fragmentsByResumeId.remove(resumeId);
+        }
+    }
+
+    int cachedCount() {
+        return assembled.size();
+    }
+
+    long fragmentsRendered() {
+        return fragmentsRendered.get();
+    }
+
+    private String build(String resumeId) {
         List<ResumeSection> sections = sectionRepository.findByResumeIdOrderByOrder(resumeId);
         if (!sections.isEmpty()) {
-            return sections.stream()
-                    .map(this::sectionToMarkdown)
-                    .collect(Collectors.joining("\n\n"));
+            return joinFragments(resumeId, sections);
         }
+        fragmentsByResumeId.remove(resumeId);
         return resumeRepository.findById(resumeId)
                 .map(resume -> resume.markdown() != null ? resume.markdown() : "")
-                .orElse("");
+                .orElse(null);
     }
 
-    private String sectionToMarkdown(ResumeSection section) {
-        String title = section.title() != null ? section.title().trim() : "";
-        String body = section.markdown() != null ? section.markdown().trim() : "";
+    /**
+     * Reuses each section's fragment while its title and markdown are unchanged. Builds for one resume are
+     * serialised by the {@code assembled} entry, so the fragment map is replaced without further locking,
+     * and fragments of deleted sections are dropped with it.
+     */
+    private String joinFragments(String resumeId, List<ResumeSection> sections) {
+        Map<String, Fragment> previous = fragmentsByResumeId.getOrDefault(resumeId, Map.of());
+        Map<String, Fragment> current = new HashMap<>(sections.size() * 2);
+        String[] texts = new String[sections.size()];
+        int length = separatorsLength(sections.size());
+        for (int i = 0; i < sections.size(); i++) {
+            ResumeSection section = sections.get(i);
+            Fragment fragment = previous.get(section.id());
+            if (fragment == null || !fragment.renders(section)) {
+                fragment = new Fragment(section.title(), section.markdown(),
+                        renderSection(section.title(), section.markdown()));
+                fragmentsRendered.incrementAndGet();
+            }
+            current.put(section.id(), fragment);
+            texts[i] = fragment.text();
+            length += fragment.text().length();
+        }
+        fragmentsByResumeId.put(resumeId, current);
+        return join(texts, length);
+    }
+
+    /**
+     * Joins rendered sections; {@code length} is the total length including separators.
+     */
+    static String join(String[] texts, int length) {
+        StringBuilder markdown = new StringBuilder(length);
+        for (int i = 0; i < texts.length; i++) {
+            if (i > 0) {
+                markdown.append(SEPARATOR);
+            }
+            markdown.append(texts[i]);
+        }
+        return markdown.toString();
+    }
+
+    static int separatorsLength(int sections) {
+        return sections > 0 ? SEPARATOR.length() * (sections - 1) : 0;
+    }
+
+    /**
+     * Renders one section as it appears in the assembled markdown.
+     */
+    static String renderSection(String sectionTitle, String sectionMarkdown) {
+        String title = sectionTitle != null ? sectionTitle.trim() : "";
+        String body = sectionMarkdown != null ? sectionMarkdown.trim() : "";
         if (title.isEmpty()) {
             return body;
         }
@@ -54,4 +153,14 @@ public class ResumeMarkdownAssembler {
         }
         return "## " + title + "\n\n" + body;
     }
+
+    /**
+     * A section's rendered markdown and the raw title and markdown it was rendered from.
+     */
+    private record Fragment(String title, String markdown, String text) {
+
+        boolean renders(ResumeSection section) {
+            return Objects.equals(title, section.title()) && Objects.equals(markdown, section.markdown());
+        }
+    }
 }
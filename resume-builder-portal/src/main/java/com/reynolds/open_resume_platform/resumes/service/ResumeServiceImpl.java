@@ -17,9 +17,11 @@ public class ResumeServiceImpl implements ResumeService {
     private static final int MIN_TITLE_LENGTH = 3;
 
     private final ResumeRepository repository;
+    private final ResumeMarkdownAssembler markdownAssembler;
 
-    public ResumeServiceImpl(ResumeRepository repository) {
+    public ResumeServiceImpl(ResumeRepository repository, ResumeMarkdownAssembler markdownAssembler) {
         this.repository = repository;
+        this.markdownAssembler = markdownAssembler;
     }
 
     @Override
@@ -60,34 +62,36 @@ public class ResumeServiceImpl implements ResumeService {
         return repository.findAll();
     }
 
+    /**
+     * Applies the update atomically so a concurrent version snapshot's {@code latestVersionNo} is not overwritten.
+     */
     @Override
     public Optional<Resume> update(String id, UpdateResumeCommand command) {
-        return repository.findById(id)
-                .map(existing -> {
-                    String title = command.title() != null ? command.title().trim() : "";
-                    String markdown = command.markdown() != null ? command.markdown().trim() : "";
+        Optional<Resume> updated = repository.updateById(id, existing -> {
+            String title = command.title() != null ? command.title().trim() : "";
+            String markdown = command.markdown() != null ? command.markdown().trim() : "";
 
-                    if (title.length() < MIN_TITLE_LENGTH) {
-                        throw new IllegalArgumentException("Title must be at least " + MIN_TITLE_LENGTH + " characters");
-                    }
-                    if (markdown.isBlank()) {
-                        throw new IllegalArgumentException("Markdown must not be blank");
-                    }
+            if (title.length() < MIN_TITLE_LENGTH) {
+                throw new IllegalArgumentException("Title must be at least " + MIN_TITLE_LENGTH + " characters");
+            }
+            if (markdown.isBlank()) {
+                throw new IllegalArgumentException("Markdown must not be blank");
+            }
 
-                    Instant now = Instant.now();
-                    Resume updated = new Resume(
-                            existing.id(),
-                            existing.status(),
-                            existing.latestVersionNo(),
-                            existing.createdAt(),
-                            now,
-                            title,
-                            command.targetRole(),
-                            command.targetCompany(),
-                            command.templateId(),
-                            markdown
-                    );
-                    return repository.save(updated);
-                });
+            return new Resume(
+                    existing.id(),
+                    existing.status(),
+                    existing.latestVersionNo(),
+                    existing.createdAt(),
+                    Instant.now(),
+                    title,
+                    command.targetRole(),
+                    command.targetCompany(),
+                    command.templateId(),
+                    markdown
+            );
+        });
+        updated.ifPresent(resume -> markdownAssembler.invalidate(resume.id()));
+        return updated;
     }
 }
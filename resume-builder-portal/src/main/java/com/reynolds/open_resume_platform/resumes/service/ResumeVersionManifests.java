@@ -0,0 +1,152 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionRef;
+import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Takes resume version snapshots as references to the section versions they show, and rebuilds their markdown
+ * on read. A snapshot then costs one small reference per section instead of a copy of the whole resume, and
+ * always agrees with the section history it points into. Rebuilt markdown is memoised in a small LRU.
+ */
+@Component
+public class ResumeVersionManifests {
+
+    private final SectionRepository sectionRepository;
+    private final SectionVersionRepository sectionVersionRepository;
+    private final ResumeLocks resumeLocks;
+    private final int cacheSize;
+
+    private final ReentrantLock cacheLock = new ReentrantLock();
+    private final LinkedHashMap<String, Rendered> markdownByVersionId = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public ResumeVersionManifests(SectionRepository sectionRepository,
+                                  SectionVersionRepository sectionVersionRepository,
+                                  ResumeLocks resumeLocks,
+                                  ResumeVersionProperties properties) {
+        this.sectionRepository = sectionRepository;
+        this.sectionVersionRepository = sectionVersionRepository;
+        this.resumeLocks = resumeLocks;
+        this.cacheSize = properties.markdownCacheSize();
+    }
+
+    /**
+     * References the latest version of each of the resume's sections, in order. Taken under the resume's lock
+     * so no section write lands halfway through. Empty when the resume has no sections, or when a section's
+     * content is not its latest version (e.g. data from before versions were kept), in which case the caller
+     * should snapshot the markdown itself.
+     */
+    public Optional<List<SectionRef>> capture(String resumeId) {
+        return resumeLocks.withLock(resumeId, () -> {
+            List<ResumeSection> sections = sectionRepository.findByResumeIdOrderByOrder(resumeId);
+            if (sections.isEmpty()) {
+                return Optional.<List<SectionRef>>empty();
+            }
+            List<SectionRef> refs = new ArrayList<>(sections.size());
+            for (ResumeSection section : sections) {
+                Optional<SectionVersion> latest = sectionVersionRepository.findLatestBySectionId(section.id());
+                if (latest.isEmpty() || !Objects.equals(latest.get().markdown(), section.markdown())) {
+                    return Optional.<List<SectionRef>>empty();
+                }
+                refs.add(new SectionRef(section.id(), latest.get().id(), section.title()));
+            }
+            return Optional.of(List.copyOf(refs));
+        });
+    }
+
+    /**
+     * Captures as {@link #capture(String)} and passes the result to {@code save} while still holding the
+     * resume's lock, so a section deleted meanwhile cannot drop a section version the new manifest refers to.
+     */
+    public <T> T captureThen(String resumeId, Function<Optional<List<SectionRef>>, T> save) {
+        return resumeLocks.withLock(resumeId, () -> save.apply(capture(resumeId)));
+    }
+
+    /**
+     * Returns the version with its markdown filled in.
+     */
+    public ResumeVersion materialize(ResumeVersion version) {
+        if (!version.isManifest()) {
+            return version;
+        }
+        String markdown = cached(version.id());
+        if (markdown == null) {
+            markdown = render(version);
+            cache(version, markdown);
+        }
+        return version.withMarkdown(markdown);
+    }
+
+    /**
+     * Drops the memoised markdown of a deleted resume's versions.
+     */
+    public void forgetResume(String resumeId) {
+        cacheLock.lock();
+        try {
+            markdownByVersionId.values().removeIf(rendered -> rendered.resumeId().equals(resumeId));
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    long rebuilds() {
+        return rebuilds.get();
+    }
+
+    private String render(ResumeVersion version) {
+        rebuilds.incrementAndGet();
+        List<SectionRef> refs = version.sections();
+        String[] texts = new String[refs.size()];
+        int length = ResumeMarkdownAssembler.separatorsLength(refs.size());
+        for (int i = 0; i < refs.size(); i++) {
+            SectionRef ref = refs.get(i);
+            SectionVersion sectionVersion = sectionVersionRepository.findById(ref.sectionVersionId())
+                    .orElseThrow(() -> new IllegalStateException("Resume version " + version.id()
+                            + " refers to missing section version " + ref.sectionVersionId()));
+            texts[i] = ResumeMarkdownAssembler.renderSection(ref.title(), sectionVersion.markdown());
+            length += texts[i].length();
+        }
+        return ResumeMarkdownAssembler.join(texts, length);
+    }
+
+    private String cached(String versionId) {
+        cacheLock.lock();
+        try {
+            Rendered rendered = markdownByVersionId.get(versionId);
+            return rendered != null ? rendered.markdown() : null;
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private void cache(ResumeVersion version, String markdown) {
+        if (cacheSize == 0) {
+            return;
+        }
+        cacheLock.lock();
+        try {
+            markdownByVersionId.put(version.id(), new Rendered(version.resumeId(), markdown));
+            if (markdownByVersionId.size() > cacheSize) {
+                markdownByVersionId.remove(markdownByVersionId.keySet().iterator().next());
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private record Rendered(String resumeId, String markdown) {}
+}
@@ -0,0 +1,16 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * @param markdownCacheSize markdown of section-built resume versions kept after being rebuilt, least recently
+ *                          used dropped first
+ */
+@ConfigurationProperties(prefix = "portal.resume-versions")
+@Validated
+public record ResumeVersionProperties(
+        @DefaultValue("64") @Min(0) int markdownCacheSize
+) {}
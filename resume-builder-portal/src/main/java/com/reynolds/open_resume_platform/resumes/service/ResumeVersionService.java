@@ -3,6 +3,7 @@ package com.reynolds.open_resume_platform.resumes.service;
 import com.reynolds.open_resume_platform.resumes.command.CreateResumeVersionCommand;
 import com.reynolds.open_resume_platform.resumes.domain.Resume;
 import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionRef;
 import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
 import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
 import org.springframework.stereotype.Service;
@@ -18,56 +19,87 @@ public class ResumeVersionService {
     private final ResumeRepository resumeRepository;
     private final ResumeVersionRepository versionRepository;
     private final ResumeMarkdownAssembler markdownAssembler;
+    private final VersionNumberAllocator versionNumberAllocator;
+    private final ResumeVersionManifests manifests;
 
-    public ResumeVersionService(ResumeRepository resumeRepository, ResumeVersionRepository versionRepository, ResumeMarkdownAssembler markdownAssembler) {
+    public ResumeVersionService(ResumeRepository resumeRepository, ResumeVersionRepository versionRepository,
+                                ResumeMarkdownAssembler markdownAssembler, VersionNumberAllocator versionNumberAllocator,
+                                ResumeVersionManifests manifests) {
         this.resumeRepository = resumeRepository;
         this.versionRepository = versionRepository;
         this.markdownAssembler = markdownAssembler;
+        this.versionNumberAllocator = versionNumberAllocator;
+        this.manifests = manifests;
     }
 
     /**
      * Creates a version snapshot for the given resume. If markdown or templateId are omitted in the command,
-     * the current effective content is used (assembled from sections if any, else resume markdown).
+     * the current effective content is used (assembled from sections if any, else resume markdown). A snapshot
+     * of the sections is stored as references to their current versions rather than as markdown.
      */
     public Optional<ResumeVersion> create(String resumeId, CreateResumeVersionCommand command) {
         return resumeRepository.findById(resumeId)
                 .map(resume -> {
-                    int nextVersionNo = nextVersionNo(resumeId);
-                    String label = command.label() != null ? command.label().trim() : null;
-                    if (label != null && label.isEmpty()) label = null;
-                    String markdown = command.markdown() != null && !command.markdown().isBlank()
-                            ? command.markdown().trim()
-                            : markdownAssembler.assembleMarkdown(resumeId);
+                    int nextVersionNo = versionNumberAllocator.nextResumeVersionNo(resumeId);
+                    String label = command.label() != null && !command.label().isBlank() ? command.label().trim() : null;
                     String templateId = command.templateId() != null && !command.templateId().isBlank()
                             ? command.templateId().trim()
                             : resume.templateId();
-
-                    Instant now = Instant.now();
-                    ResumeVersion version = new ResumeVersion(
-                            UUID.randomUUID().toString(),
-                            resumeId,
-                            nextVersionNo,
-                            label,
-                            markdown,
-                            templateId,
-                            now
-                    );
-                    return versionRepository.save(version);
+                    if (command.markdown() != null && !command.markdown().isBlank()) {
+                        return save(resumeId, nextVersionNo, label, command.markdown().trim(), templateId, null);
+                    }
+                    // Saved under the resume's lock so the referenced section versions are still there
+                    return manifests.captureThen(resumeId, sections -> save(resumeId, nextVersionNo, label,
+                            sections.isPresent() ? null : markdownAssembler.assembleMarkdown(resumeId),
+                            templateId, sections.orElse(null)));
                 });
     }
 
     public List<ResumeVersion> listByResumeId(String resumeId) {
-        return versionRepository.findByResumeId(resumeId);
+        return versionRepository.findByResumeId(resumeId).stream()
+                .map(manifests::materialize)
+                .toList();
     }
 
     public Optional<ResumeVersion> getById(String id) {
-        return versionRepository.findById(id);
+        return versionRepository.findById(id).map(manifests::materialize);
+    }
+
+    private ResumeVersion save(String resumeId, int versionNo, String label, String markdown, String templateId,
+                               List<SectionRef> sections) {
+        ResumeVersion version = new ResumeVersion(
+                UUID.randomUUID().toString(),
+                resumeId,
+                versionNo,
+                label,
+                markdown,
+                templateId,
+                Instant.now(),
+                sections
+        );
+        versionRepository.save(version);
+        resumeRepository.updateById(resumeId, current -> withLatestVersionNo(current, versionNo));
+        return manifests.materialize(version);
     }
 
-    private int nextVersionNo(String resumeId) {
-        List<ResumeVersion> existing = versionRepository.findByResumeId(resumeId);
-        return existing.isEmpty()
-                ? 1
-                : existing.get(existing.size() - 1).versionNo() + 1;
+    /**
+     * Versions can be saved out of allocation order under concurrency, so the resume only ever moves forward.
+     */
+    private static Resume withLatestVersionNo(Resume resume, int versionNo) {
+        if (resume.latestVersionNo() >= versionNo) {
+            return resume;
+        }
+        return new Resume(
+                resume.id(),
+                resume.status(),
+                versionNo,
+                resume.createdAt(),
+                resume.updatedAt(),
+                resume.title(),
+                resume.targetRole(),
+                resume.targetCompany(),
+                resume.templateId(),
+                resume.markdown()
+        );
     }
 }
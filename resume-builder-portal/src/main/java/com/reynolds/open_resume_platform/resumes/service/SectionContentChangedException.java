@@ -0,0 +1,12 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+/**
+ * A conditional section write was rejected because the section's content digest no longer matches the one
+ * the client based its write on.
+ */
+public class SectionContentChangedException extends RuntimeException {
+
+    public SectionContentChangedException(String message) {
+        super(message);
+    }
+}
@@ -11,7 +11,17 @@ public interface SectionService {
 
     ResumeSection create(String resumeId, CreateSectionCommand command);
 
-    Optional<ResumeSection> update(String sectionId, UpdateSectionCommand command);
+    default Optional<ResumeSection> update(String sectionId, UpdateSectionCommand command) {
+        return update(sectionId, command, null);
+    }
+
+    /**
+     * Updates the section's title and markdown. If {@code expectedDigest} is given, the update only applies
+     * while the section's {@link ResumeSection#contentDigest()} still matches it, otherwise
+     * {@link SectionContentChangedException} is thrown. An update that would not change the content returns the
+     * section as it is, without a new version.
+     */
+    Optional<ResumeSection> update(String sectionId, UpdateSectionCommand command, String expectedDigest);
 
     boolean delete(String sectionId);
 
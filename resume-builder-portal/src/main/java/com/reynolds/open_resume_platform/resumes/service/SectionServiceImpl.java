@@ -3,15 +3,23 @@ package com.reynolds.open_resume_platform.resumes.service;
 import com.reynolds.open_resume_platform.resumes.command.CreateSectionCommand;
 import com.reynolds.open_resume_platform.resumes.command.UpdateSectionCommand;
 import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionRef;
 import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
 import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -20,13 +28,25 @@ public class SectionServiceImpl implements SectionService {
     private final ResumeRepository resumeRepository;
     private final SectionRepository sectionRepository;
     private final SectionVersionRepository sectionVersionRepository;
+    private final ResumeVersionRepository resumeVersionRepository;
+    private final VersionNumberAllocator versionNumberAllocator;
+    private final ResumeLocks resumeLocks;
+    private final ResumeMarkdownAssembler markdownAssembler;
 
     public SectionServiceImpl(ResumeRepository resumeRepository,
                               SectionRepository sectionRepository,
-                              SectionVersionRepository sectionVersionRepository) {
+                              SectionVersionRepository sectionVersionRepository,
+                              ResumeVersionRepository resumeVersionRepository,
+                              VersionNumberAllocator versionNumberAllocator,
+                              ResumeLocks resumeLocks,
+                              ResumeMarkdownAssembler markdownAssembler) {
         this.resumeRepository = resumeRepository;
         this.sectionRepository = sectionRepository;
         this.sectionVersionRepository = sectionVersionRepository;
+        this.resumeVersionRepository = resumeVersionRepository;
+        this.versionNumberAllocator = versionNumberAllocator;
+        this.resumeLocks = resumeLocks;
+        this.markdownAssembler = markdownAssembler;
     }
 
     @Override
@@ -43,41 +63,56 @@ public class SectionServiceImpl implements SectionService {
         }
         String markdown = command.markdown() != null ? command.markdown().trim() : "";
 
-        int order = command.order() != null
-                ? command.order()
-                : nextOrderForResume(resumeId);
-
-        Instant now = Instant.now();
-        String id = UUID.randomUUID().toString();
-        ResumeSection section = new ResumeSection(id, resumeId, title, markdown, order, now, now);
-        sectionRepository.save(section);
-
-        SectionVersion initialVersion = new SectionVersion(
-                UUID.randomUUID().toString(),
-                id,
-                1,
-                markdown,
-                now
-        );
-        sectionVersionRepository.save(initialVersion);
-
-        return section;
+        return resumeLocks.withLock(resumeId, () -> {
+            int order = command.order() != null
+                    ? command.order()
+                    : nextOrderForResume(resumeId);
+
+            Instant now = Instant.now();
+            String id = UUID.randomUUID().toString();
+            ResumeSection section = new ResumeSection(id, resumeId, title, markdown, order, now, now);
+            sectionRepository.save(section);
+            markdownAssembler.invalidate(resumeId);
+
+            SectionVersion initialVersion = new SectionVersion(
+                    UUID.randomUUID().toString(),
+                    id,
+                    versionNumberAllocator.nextSectionVersionNo(id),
+                    markdown,
+                    now
+            );
+            sectionVersionRepository.save(initialVersion);
+
+            return section;
+        });
     }
 
     @Override
-    public Optional<ResumeSection> update(String sectionId, UpdateSectionCommand command) {
+    public Optional<ResumeSection> update(String sectionId, UpdateSectionCommand command, String expectedDigest) {
         if (sectionId == null || sectionId.isBlank()) {
             return Optional.empty();
         }
-        return sectionRepository.findById(sectionId)
+        Optional<ResumeSection> found = sectionRepository.findById(sectionId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        String title = command.title() != null ? command.title().trim() : "";
+        if (title.isEmpty()) {
+            throw new IllegalArgumentException("Section title must not be blank");
+        }
+        String markdown = command.markdown() != null ? command.markdown().trim() : "";
+
+        // Re-read under the lock: the section may have been reordered or deleted since the lookup above
+        return resumeLocks.withLock(found.get().resumeId(), () -> sectionRepository.findById(sectionId)
                 .map(existing -> {
-                    String title = command.title() != null ? command.title().trim() : "";
-                    if (title.isEmpty()) {
-                        throw new IllegalArgumentException("Section title must not be blank");
+                    if (expectedDigest != null && !expectedDigest.equals(existing.contentDigest())) {
+                        throw new SectionContentChangedException("Section " + sectionId + " has changed");
                     }
-                    String markdown = command.markdown() != null ? command.markdown().trim() : "";
-
-                    int nextVersionNo = nextVersionNoForSection(sectionId);
+                    if (existing.contentDigest().equals(ResumeSection.digestOf(title, markdown))) {
+                        // Nothing to save, e.g. an autosave of unchanged content
+                        return existing;
+                    }
+                    int nextVersionNo = versionNumberAllocator.nextSectionVersionNo(sectionId);
                     Instant now = Instant.now();
 
                     ResumeSection updated = new ResumeSection(
@@ -90,6 +125,7 @@ public class SectionServiceImpl implements SectionService {
                             now
                     );
                     sectionRepository.save(updated);
+                    markdownAssembler.invalidate(existing.resumeId());
 
                     SectionVersion version = new SectionVersion(
                             UUID.randomUUID().toString(),
@@ -101,7 +137,7 @@ public class SectionServiceImpl implements SectionService {
                     sectionVersionRepository.save(version);
 
                     return updated;
-                });
+                }));
     }
 
     @Override
@@ -109,11 +145,39 @@ public class SectionServiceImpl implements SectionService {
         if (sectionId == null || sectionId.isBlank()) {
             return false;
         }
-        if (sectionRepository.findById(sectionId).isEmpty()) {
+        Optional<ResumeSection> found = sectionRepository.findById(sectionId);
+        if (found.isEmpty()) {
             return false;
         }
-        sectionRepository.deleteById(sectionId);
-        return true;
+        return resumeLocks.withLock(found.get().resumeId(), () -> {
+            if (sectionRepository.findById(sectionId).isEmpty()) {
+                return false;
+            }
+            sectionRepository.deleteById(sectionId);
+            markdownAssembler.invalidate(found.get().resumeId());
+            // Versions that the resume's version snapshots show are kept for as long as those snapshots are
+            sectionVersionRepository.deleteBySectionId(sectionId,
+                    referencedVersionIds(found.get().resumeId(), sectionId));
+            versionNumberAllocator.forgetSection(sectionId);
+            return true;
+        });
+    }
+
+    /**
+     * Only the resume's own versions can refer to its sections.
+     */
+    private Set<String> referencedVersionIds(String resumeId, String sectionId) {
+        Set<String> ids = new HashSet<>();
+        for (ResumeVersion version : resumeVersionRepository.findByResumeId(resumeId)) {
+            if (version.sections() != null) {
+                for (SectionRef ref : version.sections()) {
+                    if (ref.sectionId().equals(sectionId)) {
+                        ids.add(ref.sectionVersionId());
+                    }
+                }
+            }
+        }
+        return ids;
     }
 
     @Override
@@ -124,35 +188,56 @@ public class SectionServiceImpl implements SectionService {
         return sectionRepository.findByResumeIdOrderByOrder(resumeId);
     }
 
+    /**
+     * Renumbers the resume's sections 1..n in one batch: the listed sections first, in the given order,
+     * then any sections not listed, keeping their current relative order. Unknown ids, ids of other
+     * resumes' sections and duplicates are ignored.
+     */
     @Override
     public void reorder(String resumeId, List<String> sectionIds) {
         if (resumeId == null || resumeId.isBlank() || sectionIds == null || sectionIds.isEmpty()) {
             return;
         }
-        List<ResumeSection> sections = sectionRepository.findByResumeIdOrderByOrder(resumeId);
-        if (sections.isEmpty()) {
-            return;
-        }
-        for (int i = 0; i < sectionIds.size(); i++) {
-            int newOrder = i + 1;
-            String sid = sectionIds.get(i);
-            sectionRepository.findById(sid)
-                    .filter(s -> resumeId.equals(s.resumeId()))
-                    .ifPresent(section -> {
-                        if (section.order() != newOrder) {
-                            ResumeSection updated = new ResumeSection(
-                                    section.id(),
-                                    section.resumeId(),
-                                    section.title(),
-                                    section.markdown(),
-                                    newOrder,
-                                    section.createdAt(),
-                                    Instant.now()
-                            );
-                            sectionRepository.save(updated);
-                        }
-                    });
-        }
+        resumeLocks.withLock(resumeId, () -> {
+            List<ResumeSection> sections = sectionRepository.findByResumeIdOrderByOrder(resumeId);
+            if (sections.isEmpty()) {
+                return;
+            }
+            Map<String, ResumeSection> remaining = new LinkedHashMap<>();
+            for (ResumeSection section : sections) {
+                remaining.put(section.id(), section);
+            }
+            List<ResumeSection> ordered = new ArrayList<>(sections.size());
+            for (String sid : sectionIds) {
+                ResumeSection section = remaining.remove(sid);
+                if (section != null) {
+                    ordered.add(section);
+                }
+            }
+            ordered.addAll(remaining.values());
+
+            Instant now = Instant.now();
+            List<ResumeSection> changed = new ArrayList<>();
+            for (int i = 0; i < ordered.size(); i++) {
+                int newOrder = i + 1;
+                ResumeSection section = ordered.get(i);
+                if (section.order() != newOrder) {
+                    changed.add(new ResumeSection(
+                            section.id(),
+                            section.resumeId(),
+                            section.title(),
+                            section.markdown(),
+                            newOrder,
+                            section.createdAt(),
+                            now
+                    ));
+                }
+            }
+            sectionRepository.saveAll(changed);
+            if (!changed.isEmpty()) {
+                markdownAssembler.invalidate(resumeId);
+            }
+        });
     }
 
     private int nextOrderForResume(String resumeId) {
@@ -160,15 +245,7 @@ public class SectionServiceImpl implements SectionService {
         if (existing.isEmpty()) {
             return 1;
         }
-        int max = existing.stream().mapToInt(ResumeSection::order).max().orElse(0);
-        return max + 1;
-    }
-
-    private int nextVersionNoForSection(String sectionId) {
-        List<SectionVersion> versions = sectionVersionRepository.findBySectionIdOrderByVersionNoDesc(sectionId);
-        if (versions.isEmpty()) {
-            return 1;
-        }
-        return versions.get(0).versionNo() + 1;
+        // Sorted by order, so the last section has the highest
+        return existing.getLast().order() + 1;
     }
 }
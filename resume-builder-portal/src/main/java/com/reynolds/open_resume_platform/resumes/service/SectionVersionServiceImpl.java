@@ -16,11 +16,20 @@ public class SectionVersionServiceImpl implements SectionVersionService {
 
     private final SectionRepository sectionRepository;
     private final SectionVersionRepository sectionVersionRepository;
+    private final VersionNumberAllocator versionNumberAllocator;
+    private final ResumeLocks resumeLocks;
+    private final ResumeMarkdownAssembler markdownAssembler;
 
     public SectionVersionServiceImpl(SectionRepository sectionRepository,
-                                    SectionVersionRepository sectionVersionRepository) {
+                                    SectionVersionRepository sectionVersionRepository,
+                                    VersionNumberAllocator versionNumberAllocator,
+                                    ResumeLocks resumeLocks,
+                                    ResumeMarkdownAssembler markdownAssembler) {
         this.sectionRepository = sectionRepository;
         this.sectionVersionRepository = sectionVersionRepository;
+        this.versionNumberAllocator = versionNumberAllocator;
+        this.resumeLocks = resumeLocks;
+        this.markdownAssembler = markdownAssembler;
     }
 
     @Override
@@ -36,41 +45,45 @@ public class SectionVersionServiceImpl implements SectionVersionService {
         if (sectionId == null || sectionId.isBlank() || versionId == null || versionId.isBlank()) {
             return Optional.empty();
         }
-        return sectionVersionRepository.findById(versionId)
-                .filter(version -> sectionId.equals(version.sectionId()))
-                .flatMap(version -> sectionRepository.findById(sectionId)
-                        .map(section -> {
-                            Instant now = Instant.now();
-                            ResumeSection restored = new ResumeSection(
-                                    section.id(),
-                                    section.resumeId(),
-                                    section.title(),
-                                    version.markdown(),
-                                    section.order(),
-                                    section.createdAt(),
-                                    now
-                            );
-                            sectionRepository.save(restored);
+        Optional<SectionVersion> found = sectionVersionRepository.findById(versionId)
+                .filter(version -> sectionId.equals(version.sectionId()));
+        Optional<ResumeSection> current = sectionRepository.findById(sectionId);
+        if (found.isEmpty() || current.isEmpty()) {
+            return Optional.empty();
+        }
+        SectionVersion version = found.get();
 
-                            int nextVersionNo = nextVersionNoForSection(sectionId);
-                            SectionVersion newVersion = new SectionVersion(
-                                    UUID.randomUUID().toString(),
-                                    sectionId,
-                                    nextVersionNo,
-                                    version.markdown(),
-                                    now
-                            );
-                            sectionVersionRepository.save(newVersion);
+        // Re-read under the lock so a concurrent reorder or update of the section is not overwritten
+        return resumeLocks.withLock(current.get().resumeId(), () -> sectionRepository.findById(sectionId)
+                .map(section -> {
+                    if (section.contentDigest().equals(ResumeSection.digestOf(section.title(), version.markdown()))) {
+                        // Already the section's content, so another version would only duplicate the latest
+                        return section;
+                    }
+                    Instant now = Instant.now();
+                    ResumeSection restored = new ResumeSection(
+                            section.id(),
+                            section.resumeId(),
+                            section.title(),
+                            version.markdown(),
+                            section.order(),
+                            section.createdAt(),
+                            now
+                    );
+                    sectionRepository.save(restored);
+                    markdownAssembler.invalidate(section.resumeId());
 
-                            return restored;
-                        }));
-    }
+                    int nextVersionNo = versionNumberAllocator.nextSectionVersionNo(sectionId);
+                    SectionVersion newVersion = new SectionVersion(
+                            UUID.randomUUID().toString(),
+                            sectionId,
+                            nextVersionNo,
+                            version.markdown(),
+                            now
+                    );
+                    sectionVersionRepository.save(newVersion);
 
-    private int nextVersionNoForSection(String sectionId) {
-        List<SectionVersion> versions = sectionVersionRepository.findBySectionIdOrderByVersionNoDesc(sectionId);
-        if (versions.isEmpty()) {
-            return 1;
-        }
-        return versions.get(0).versionNo() + 1;
+                    return restored;
+                }));
     }
 }
@@ -0,0 +1,61 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out version numbers per resume and per section. Each counter is seeded once from the latest stored
+ * version and then incremented atomically, so concurrent editors never receive the same number.
+ */
+@Component
+public class VersionNumberAllocator {
+
+    private final ResumeVersionRepository resumeVersionRepository;
+    private final SectionVersionRepository sectionVersionRepository;
+
+    private final Map<String, AtomicInteger> resumeCounters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> sectionCounters = new ConcurrentHashMap<>();
+
+    public VersionNumberAllocator(ResumeVersionRepository resumeVersionRepository,
+                                  SectionVersionRepository sectionVersionRepository) {
+        this.resumeVersionRepository = resumeVersionRepository;
+        this.sectionVersionRepository = sectionVersionRepository;
+    }
+
+    public int nextResumeVersionNo(String resumeId) {
+        return resumeCounters.computeIfAbsent(resumeId, id -> new AtomicInteger(
+                resumeVersionRepository.findLatestByResumeId(id).map(ResumeVersion::versionNo).orElse(0)
+        )).incrementAndGet();
+    }
+
+    public int nextSectionVersionNo(String sectionId) {
+        return sectionCounters.computeIfAbsent(sectionId, id -> new AtomicInteger(
+                sectionVersionRepository.findLatestBySectionId(id).map(SectionVersion::versionNo).orElse(0)
+        )).incrementAndGet();
+    }
+
+    /**
+     * Drops the counter of a deleted resume.
+     */
+    public void forgetResume(String resumeId) {
+        resumeCounters.remove(resumeId);
+    }
+
+    /**
+     * Drops the counter of a deleted section.
+     */
+    public void forgetSection(String sectionId) {
+        sectionCounters.remove(sectionId);
+    }
+
+    int counterCount() {
+        return resumeCounters.size() + sectionCounters.size();
+    }
+}
@@ -0,0 +1,87 @@
+package com.reynolds.open_resume_platform.documents.repository;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryGeneratedDocumentRepositoryTest {
+
+    private GeneratedDocumentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryGeneratedDocumentRepository();
+    }
+
+    @Test
+    void save_sharesOneCopyOfIdenticalContent() {
+        repository.save(document("d1"), new byte[]{1, 2, 3, 4});
+        repository.save(document("d2"), new byte[]{1, 2, 3, 4});
+        repository.save(document("d3"), new byte[]{9});
+
+        assertEquals(new DocumentStorageStats(3, 2, 9, 5), repository.stats());
+        assertEquals(1.8, repository.stats().dedupRatio(), 1e-9);
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, repository.getContent("d2").orElseThrow().toByteArray());
+    }
+
+    @Test
+    void deleteById_freesContentWithItsLastReference() {
+        repository.save(document("d1"), new byte[]{1, 2, 3});
+        repository.save(document("d2"), new byte[]{1, 2, 3});
+
+        assertTrue(repository.deleteById("d1"));
+        assertEquals(new DocumentStorageStats(1, 1, 3, 3), repository.stats());
+        assertArrayEquals(new byte[]{1, 2, 3}, repository.getContent("d2").orElseThrow().toByteArray());
+
+        assertTrue(repository.deleteById("d2"));
+        assertFalse(repository.deleteById("d2"));
+        assertEquals(new DocumentStorageStats(0, 0, 0, 0), repository.stats());
+        assertEquals(1.0, repository.stats().dedupRatio());
+    }
+
+    @Test
+    void save_withExistingIdReleasesPreviousContent() {
+        repository.save(document("d1"), new byte[]{1, 2, 3});
+        repository.save(document("d1"), new byte[]{4, 5});
+
+        assertEquals(new DocumentStorageStats(1, 1, 2, 2), repository.stats());
+        assertArrayEquals(new byte[]{4, 5}, repository.getContent("d1").orElseThrow().toByteArray());
+    }
+
+    @Test
+    void evictContent_keepsEntryAndFreesContentWithItsLastReference() {
+        repository.save(document("d1"), new byte[]{1, 2, 3});
+        repository.save(document("d2"), new byte[]{1, 2, 3});
+
+        assertTrue(repository.evictContent("d1"));
+        assertFalse(repository.evictContent("d1"));
+        assertTrue(repository.findById("d1").orElseThrow().contentEvicted());
+        assertTrue(repository.getContent("d1").isEmpty());
+        assertEquals(new DocumentStorageStats(2, 1, 3, 3), repository.stats());
+
+        assertTrue(repository.evictContent("d2"));
+        assertEquals(new DocumentStorageStats(2, 0, 0, 0), repository.stats());
+    }
+
+    @Test
+    void save_requiresContentExactlyWhenNotEvicted() {
+        assertThrows(IllegalArgumentException.class, () -> repository.save(document("d1"), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.save(document("d1").withContentEvicted(), new byte[]{1}));
+
+        repository.save(document("d1").withContentEvicted(), null);
+        assertTrue(repository.findById("d1").orElseThrow().contentEvicted());
+    }
+
+    private static GeneratedDocument document(String id) {
+        return new GeneratedDocument(id, "r1", "v1", "t1", Instant.now());
+    }
+}
@@ -0,0 +1,222 @@
+package com.reynolds.open_resume_platform.documents.repository;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedGeneratedDocumentRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:15:30Z");
+
+    @TempDir
+    Path directory;
+
+    private MappedGeneratedDocumentRepository repository;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        repository.close();
+    }
+
+    @Test
+    void save_servesContentAndMetadata() throws IOException {
+        repository = open(DataSize.ofKilobytes(64));
+        repository.save(document("d1", "r1", 1), new byte[]{1, 2, 3});
+        repository.save(document("d2", "r1", 2), new byte[]{4, 5});
+
+        ByteArrayOutputStream downloaded = new ByteArrayOutputStream();
+        repository.getContent("d1").orElseThrow().writeTo(downloaded);
+
+        assertArrayEquals(new byte[]{1, 2, 3}, downloaded.toByteArray());
+        assertEquals(2, repository.getContent("d2").orElseThrow().size());
+        assertEquals(List.of("d2", "d1"), repository.findByResumeId("r1").stream().map(GeneratedDocument::id).toList());
+        assertTrue(repository.getContent("missing").isEmpty());
+    }
+
+    @Test
+    void save_startsNewSegmentsWhenFullAndGivesLargeDocumentsTheirOwn() throws IOException {
+        repository = open(DataSize.ofBytes(256));
+        byte[] small = filled(150, (byte) 1);
+        byte[] large = filled(10_000, (byte) 2);
+
+        repository.save(document("d1", "r1", 1), small);
+        repository.save(document("d2", "r1", 2), small);
+        repository.save(document("d3", "r1", 3), large);
+
+        assertTrue(segmentCount() > 2);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(file -> file.toFile().length() >= large.length).count());
+        }
+        assertArrayEquals(small, repository.getContent("d1").orElseThrow().toByteArray());
+        assertArrayEquals(large, repository.getContent("d3").orElseThrow().toByteArray());
+    }
+
+    @Test
+    void reopen_recoversDocumentsAndAppendsAfterThem() throws IOException {
+        repository = open(DataSize.ofKilobytes(64));
+        repository.save(new GeneratedDocument("d1", "r1", null, null, NOW), new byte[]{1, 2, 3});
+        repository.close();
+
+        repository = open(DataSize.ofKilobytes(64));
+        repository.save(document("d2", "r1", 2), new byte[]{4});
+        repository.close();
+        repository = open(DataSize.ofKilobytes(64));
+
+        assertEquals(new GeneratedDocument("d1", "r1", null, null, NOW), repository.findById("d1").orElseThrow());
+        assertArrayEquals(new byte[]{1, 2, 3}, repository.getContent("d1").orElseThrow().toByteArray());
+        assertArrayEquals(new byte[]{4}, repository.getContent("d2").orElseThrow().toByteArray());
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    void reopen_discardsRecordThatFailsItsChecksum() throws IOException {
+        repository = open(DataSize.ofKilobytes(64));
+        repository.save(document("d1", "r1", 1), new byte[]{1, 2, 3});
+        repository.save(document("d2", "r1", 2), new byte[]{4, 5, 6});
+        repository.close();
+        corruptLastByteOf("d2", new byte[]{4, 5, 6});
+
+        repository = open(DataSize.ofKilobytes(64));
+        repository.save(document("d3", "r1", 3), new byte[]{7});
+        repository.close();
+        repository = open(DataSize.ofKilobytes(64));
+
+        assertArrayEquals(new byte[]{1, 2, 3}, repository.getContent("d1").orElseThrow().toByteArray());
+        assertTrue(repository.findById("d2").isEmpty());
+        assertArrayEquals(new byte[]{7}, repository.getContent("d3").orElseThrow().toByteArray());
+    }
+
+    @Test
+    void save_writesIdenticalContentOnceAndReferenceCountsSurviveReopen() throws IOException {
+        repository = open(DataSize.ofKilobytes(64));
+        byte[] content = filled(1_000, (byte) 3);
+        repository.save(document("d1", "r1", 1), content);
+        repository.save(document("d2", "r1", 2), content);
+        repository.save(document("d3", "r1", 3), content);
+
+        assertEquals(new DocumentStorageStats(3, 1, 3_000, 1_000), repository.stats());
+        assertEquals(1, occurrences(Files.readAllBytes(segment()), content));
+
+        repository.deleteById("d1");
+        repository.close();
+        repository = open(DataSize.ofKilobytes(64));
+
+        assertTrue(repository.findById("d1").isEmpty());
+        assertEquals(new DocumentStorageStats(2, 1, 2_000, 1_000), repository.stats());
+        assertArrayEquals(content, repository.getContent("d3").orElseThrow().toByteArray());
+        assertEquals(List.of(List.of("d2", "d3")), repository.findAllByContentDigest().values().stream()
+                .map(sharing -> sharing.stream().map(GeneratedDocument::id).sorted().toList())
+                .toList());
+    }
+
+    @Test
+    void deleteById_removesFullSegmentsWithNothingLiveLeft() throws IOException {
+        repository = open(DataSize.ofBytes(256));
+        repository.save(document("d1", "r1", 1), filled(150, (byte) 1));
+        repository.save(document("d2", "r1", 2), filled(150, (byte) 2));
+        repository.save(document("d3", "r1", 3), filled(150, (byte) 3));
+        long before = segmentCount();
+
+        assertTrue(repository.deleteById("d1"));
+        assertTrue(repository.deleteById("d2"));
+
+        assertTrue(segmentCount() < before);
+        assertEquals(new DocumentStorageStats(1, 1, 150, 150), repository.stats());
+        repository.close();
+        repository = open(DataSize.ofBytes(256));
+        assertEquals(List.of("d3"), repository.findAll().stream().map(GeneratedDocument::id).toList());
+    }
+
+    @Test
+    void evictContent_survivesReopenAndFreesUnsharedContent() throws IOException {
+        repository = open(DataSize.ofKilobytes(64));
+        repository.save(document("d1", "r1", 1), new byte[]{1, 2, 3});
+        repository.save(document("d2", "r1", 2), new byte[]{4, 5});
+
+        assertTrue(repository.evictContent("d1"));
+        repository.close();
+        repository = open(DataSize.ofKilobytes(64));
+
+        GeneratedDocument evicted = repository.findById("d1").orElseThrow();
+        assertTrue(evicted.contentEvicted());
+        assertEquals("t1", evicted.templateId());
+        assertTrue(repository.getContent("d1").isEmpty());
+        assertEquals(new DocumentStorageStats(2, 1, 2, 2), repository.stats());
+    }
+
+    private Path segment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList().getLast();
+        }
+    }
+
+    private static int occurrences(byte[] haystack, byte[] needle) {
+        int count = 0;
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            if (Arrays.equals(haystack, i, i + needle.length, needle, 0, needle.length)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private MappedGeneratedDocumentRepository open(DataSize segmentSize) {
+        return new MappedGeneratedDocumentRepository(new DocumentStorageProperties(
+                DocumentStorageProperties.Storage.MAPPED, directory, segmentSize));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private void corruptLastByteOf(String documentId, byte[] content) throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.sorted().toList().getLast();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        int offset = indexOf(bytes, content);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0x7f}), offset + content.length - 1);
+        }
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            if (Arrays.equals(haystack, i, i + needle.length, needle, 0, needle.length)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("content not found");
+    }
+
+    private static byte[] filled(int length, byte value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+
+    private static GeneratedDocument document(String id, String resumeId, int minutes) {
+        return new GeneratedDocument(id, resumeId, "v1", "t1", NOW.plusSeconds(60L * minutes));
+    }
+}
@@ -0,0 +1,140 @@
+package com.reynolds.open_resume_platform.documents.service;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.documents.dto.DocumentSummary;
+import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.documents.repository.InMemoryGeneratedDocumentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentRetentionSweeperTest {
+
+    private static final Instant NOW = Instant.now();
+
+    private GeneratedDocumentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryGeneratedDocumentRepository();
+    }
+
+    @Test
+    void sweep_deletesDocumentsThatAreNeitherAmongTheNewestNorYoung() {
+        DocumentRetentionSweeper sweeper = sweeper(2, DataSize.ofMegabytes(1), 100);
+        save("old-1", "r1", NOW.minus(Duration.ofDays(10)), 1);
+        save("old-2", "r1", NOW.minus(Duration.ofDays(9)), 2);
+        save("old-3", "r1", NOW.minus(Duration.ofDays(8)), 3);
+        save("young", "r1", NOW.minus(Duration.ofHours(1)), 4);
+        save("other", "r2", NOW.minus(Duration.ofDays(10)), 5);
+
+        sweeper.sweep();
+
+        assertEquals(List.of("young", "old-3"), ids(repository.findByResumeId("r1")));
+        assertEquals(List.of("other"), ids(repository.findByResumeId("r2")));
+    }
+
+    @Test
+    void sweep_evictsLeastRecentlyDownloadedContentUntilWithinBudget() {
+        DocumentRetentionSweeper sweeper = sweeper(100, DataSize.ofBytes(10), 100);
+        GeneratedDocumentService service = new GeneratedDocumentServiceImpl(repository, sweeper);
+        save("d1", "r1", NOW.minusSeconds(30), 1);
+        save("d2", "r1", NOW.minusSeconds(20), 2);
+        save("d3", "r1", NOW.minusSeconds(10), 3);
+        service.getContentForDownload("r1", "d1");
+
+        sweeper.sweep();
+
+        assertFalse(repository.findById("d1").orElseThrow().contentEvicted());
+        assertTrue(repository.findById("d2").orElseThrow().contentEvicted());
+        assertTrue(repository.findById("d3").orElseThrow().contentEvicted());
+        assertEquals(6, repository.stats().storedBytes());
+
+        DocumentSummary evicted = service.listByResumeId("r1").getFirst();
+        assertEquals("d3", evicted.id());
+        assertTrue(evicted.regenerable());
+        assertNull(evicted.downloadUrl());
+        assertThrows(DocumentContentEvictedException.class, () -> service.getContentForDownload("r1", "d3"));
+    }
+
+    @Test
+    void sweep_ranksSharedContentByItsMostRecentlyUsedDocument() {
+        DocumentRetentionSweeper sweeper = sweeper(100, DataSize.ofBytes(10), 100);
+        save("a-old", "r1", NOW.minusSeconds(30), 1);
+        save("b", "r1", NOW.minusSeconds(20), 2);
+        save("a-new", "r2", NOW.minusSeconds(10), 1);
+
+        sweeper.sweep();
+
+        // Evicting a-old alone would free nothing, as a-new still holds the same bytes
+        assertFalse(repository.findById("a-old").orElseThrow().contentEvicted());
+        assertFalse(repository.findById("a-new").orElseThrow().contentEvicted());
+        assertTrue(repository.findById("b").orElseThrow().contentEvicted());
+        assertEquals(6, repository.stats().storedBytes());
+    }
+
+    @Test
+    void sweep_evictsEveryDocumentSharingTheEvictedContent() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DocumentRetentionSweeper sweeper = sweeper(100, DataSize.ofBytes(10), 100, meterRegistry);
+        save("a1", "r1", NOW.minusSeconds(30), 1);
+        save("a2", "r2", NOW.minusSeconds(25), 1);
+        save("b", "r1", NOW.minusSeconds(10), 2);
+
+        sweeper.sweep();
+
+        assertTrue(repository.findById("a1").orElseThrow().contentEvicted());
+        assertTrue(repository.findById("a2").orElseThrow().contentEvicted());
+        assertFalse(repository.findById("b").orElseThrow().contentEvicted());
+        assertEquals(6, repository.stats().storedBytes());
+        assertEquals(2.0, meterRegistry.get("portal.documents.retention.evicted").counter().count());
+    }
+
+    @Test
+    void sweep_doesAtMostBatchSizeChangesAndLeavesTheRestForLater() {
+        DocumentRetentionSweeper sweeper = sweeper(0, DataSize.ofBytes(0), 2);
+        for (int i = 0; i < 5; i++) {
+            save("d" + i, "r1", NOW.minus(Duration.ofDays(40 + i)), i);
+        }
+
+        sweeper.sweep();
+        assertEquals(3, repository.findAll().size());
+
+        sweeper.sweep();
+        sweeper.sweep();
+        assertTrue(repository.findAll().isEmpty());
+    }
+
+    private DocumentRetentionSweeper sweeper(int keepLast, DataSize maxBytes, int batchSize) {
+        return sweeper(keepLast, maxBytes, batchSize, new SimpleMeterRegistry());
+    }
+
+    private DocumentRetentionSweeper sweeper(int keepLast, DataSize maxBytes, int batchSize,
+                                             SimpleMeterRegistry meterRegistry) {
+        DocumentRetentionProperties properties = new DocumentRetentionProperties(
+                keepLast, Duration.ofDays(1), maxBytes, Duration.ofMinutes(1), batchSize);
+        return new DocumentRetentionSweeper(repository, properties, meterRegistry);
+    }
+
+    private void save(String id, String resumeId, Instant generatedAt, int fill) {
+        byte[] content = new byte[6];
+        Arrays.fill(content, (byte) fill);
+        repository.save(new GeneratedDocument(id, resumeId, "v1", "t1", generatedAt), content);
+    }
+
+    private static List<String> ids(List<GeneratedDocument> documents) {
+        return documents.stream().map(GeneratedDocument::id).toList();
+    }
+}
@@ -0,0 +1,154 @@
+package com.reynolds.open_resume_platform.jobs.service;
+
+import com.reynolds.open_resume_platform.documents.dto.GenerateDocxResponse;
+import com.reynolds.open_resume_platform.jobs.domain.RenderJob;
+import com.reynolds.open_resume_platform.jobs.repository.InMemoryRenderJobRepository;
+import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
+import com.reynolds.open_resume_platform.resumes.domain.Resume;
+import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
+import com.reynolds.open_resume_platform.resumes.service.ResumeDocxService;
+import com.reynolds.open_resume_platform.resumes.service.ResumeMarkdownAssembler;
+import com.reynolds.open_resume_platform.resumes.service.ResumeService;
+import com.reynolds.open_resume_platform.resumes.service.ResumeServiceImpl;
+import com.reynolds.open_resume_platform.service.DocumentGenerationUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenderJobServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ResumeService resumeService;
+    private InMemoryRenderJobRepository jobRepository;
+    private RenderJobServiceImpl jobService;
+    private volatile ResumeDocxService docxService;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryResumeRepository resumeRepository = new InMemoryResumeRepository();
+        resumeService = new ResumeServiceImpl(resumeRepository,
+                new ResumeMarkdownAssembler(resumeRepository, new InMemorySectionRepository()));
+        docxService = (resumeId, versionId, templateId) -> {
+            awaitRelease();
+            return Optional.of(new GenerateDocxResponse("doc-1", "/api/v1/resumes/" + resumeId + "/documents/doc-1/download"));
+        };
+        ResumeDocxService delegating = (resumeId, versionId, templateId) -> docxService.generate(resumeId, versionId, templateId);
+        jobRepository = new InMemoryRenderJobRepository();
+        jobService = new RenderJobServiceImpl(resumeService, delegating, jobRepository,
+                new RenderJobProperties(1, 1, Duration.ofHours(1), Duration.ofMinutes(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        jobService.shutdown();
+    }
+
+    @Test
+    void submit_returnsQueuedJobAndListenerSeesRunningThenDone() throws Exception {
+        Resume resume = createResume();
+        List<RenderJob.Status> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        RenderJob job = jobService.submit(resume.id(), null, null).orElseThrow();
+        jobService.subscribe(job.id(), update -> {
+            seen.add(update.status());
+            if (update.status().isTerminal()) {
+                done.countDown();
+            }
+        });
+        assertEquals(RenderJob.Status.QUEUED, job.status());
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        RenderJob finished = jobService.getById(job.id()).orElseThrow();
+        assertEquals(RenderJob.Status.DONE, finished.status());
+        assertEquals("doc-1", finished.documentId());
+        assertTrue(finished.downloadUrl().endsWith("/download"));
+        assertEquals(RenderJob.Status.DONE, seen.getLast());
+    }
+
+    @Test
+    void submit_returnsEmptyWhenResumeNotFound() {
+        assertTrue(jobService.submit("non-existent-id", null, null).isEmpty());
+    }
+
+    @Test
+    void submit_marksJobFailedWhenGenerationIsUnavailable() throws Exception {
+        Resume resume = createResume();
+        docxService = (resumeId, versionId, templateId) -> {
+            throw new DocumentGenerationUnavailableException("Document generation service is temporarily unavailable");
+        };
+
+        RenderJob job = jobService.submit(resume.id(), null, null).orElseThrow();
+
+        RenderJob finished = awaitTerminal(job.id());
+        assertEquals(RenderJob.Status.FAILED, finished.status());
+        assertEquals("Document generation service is temporarily unavailable", finished.error());
+    }
+
+    @Test
+    void submit_refusesOnceTheWorkerIsBusyAndTheQueueIsFull() {
+        Resume resume = createResume();
+        // A new worker thread takes the first job directly, so it never occupies the queue slot
+        RenderJob running = jobService.submit(resume.id(), null, null).orElseThrow();
+        RenderJob queued = jobService.submit(resume.id(), null, null).orElseThrow();
+
+        assertThrows(DocumentGenerationUnavailableException.class, () -> jobService.submit(resume.id(), null, null));
+        assertTrue(jobService.getById(running.id()).isPresent());
+        assertTrue(jobService.getById(queued.id()).isPresent());
+    }
+
+    @Test
+    void finishedJobsPastRetention_areHiddenOnReadAndPrunedOnSchedule() {
+        Resume resume = createResume();
+        Instant old = Instant.now().minus(Duration.ofHours(2));
+        jobRepository.save(new RenderJob("old-done", resume.id(), null, null, RenderJob.Status.DONE, old, old,
+                "doc-1", "/download", null));
+        jobRepository.save(new RenderJob("old-queued", resume.id(), null, null, RenderJob.Status.QUEUED, old, old,
+                null, null, null));
+
+        assertTrue(jobService.getById("old-done").isEmpty());
+        assertTrue(jobService.getById("old-queued").isPresent());
+
+        jobService.pruneFinished();
+
+        assertTrue(jobRepository.findById("old-done").isEmpty());
+        assertTrue(jobRepository.findById("old-queued").isPresent());
+    }
+
+    private Resume createResume() {
+        return resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Hello"));
+    }
+
+    private RenderJob awaitTerminal(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        RenderJob job = jobService.getById(jobId).orElseThrow();
+        while (!job.status().isTerminal() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = jobService.getById(jobId).orElseThrow();
+        }
+        return job;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
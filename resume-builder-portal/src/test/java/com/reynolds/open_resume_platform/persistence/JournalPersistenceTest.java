@@ -0,0 +1,262 @@
+package com.reynolds.open_resume_platform.persistence;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.documents.repository.InMemoryGeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
+import com.reynolds.open_resume_platform.resumes.domain.Resume;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionRef;
+import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalPersistenceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:15:30.123456789Z");
+
+    @TempDir
+    Path directory;
+
+    private Stores stores;
+
+    @AfterEach
+    void tearDown() {
+        if (stores != null) {
+            stores.persistence.close();
+        }
+    }
+
+    @Test
+    void reopen_recoversEveryKindOfWrite() {
+        stores = open();
+        stores.resumes.save(resume("r1", "# One"));
+        stores.resumes.updateById("r1", r -> resume("r1", "# One, edited"));
+        stores.sections.save(section("s1", "r1", 1, "Profile"));
+        stores.sections.save(section("s2", "r1", 2, "Skills"));
+        stores.sections.save(section("s3", "r1", 3, "Gone"));
+        stores.sections.saveAll(List.of(section("s2", "r1", 1, "Skills"), section("s1", "r1", 2, "Profile")));
+        stores.sections.deleteById("s3");
+        stores.sectionVersions.save(new SectionVersion("sv1", "s1", 1, "Profile body", NOW));
+        stores.resumeVersions.save(new ResumeVersion("v1", "r1", 1, null, "# Snapshot", "t1", NOW));
+        stores.resumeVersions.save(new ResumeVersion("v2", "r1", 2, null, null, "t1", NOW,
+                List.of(new SectionRef("s1", "sv1", "Profile"))));
+        stores.documents.save(new GeneratedDocument("d1", "r1", "v1", "t1", NOW), new byte[]{1, 2, 3});
+        stores.documents.save(new GeneratedDocument("d2", "r1", "v1", "t1", NOW), new byte[]{1, 2, 3});
+        stores.documents.deleteById("d2");
+        stores.documents.save(new GeneratedDocument("d3", "r1", "v1", "t1", NOW), new byte[]{4});
+        stores.documents.evictContent("d3");
+
+        reopen();
+
+        Resume resume = stores.resumes.findById("r1").orElseThrow();
+        assertEquals("# One, edited", resume.markdown());
+        assertEquals(NOW, resume.createdAt());
+        assertEquals(List.of("s2", "s1"), stores.sections.findByResumeIdOrderByOrder("r1").stream().map(ResumeSection::id).toList());
+        assertTrue(stores.sections.findById("s3").isEmpty());
+        assertEquals("Profile body", stores.sectionVersions.findById("sv1").orElseThrow().markdown());
+        assertEquals("# Snapshot", stores.resumeVersions.findById("v1").orElseThrow().markdown());
+        assertNull(stores.resumeVersions.findById("v1").orElseThrow().sections());
+        assertEquals(List.of(new SectionRef("s1", "sv1", "Profile")),
+                stores.resumeVersions.findById("v2").orElseThrow().sections());
+        assertArrayEquals(new byte[]{1, 2, 3}, stores.documents.getContent("d1").orElseThrow().toByteArray());
+        assertTrue(stores.documents.findById("d2").isEmpty());
+        assertTrue(stores.documents.findById("d3").orElseThrow().contentEvicted());
+    }
+
+    @Test
+    void reopen_recoversDeletesOfResumesAndTheirHistory() {
+        stores = open();
+        stores.resumes.save(resume("r1", "# Deleted"));
+        stores.resumes.save(resume("r2", "# Kept"));
+        stores.sectionVersions.save(new SectionVersion("sv1", "s1", 1, "Old", NOW));
+        stores.sectionVersions.save(new SectionVersion("sv2", "s1", 2, "Pinned", NOW));
+        stores.sectionVersions.save(new SectionVersion("sv3", "s1", 3, "Latest", NOW));
+        stores.resumeVersions.save(new ResumeVersion("v1", "r1", 1, null, "# Snapshot", "t1", NOW));
+        stores.resumes.deleteById("r1");
+        stores.resumeVersions.deleteByResumeId("r1");
+        stores.sectionVersions.deleteBySectionId("s1", Set.of("sv2"));
+
+        reopen();
+
+        assertTrue(stores.resumes.findById("r1").isEmpty());
+        assertEquals("# Kept", stores.resumes.findById("r2").orElseThrow().markdown());
+        assertTrue(stores.resumeVersions.findByResumeId("r1").isEmpty());
+        assertEquals(List.of("Pinned"), stores.sectionVersions.findBySectionIdOrderByVersionNoDesc("s1").stream()
+                .map(SectionVersion::markdown).toList());
+    }
+
+    @Test
+    void snapshot_compactsJournalAndRecoveryReplaysOnlyTheTail() throws IOException {
+        stores = open();
+        stores.resumes.save(resume("r1", "# Before snapshot"));
+        stores.documents.save(new GeneratedDocument("d1", "r1", "v1", "t1", NOW), new byte[]{1});
+        stores.documents.evictContent("d1");
+        stores.persistence.snapshot();
+        stores.resumes.save(resume("r2", "# After snapshot"));
+
+        assertEquals(1, segmentCount());
+
+        reopen();
+
+        assertEquals("# Before snapshot", stores.resumes.findById("r1").orElseThrow().markdown());
+        assertEquals("# After snapshot", stores.resumes.findById("r2").orElseThrow().markdown());
+        assertEquals("t1", stores.documents.findById("d1").orElseThrow().templateId());
+        assertTrue(stores.documents.findById("d1").orElseThrow().contentEvicted());
+    }
+
+    @Test
+    void reopen_truncatesTornTailOfNewestSegment() throws IOException {
+        stores = open();
+        stores.resumes.save(resume("r1", "# Kept"));
+        stores.persistence.close();
+        Path newest;
+        try (Stream<Path> files = Files.list(directory)) {
+            newest = files.filter(p -> p.getFileName().toString().startsWith("journal-")).sorted().toList().getLast();
+        }
+        Files.write(newest, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        stores = open();
+        stores.resumes.save(resume("r2", "# Written after recovery"));
+        reopen();
+
+        assertEquals("# Kept", stores.resumes.findById("r1").orElseThrow().markdown());
+        assertEquals("# Written after recovery", stores.resumes.findById("r2").orElseThrow().markdown());
+    }
+
+    @Test
+    void reopen_failsOnCorruptSnapshotInsteadOfStartingEmpty() throws IOException {
+        stores = open();
+        stores.resumes.save(resume("r1", "# One"));
+        stores.persistence.snapshot();
+        stores.persistence.close();
+        stores = null;
+        Path snapshot = directory.resolve("snapshot.bin");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 0x7f;
+        Files.write(snapshot, bytes);
+
+        assertThrows(IllegalStateException.class, this::open);
+    }
+
+    @Test
+    void reopen_failsOnSnapshotOfAnOlderFormatVersion() throws IOException {
+        stores = open();
+        stores.resumes.save(resume("r1", "# One"));
+        stores.persistence.snapshot();
+        stores.persistence.close();
+        stores = null;
+        Path snapshot = directory.resolve("snapshot.bin");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, 2);
+        Files.write(snapshot, bytes);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, this::open);
+        assertTrue(e.getMessage().contains("format version 2"), e.getMessage());
+    }
+
+    @Test
+    void concurrentWriters_allBecomeDurable() {
+        stores = open();
+        int writers = 200;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < writers; i++) {
+                String id = "r" + i;
+                executor.submit(() -> stores.resumes.save(resume(id, "# " + id)));
+            }
+        }
+        reopen();
+
+        assertEquals(writers, stores.resumes.findAll().size());
+    }
+
+    @Test
+    void writesThatCannotBeJournalled_leaveTheStoreUnchanged() {
+        stores = open();
+        stores.resumes.save(resume("r1", "# One"));
+        stores.sectionVersions.save(new SectionVersion("sv1", "s1", 1, "Profile", NOW));
+        stores.persistence.close();
+
+        assertThrows(IllegalStateException.class, () -> stores.resumes.save(resume("r2", "# Two")));
+        assertThrows(IllegalStateException.class, () -> stores.resumes.updateById("r1", r -> resume("r1", "# Edited")));
+        assertThrows(IllegalStateException.class, () -> stores.resumes.deleteById("r1"));
+        assertThrows(IllegalStateException.class, () -> stores.sectionVersions.deleteBySectionId("s1", Set.of()));
+
+        assertTrue(stores.resumes.findById("r2").isEmpty());
+        assertEquals("# One", stores.resumes.findById("r1").orElseThrow().markdown());
+        assertEquals("Profile", stores.sectionVersions.findById("sv1").orElseThrow().markdown());
+    }
+
+    private void reopen() {
+        stores.persistence.close();
+        stores = open();
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().startsWith("journal-")).count();
+        }
+    }
+
+    private Stores open() {
+        InMemoryResumeRepository resumes = new InMemoryResumeRepository();
+        InMemorySectionRepository sections = new InMemorySectionRepository();
+        InMemorySectionVersionRepository sectionVersions = ResumeTestFixtures.sectionVersionRepository();
+        InMemoryResumeVersionRepository resumeVersions = ResumeTestFixtures.resumeVersionRepository();
+        InMemoryGeneratedDocumentRepository documents = new InMemoryGeneratedDocumentRepository();
+        PersistenceProperties properties = new PersistenceProperties(PersistenceProperties.Mode.JOURNAL, directory,
+                new PersistenceProperties.Journal(64, 10_000, Duration.ofMinutes(1)));
+        JournalPersistence persistence = new JournalPersistence(properties, resumes, sections, sectionVersions,
+                resumeVersions, documents);
+        return new Stores(
+                persistence,
+                new JournaledResumeRepository(resumes, persistence),
+                new JournaledSectionRepository(sections, persistence),
+                new JournaledSectionVersionRepository(sectionVersions, persistence),
+                new JournaledResumeVersionRepository(resumeVersions, persistence),
+                new JournaledGeneratedDocumentRepository(documents, persistence)
+        );
+    }
+
+    private static Resume resume(String id, String markdown) {
+        return new Resume(id, Resume.Status.DRAFT, 1, NOW, NOW, "Title " + id, null, null, "t1", markdown);
+    }
+
+    private static ResumeSection section(String id, String resumeId, int order, String title) {
+        return new ResumeSection(id, resumeId, title, title + " body", order, NOW, NOW);
+    }
+
+    private record Stores(
+            JournalPersistence persistence,
+            JournaledResumeRepository resumes,
+            JournaledSectionRepository sections,
+            JournaledSectionVersionRepository sectionVersions,
+            JournaledResumeVersionRepository resumeVersions,
+            JournaledGeneratedDocumentRepository documents
+    ) {}
+}
@@ -0,0 +1,39 @@
+package com.reynolds.open_resume_platform.resumes;
+
+import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.MarkdownStorageProperties;
+import com.reynolds.open_resume_platform.resumes.repository.SectionHistoryProperties;
+import com.reynolds.open_resume_platform.resumes.service.ResumeVersionProperties;
+
+import java.time.Duration;
+
+/**
+ * Properties with the same values as the {@code @DefaultValue}s in production, and the version repositories
+ * built from them, for tests that do not care about storage tuning.
+ */
+public final class ResumeTestFixtures {
+
+    private ResumeTestFixtures() {
+    }
+
+    public static MarkdownStorageProperties markdownStorageProperties() {
+        return new MarkdownStorageProperties(Duration.ofMinutes(10), 128, 256, Duration.ofMinutes(1));
+    }
+
+    public static SectionHistoryProperties sectionHistoryProperties() {
+        return new SectionHistoryProperties(16, 256);
+    }
+
+    public static ResumeVersionProperties resumeVersionProperties() {
+        return new ResumeVersionProperties(64);
+    }
+
+    public static InMemoryResumeVersionRepository resumeVersionRepository() {
+        return new InMemoryResumeVersionRepository(markdownStorageProperties());
+    }
+
+    public static InMemorySectionVersionRepository sectionVersionRepository() {
+        return new InMemorySectionVersionRepository(sectionHistoryProperties(), markdownStorageProperties());
+    }
+}
@@ -0,0 +1,68 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColdMarkdownStoreTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ColdMarkdownStore store = new ColdMarkdownStore(
+            new MarkdownStorageProperties(Duration.ofNanos(100), 2, 64, Duration.ofMinutes(1)), clock::get);
+
+    @Test
+    void compressCold_compressesOnlyTextsNotReadWithinColdAfter() {
+        ColdMarkdown read = store.store(resume("read"));
+        ColdMarkdown unread = store.store(resume("unread"));
+        ColdMarkdown small = store.store("# Short");
+
+        clock.set(150);
+        store.read(read);
+        clock.set(200);
+
+        assertEquals(1, store.compressCold(List.of(read, unread, small)));
+        assertFalse(read.isCompressed());
+        assertTrue(unread.isCompressed());
+        assertFalse(small.isCompressed());
+    }
+
+    @Test
+    void read_returnsOriginalTextAfterCompression() {
+        String text = resume("unicode — naïve café ✓");
+        ColdMarkdown markdown = store.store(text);
+        long hotBytes = markdown.heldBytes();
+        clock.set(1_000);
+
+        store.compressCold(List.of(markdown));
+
+        assertTrue(markdown.isCompressed());
+        assertTrue(markdown.heldBytes() * 5 < hotBytes, markdown.heldBytes() + " of " + hotBytes);
+        assertEquals(text, store.read(markdown));
+        assertEquals(text, store.peek(markdown));
+        assertTrue(markdown.isCompressed());
+    }
+
+    @Test
+    void peek_doesNotKeepTextWarm() {
+        ColdMarkdown markdown = store.store(resume("peeked"));
+        clock.set(150);
+        store.peek(markdown);
+        clock.set(200);
+
+        assertEquals(1, store.compressCold(List.of(markdown)));
+    }
+
+    private static String resume(String name) {
+        StringBuilder markdown = new StringBuilder("# " + name + "\n\n");
+        for (int i = 0; i < 100; i++) {
+            markdown.append("- Led the migration of service ").append(i % 7).append(" to the new platform\n");
+        }
+        return markdown.toString();
+    }
+}
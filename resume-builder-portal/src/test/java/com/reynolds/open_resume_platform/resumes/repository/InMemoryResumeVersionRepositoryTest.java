@@ -0,0 +1,132 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionRef;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryResumeVersionRepositoryTest {
+
+    private ResumeVersionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = ResumeTestFixtures.resumeVersionRepository();
+    }
+
+    @Test
+    void findByResumeId_returnsOnlyThatResumesVersionsSortedByVersionNo() {
+        repository.save(version("v3", "r1", 3));
+        repository.save(version("v1", "r1", 1));
+        repository.save(version("other", "r2", 1));
+        repository.save(version("v2", "r1", 2));
+
+        assertEquals(List.of("v1", "v2", "v3"), ids(repository.findByResumeId("r1")));
+        assertEquals(List.of("other"), ids(repository.findByResumeId("r2")));
+        assertTrue(repository.findByResumeId("unknown").isEmpty());
+    }
+
+    @Test
+    void findByResumeIdAndVersionNo_looksUpWithinTheResume() {
+        repository.save(version("v1", "r1", 1));
+        repository.save(version("v2", "r1", 2));
+        repository.save(version("other", "r2", 2));
+
+        assertEquals("v2", repository.findByResumeIdAndVersionNo("r1", 2).orElseThrow().id());
+        assertEquals("other", repository.findByResumeIdAndVersionNo("r2", 2).orElseThrow().id());
+        assertTrue(repository.findByResumeIdAndVersionNo("r1", 3).isEmpty());
+        assertTrue(repository.findByResumeIdAndVersionNo("unknown", 1).isEmpty());
+    }
+
+    @Test
+    void findLatestByResumeId_returnsHighestVersionNo() {
+        assertTrue(repository.findLatestByResumeId("r1").isEmpty());
+
+        repository.save(version("v2", "r1", 2));
+        repository.save(version("v1", "r1", 1));
+        repository.save(version("other", "r2", 7));
+
+        assertEquals("v2", repository.findLatestByResumeId("r1").orElseThrow().id());
+        assertEquals("v2", repository.findById("v2").orElseThrow().id());
+    }
+
+    @Test
+    void save_withATakenVersionNoReplacesThatVersionInBothIndexes() {
+        repository.save(version("v1", "r1", 1));
+        repository.save(version("v1-again", "r1", 1));
+        repository.save(version("v2", "r1", 2));
+        repository.save(version("v2", "r1", 3));
+
+        assertTrue(repository.findById("v1").isEmpty());
+        assertEquals(List.of("v1-again", "v2"), ids(repository.findByResumeId("r1")));
+        assertEquals(3, repository.findById("v2").orElseThrow().versionNo());
+        assertEquals(2, repository.findAll().size());
+    }
+
+    @Test
+    void compressColdMarkdown_shrinksHeldMarkdownAndReadsReturnTheSameText() {
+        InMemoryResumeVersionRepository compressing = new InMemoryResumeVersionRepository(
+                new MarkdownStorageProperties(Duration.ZERO, 4, 256, Duration.ofMinutes(1)));
+        List<ResumeVersion> saved = new ArrayList<>();
+        for (int versionNo = 1; versionNo <= 20; versionNo++) {
+            ResumeVersion version = new ResumeVersion("v" + versionNo, "r1", versionNo, null,
+                    resumeMarkdown(versionNo), "default-template", Instant.now());
+            saved.add(compressing.save(version));
+        }
+        long before = compressing.markdownHeldBytes();
+
+        compressing.compressColdMarkdown();
+
+        assertTrue(compressing.markdownHeldBytes() * 5 < before, compressing.markdownHeldBytes() + " of " + before);
+        assertEquals(saved.stream().map(ResumeVersion::markdown).toList(),
+                compressing.findByResumeId("r1").stream().map(ResumeVersion::markdown).toList());
+        assertEquals(saved.get(3).markdown(), compressing.findById("v4").orElseThrow().markdown());
+        assertEquals(saved.stream().map(ResumeVersion::markdown).toList(),
+                compressing.findAll().stream().sorted(Comparator.comparingInt(ResumeVersion::versionNo))
+                        .map(ResumeVersion::markdown).toList());
+    }
+
+    @Test
+    void deleteByResumeId_removesOnlyThatResumesVersions() {
+        repository.save(version("v1", "r1", 1));
+        repository.save(new ResumeVersion("v2", "r1", 2, null, null, "default-template", Instant.now(),
+                List.of(new SectionRef("s1", "sv1", "Profile"))));
+        repository.save(new ResumeVersion("other", "r2", 1, null, null, "default-template", Instant.now(),
+                List.of(new SectionRef("s2", "sv2", "Profile"))));
+
+        assertTrue(repository.deleteByResumeId("r1") > 0);
+
+        assertTrue(repository.findByResumeId("r1").isEmpty());
+        assertTrue(repository.findById("v1").isEmpty());
+        assertEquals(Set.of("r2"), repository.findResumeIds());
+        assertEquals(List.of(new SectionRef("s2", "sv2", "Profile")), repository.findByResumeId("r2").getFirst().sections());
+        assertEquals(0, repository.deleteByResumeId("r1"));
+    }
+
+    private static String resumeMarkdown(int versionNo) {
+        StringBuilder markdown = new StringBuilder("# Resume v" + versionNo + "\n\n## Experience\n\n");
+        for (int i = 0; i < 60; i++) {
+            markdown.append("- Delivered project ").append(i).append(" for the platform team on schedule\n");
+        }
+        return markdown.toString();
+    }
+
+    private static ResumeVersion version(String id, String resumeId, int versionNo) {
+        return new ResumeVersion(id, resumeId, versionNo, null, "# " + id, "default-template", Instant.now());
+    }
+
+    private static List<String> ids(List<ResumeVersion> versions) {
+        return versions.stream().map(ResumeVersion::id).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemorySectionRepositoryTest {
+
+    private SectionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemorySectionRepository();
+    }
+
+    @Test
+    void findByResumeIdOrderByOrder_returnsOnlyThatResumesSectionsSortedByOrder() {
+        repository.save(section("s3", "r1", 3));
+        repository.save(section("s1", "r1", 1));
+        repository.save(section("other", "r2", 1));
+        repository.save(section("s2", "r1", 2));
+
+        assertEquals(List.of("s1", "s2", "s3"), ids(repository.findByResumeIdOrderByOrder("r1")));
+        assertEquals(List.of("other"), ids(repository.findByResumeIdOrderByOrder("r2")));
+        assertTrue(repository.findByResumeIdOrderByOrder("unknown").isEmpty());
+    }
+
+    @Test
+    void save_replacesExistingSectionAndMovesItWhenOrderChanges() {
+        repository.save(section("s1", "r1", 1));
+        repository.save(section("s2", "r1", 2));
+
+        repository.save(section("s1", "r1", 5));
+
+        List<ResumeSection> sections = repository.findByResumeIdOrderByOrder("r1");
+        assertEquals(List.of("s2", "s1"), ids(sections));
+        assertEquals(5, sections.get(1).order());
+    }
+
+    @Test
+    void deleteById_removesSectionFromIndex() {
+        repository.save(section("s1", "r1", 1));
+        repository.save(section("s2", "r1", 2));
+
+        repository.deleteById("s1");
+        repository.deleteById("missing");
+
+        assertEquals(List.of("s2"), ids(repository.findByResumeIdOrderByOrder("r1")));
+        assertTrue(repository.findById("s1").isEmpty());
+
+        repository.deleteById("s2");
+        assertTrue(repository.findByResumeIdOrderByOrder("r1").isEmpty());
+    }
+
+    @Test
+    void findByResumeIdOrderByOrder_returnsUnmodifiableSnapshot() {
+        repository.save(section("s1", "r1", 1));
+        List<ResumeSection> snapshot = repository.findByResumeIdOrderByOrder("r1");
+
+        repository.save(section("s2", "r1", 2));
+
+        assertEquals(1, snapshot.size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(section("s3", "r1", 3)));
+    }
+
+    @Test
+    void saveAll_replacesSectionsOfOneResumeInOneBatch() {
+        repository.save(section("s1", "r1", 1));
+        repository.save(section("s2", "r1", 2));
+        repository.save(section("s3", "r1", 3));
+
+        repository.saveAll(List.of(section("s3", "r1", 1), section("s1", "r1", 3)));
+
+        assertEquals(List.of("s3", "s2", "s1"), ids(repository.findByResumeIdOrderByOrder("r1")));
+        assertEquals(1, repository.findById("s3").orElseThrow().order());
+    }
+
+    @Test
+    void saveAll_rejectsSectionsOfDifferentResumes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.saveAll(List.of(section("s1", "r1", 1), section("s2", "r2", 1))));
+        assertTrue(repository.findById("s1").isEmpty());
+    }
+
+    private static ResumeSection section(String id, String resumeId, int order) {
+        Instant now = Instant.now();
+        return new ResumeSection(id, resumeId, "Title " + id, "Body " + id, order, now, now);
+    }
+
+    private static List<String> ids(List<ResumeSection> sections) {
+        return sections.stream().map(ResumeSection::id).toList();
+    }
+}
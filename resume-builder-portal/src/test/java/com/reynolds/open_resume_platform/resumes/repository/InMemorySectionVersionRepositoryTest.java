@@ -0,0 +1,207 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
+import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemorySectionVersionRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void history_rebuildsEveryVersionAndStoresLittleMoreThanTheEdits() {
+        InMemorySectionVersionRepository repository = repository(16, 64);
+        List<String> texts = edits(500);
+        for (int i = 0; i < texts.size(); i++) {
+            repository.save(version("s1", i + 1, texts.get(i)));
+        }
+
+        List<SectionVersion> history = repository.findBySectionIdOrderByVersionNoDesc("s1");
+
+        assertEquals(500, history.size());
+        for (SectionVersion version : history) {
+            assertEquals(texts.get(version.versionNo() - 1), version.markdown());
+            assertEquals(version.markdown(), repository.findById(version.id()).orElseThrow().markdown());
+        }
+        long fullCopies = texts.stream().mapToLong(String::length).sum();
+        assertTrue(repository.storedSize() * 5 < fullCopies,
+                "stored " + repository.storedSize() + " of " + fullCopies);
+    }
+
+    @Test
+    void findById_appliesFewerDeltasThanTheKeyframeIntervalWithoutCache() {
+        InMemorySectionVersionRepository repository = repository(8, 0);
+        List<String> texts = edits(50);
+        for (int i = 0; i < texts.size(); i++) {
+            repository.save(version("s1", i + 1, texts.get(i)));
+        }
+
+        for (int versionNo = 1; versionNo <= texts.size(); versionNo++) {
+            long before = repository.deltasApplied();
+            assertEquals(texts.get(versionNo - 1), repository.findById(id("s1", versionNo)).orElseThrow().markdown());
+            assertTrue(repository.deltasApplied() - before < 8);
+        }
+    }
+
+    @Test
+    void save_replacingABaseVersionKeepsLaterVersionsIntact() {
+        InMemorySectionVersionRepository repository = repository(16, 0);
+        List<String> texts = edits(4);
+        for (int i = 0; i < texts.size(); i++) {
+            repository.save(version("s1", i + 1, texts.get(i)));
+        }
+
+        repository.save(version("s1", 2, "rewritten"));
+        repository.save(version("s1", 3, texts.get(2)));
+
+        assertEquals("rewritten", repository.findById(id("s1", 2)).orElseThrow().markdown());
+        assertEquals(texts.get(2), repository.findById(id("s1", 3)).orElseThrow().markdown());
+        assertEquals(texts.get(3), repository.findLatestBySectionId("s1").orElseThrow().markdown());
+        assertEquals(4, repository.findAll().size());
+    }
+
+    @Test
+    void compressColdMarkdown_compressesKeyframesAndHistoryIsUnchanged() {
+        InMemorySectionVersionRepository repository = new InMemorySectionVersionRepository(
+                new SectionHistoryProperties(4, 0), new MarkdownStorageProperties(Duration.ZERO, 2, 256, Duration.ofMinutes(1)));
+        List<String> texts = edits(40);
+        for (int i = 0; i < texts.size(); i++) {
+            repository.save(version("s1", i + 1, texts.get(i)));
+        }
+        long before = repository.storedSize();
+
+        repository.compressColdMarkdown();
+
+        assertTrue(repository.storedSize() * 2 < before, repository.storedSize() + " of " + before);
+        List<SectionVersion> history = repository.findBySectionIdOrderByVersionNoDesc("s1");
+        assertEquals(texts.size(), history.size());
+        for (SectionVersion version : history) {
+            assertEquals(texts.get(version.versionNo() - 1), version.markdown());
+        }
+    }
+
+    @Test
+    void deleteBySectionId_keepsTheGivenVersionsReadableAndReleasesTheRest() {
+        InMemorySectionVersionRepository repository = repository(16, 0);
+        List<String> texts = edits(40);
+        for (int i = 0; i < texts.size(); i++) {
+            repository.save(version("s1", i + 1, texts.get(i)));
+        }
+        repository.save(version("s2", 1, "other"));
+        long before = repository.storedSize();
+
+        long released = repository.deleteBySectionId("s1", Set.of(id("s1", 5), id("s1", 6), id("s1", 30)));
+
+        assertTrue(released > 0);
+        assertEquals(before - released, repository.storedSize());
+        assertEquals(List.of(30, 6, 5), repository.findBySectionIdOrderByVersionNoDesc("s1").stream()
+                .map(SectionVersion::versionNo).toList());
+        for (int versionNo : List.of(5, 6, 30)) {
+            assertEquals(texts.get(versionNo - 1), repository.findById(id("s1", versionNo)).orElseThrow().markdown());
+        }
+        assertTrue(repository.findById(id("s1", 7)).isEmpty());
+        assertEquals(Set.of("s1", "s2"), repository.findSectionIds());
+
+        assertEquals(0, repository.deleteBySectionId("s1", Set.of(id("s1", 5), id("s1", 6), id("s1", 30))));
+        assertTrue(repository.deleteBySectionId("s1", Set.of()) > 0);
+        assertEquals(Set.of("s2"), repository.findSectionIds());
+        assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    void deleteBySectionId_reportsNothingReleasedWhenAKeptVersionHadToBeStoredInFull() {
+        InMemorySectionVersionRepository repository = repository(16, 0);
+        List<String> texts = edits(3);
+        for (int i = 0; i < texts.size(); i++) {
+            repository.save(version("s1", i + 1, texts.get(i)));
+        }
+        long before = repository.storedSize();
+
+        long released = repository.deleteBySectionId("s1", Set.of(id("s1", 1), id("s1", 3)));
+
+        assertEquals(0, released);
+        assertTrue(repository.storedSize() > before);
+        assertTrue(repository.findById(id("s1", 2)).isEmpty());
+        assertEquals(texts.get(2), repository.findById(id("s1", 3)).orElseThrow().markdown());
+    }
+
+    @Test
+    void reads_neverFailWhileTheSectionIsDeletedConcurrently() throws Exception {
+        InMemorySectionVersionRepository repository = repository(16, 0);
+        List<String> texts = edits(12);
+        AtomicBoolean done = new AtomicBoolean();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    int versionNo = 0;
+                    while (!done.get()) {
+                        versionNo = versionNo % texts.size() + 1;
+                        repository.findById(id("s1", versionNo))
+                                .ifPresent(found -> assertEquals(texts.get(found.versionNo() - 1), found.markdown()));
+                        repository.findLatestBySectionId("s1")
+                                .ifPresent(found -> assertEquals(texts.get(found.versionNo() - 1), found.markdown()));
+                    }
+                    return null;
+                }));
+            }
+            for (int round = 0; round < 500; round++) {
+                for (int i = 0; i < texts.size(); i++) {
+                    repository.save(version("s1", i + 1, texts.get(i)));
+                }
+                // Keeping only the last version rewrites it as a keyframe, so its base goes away mid-read
+                repository.deleteBySectionId("s1", Set.of(id("s1", texts.size())));
+                repository.deleteBySectionId("s1", Set.of());
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static InMemorySectionVersionRepository repository(int keyframeInterval, int cacheSize) {
+        return new InMemorySectionVersionRepository(new SectionHistoryProperties(keyframeInterval, cacheSize),
+                ResumeTestFixtures.markdownStorageProperties());
+    }
+
+    /**
+     * A section of about 8 KB where each edit rewrites one line.
+     */
+    private static List<String> edits(int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lines.add("- Achievement " + i + ": delivered a project on time\n");
+        }
+        List<String> texts = new ArrayList<>();
+        for (int edit = 0; edit < count; edit++) {
+            int line = (edit * 37) % lines.size();
+            lines.set(line, "- Achievement " + line + ": revised in edit " + edit + "\n");
+            texts.add(String.join("", lines));
+        }
+        return texts;
+    }
+
+    private static SectionVersion version(String sectionId, int versionNo, String markdown) {
+        return new SectionVersion(id(sectionId, versionNo), sectionId, versionNo, markdown, NOW.plusSeconds(versionNo));
+    }
+
+    private static String id(String sectionId, int versionNo) {
+        return sectionId + "-v" + versionNo;
+    }
+}
@@ -0,0 +1,64 @@
+package com.reynolds.open_resume_platform.resumes.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarkdownDeltaTest {
+
+    @Test
+    void apply_rebuildsTargetForTypicalEdits() {
+        String base = "# Profile\n\nSenior engineer.\n\n## Skills\n\n- Java\n- Spring\n";
+        List<String> targets = List.of(
+                base,
+                "",
+                base + "- Kotlin\n",
+                "# Summary\n\nSenior engineer.\n\n## Skills\n\n- Java\n- Spring\n",
+                "## Skills\n\n- Java\n- Spring\n\n# Profile\n\nSenior engineer.\n",
+                "Completely different text without newline"
+        );
+        for (String target : targets) {
+            assertEquals(target, MarkdownDelta.between(base, target).apply(base));
+            assertEquals(base, MarkdownDelta.between(target, base).apply(target));
+        }
+    }
+
+    @Test
+    void apply_rebuildsTargetForRandomLineEdits() {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lines.add("Line " + i + " with some resume content\n");
+        }
+        String base = String.join("", lines);
+        for (int round = 0; round < 200; round++) {
+            List<String> edited = new ArrayList<>(lines);
+            for (int edit = 0; edit < 5; edit++) {
+                int at = random.nextInt(edited.size());
+                switch (random.nextInt(3)) {
+                    case 0 -> edited.remove(at);
+                    case 1 -> edited.add(at, "Inserted " + random.nextInt() + "\n");
+                    default -> edited.set(at, edited.get(at).replace("some", "other"));
+                }
+            }
+            String target = String.join("", edited);
+            assertEquals(target, MarkdownDelta.between(base, target).apply(base));
+        }
+    }
+
+    @Test
+    void encodedSize_followsTheEditNotTheText() {
+        String base = "Intro paragraph that stays the same.\n".repeat(1_000);
+        String target = base.substring(0, 10_000) + "A new sentence.\n" + base.substring(20_000) + "Closing line.\n";
+
+        MarkdownDelta delta = MarkdownDelta.between(base, target);
+
+        assertEquals(target, delta.apply(base));
+        assertTrue(delta.encodedSize() < 500, "encoded size " + delta.encodedSize());
+    }
+}
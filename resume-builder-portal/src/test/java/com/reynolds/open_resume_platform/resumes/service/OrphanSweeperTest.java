@@ -0,0 +1,200 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.documents.repository.InMemoryGeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.documents.service.DocumentRetentionProperties;
+import com.reynolds.open_resume_platform.documents.service.DocumentRetentionSweeper;
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
+import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
+import com.reynolds.open_resume_platform.resumes.command.CreateResumeVersionCommand;
+import com.reynolds.open_resume_platform.resumes.command.CreateSectionCommand;
+import com.reynolds.open_resume_platform.resumes.domain.Resume;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrphanSweeperTest {
+
+    private ResumeService resumeService;
+    private SectionService sectionService;
+    private ResumeVersionService versionService;
+    private ResumeRepository resumeRepository;
+    private SectionRepository sectionRepository;
+    private SectionVersionRepository sectionVersionRepository;
+    private ResumeVersionRepository versionRepository;
+    private GeneratedDocumentRepository documentRepository;
+    private ResumeDeletionService deletionService;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        resumeRepository = new InMemoryResumeRepository();
+        sectionRepository = new InMemorySectionRepository();
+        sectionVersionRepository = ResumeTestFixtures.sectionVersionRepository();
+        versionRepository = ResumeTestFixtures.resumeVersionRepository();
+        documentRepository = new InMemoryGeneratedDocumentRepository();
+        ResumeMarkdownAssembler markdownAssembler = new ResumeMarkdownAssembler(resumeRepository, sectionRepository);
+        resumeService = new ResumeServiceImpl(resumeRepository, markdownAssembler);
+        VersionNumberAllocator allocator = new VersionNumberAllocator(versionRepository, sectionVersionRepository);
+        ResumeLocks resumeLocks = new ResumeLocks();
+        sectionService = new SectionServiceImpl(resumeRepository, sectionRepository, sectionVersionRepository, versionRepository,
+                allocator, resumeLocks, markdownAssembler);
+        ResumeVersionManifests manifests = new ResumeVersionManifests(sectionRepository, sectionVersionRepository,
+                resumeLocks, ResumeTestFixtures.resumeVersionProperties());
+        versionService = new ResumeVersionService(resumeRepository, versionRepository, markdownAssembler, allocator, manifests);
+        DocumentRetentionSweeper retentionSweeper = new DocumentRetentionSweeper(documentRepository,
+                new DocumentRetentionProperties(10, Duration.ofDays(30), DataSize.ofMegabytes(1), Duration.ofMinutes(1), 100),
+                new SimpleMeterRegistry());
+        deletionService = new ResumeDeletionService(resumeRepository, sectionRepository, sectionVersionRepository,
+                versionRepository, documentRepository, retentionSweeper, resumeLocks, allocator, markdownAssembler, manifests);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void sweep_reclaimsWhatWasWrittenForAResumeAfterItWasDeleted() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        deletionService.delete(resume.id());
+        Instant now = Instant.now();
+        sectionRepository.save(new ResumeSection("s1", resume.id(), "Profile", "Text", 1, now, now));
+        sectionVersionRepository.save(new SectionVersion("sv1", "s1", 1, "Text", now));
+        versionRepository.save(new ResumeVersion("v1", resume.id(), 1, null, "# Snapshot", "t1", now));
+        documentRepository.save(new GeneratedDocument("d1", resume.id(), "v1", "t1", now), new byte[]{1, 2, 3});
+
+        long released = sweeper(Duration.ofSeconds(1), Duration.ofMinutes(10)).sweepOnce();
+
+        assertTrue(released >= 3);
+        assertTrue(sectionRepository.findAll().isEmpty());
+        assertTrue(sectionVersionRepository.findSectionIds().isEmpty());
+        assertTrue(versionRepository.findResumeIds().isEmpty());
+        assertTrue(documentRepository.findAll().isEmpty());
+        assertEquals(released, meterRegistry.get("portal.orphans.reclaimed.bytes").counter().count(), 0.0);
+    }
+
+    @Test
+    void sweep_keepsWatchingADeletedResumeUntilTheLateWriteWindowHasPassed() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        deletionService.delete(resume.id());
+        OrphanSweeper sweeper = sweeper(Duration.ofSeconds(1), Duration.ofMinutes(10));
+        assertEquals(0, sweeper.sweepOnce());
+
+        documentRepository.save(new GeneratedDocument("d1", resume.id(), null, "t1", Instant.now()), new byte[]{1});
+
+        assertTrue(sweeper.sweepOnce() > 0);
+        assertTrue(documentRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void sweep_findsDataWrittenAfterTheLateWriteWindowOnTheNextDiscoveryPass() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        deletionService.delete(resume.id());
+        OrphanSweeper sweeper = sweeper(Duration.ofSeconds(1), Duration.ZERO);
+        sweeper.sweepOnce();
+
+        documentRepository.save(new GeneratedDocument("d1", resume.id(), null, "t1", Instant.now()), new byte[]{1});
+
+        assertTrue(sweeper.sweepOnce() > 0);
+        assertTrue(documentRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void sweep_discoversOrphansThatNoDeleteInThisProcessHandedOver() {
+        // As left by a delete that a restart cut short: the resume is gone but nothing else was reclaimed
+        Instant now = Instant.now();
+        sectionRepository.save(new ResumeSection("s1", "gone", "Profile", "Text", 1, now, now));
+        sectionVersionRepository.save(new SectionVersion("sv1", "s1", 1, "Text", now));
+        sectionVersionRepository.save(new SectionVersion("sv2", "s2", 1, "Deleted section", now));
+        versionRepository.save(new ResumeVersion("v1", "gone", 1, null, "# Snapshot", "t1", now));
+        documentRepository.save(new GeneratedDocument("d1", "gone-too", null, "t1", now), new byte[]{1, 2, 3});
+
+        long released = sweeper(Duration.ofSeconds(1), Duration.ofMinutes(10)).sweepOnce();
+
+        assertTrue(released > 0);
+        assertTrue(sectionRepository.findAll().isEmpty());
+        assertTrue(sectionVersionRepository.findSectionIds().isEmpty());
+        assertTrue(versionRepository.findResumeIds().isEmpty());
+        assertTrue(documentRepository.findAll().isEmpty());
+        assertEquals(3, meterRegistry.get("portal.orphans.reclaimed").counter().count(), 0.0);
+    }
+
+    @Test
+    void sweep_carriesADiscoveryPassOverToTheNextSweep() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 3; i++) {
+            sectionVersionRepository.save(new SectionVersion("sv" + i, "s" + i, 1, "Deleted section " + i, now));
+        }
+        OrphanSweeper sweeper = sweeper(Duration.ZERO, Duration.ofMinutes(10));
+
+        // One id per sweep: three sections, no resumes, then the three histories
+        for (int i = 0; i < 3; i++) {
+            sweeper.sweepOnce();
+        }
+        assertEquals(3, sectionVersionRepository.findSectionIds().size());
+        for (int i = 0; i < 3; i++) {
+            sweeper.sweepOnce();
+        }
+
+        assertTrue(sectionVersionRepository.findSectionIds().isEmpty());
+        assertEquals(3, meterRegistry.get("portal.orphans.reclaimed").counter().count(), 0.0);
+    }
+
+    @Test
+    void sweep_keepsLiveDataAndPinnedVersionsOfLiveResumes() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        ResumeSection pinned = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Text", null));
+        ResumeSection live = sectionService.create(resume.id(), new CreateSectionCommand("Skills", "- Java", null));
+        ResumeVersion snapshot = versionService.create(resume.id(), new CreateResumeVersionCommand(null, null, null)).orElseThrow();
+        sectionService.delete(pinned.id());
+        Resume other = resumeService.create(new CreateResumeCommand("Other", null, null, "t1", "# Other"));
+        deletionService.delete(other.id());
+
+        assertEquals(0, sweeper(Duration.ofSeconds(1), Duration.ofMinutes(10)).sweepOnce());
+
+        assertEquals(1, sectionVersionRepository.findBySectionIdOrderByVersionNoDesc(pinned.id()).size());
+        assertEquals(1, sectionVersionRepository.findBySectionIdOrderByVersionNoDesc(live.id()).size());
+        assertEquals("## Profile\n\nText\n\n## Skills\n\n- Java", versionService.getById(snapshot.id()).orElseThrow().markdown());
+    }
+
+    @Test
+    void sweep_leavesOrphansBeyondItsTimeSliceForTheNextSweep() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 3; i++) {
+            Resume resume = resumeService.create(new CreateResumeCommand("Resume " + i, null, null, "t1", "# " + i));
+            deletionService.delete(resume.id());
+            documentRepository.save(new GeneratedDocument("d" + i, resume.id(), null, "t1", now), new byte[]{(byte) i});
+        }
+        OrphanSweeper sweeper = sweeper(Duration.ZERO, Duration.ofMinutes(10));
+
+        int sweeps = 0;
+        while (!documentRepository.findAll().isEmpty()) {
+            sweeper.sweepOnce();
+            sweeps++;
+            assertTrue(sweeps <= 3 + 1, "orphans were not reclaimed");
+        }
+
+        assertEquals(3, meterRegistry.get("portal.orphans.reclaimed").counter().count(), 0.0);
+    }
+
+    private OrphanSweeper sweeper(Duration timeSlice, Duration lateWriteWindow) {
+        return new OrphanSweeper(resumeRepository, sectionRepository, sectionVersionRepository, versionRepository,
+                documentRepository, deletionService,
+                new OrphanSweepProperties(Duration.ofSeconds(10), timeSlice, lateWriteWindow), meterRegistry);
+    }
+}
@@ -0,0 +1,128 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import com.reynolds.open_resume_platform.documents.domain.GeneratedDocument;
+import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.documents.repository.InMemoryGeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.documents.service.DocumentRetentionProperties;
+import com.reynolds.open_resume_platform.documents.service.DocumentRetentionSweeper;
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
+import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
+import com.reynolds.open_resume_platform.resumes.command.CreateResumeVersionCommand;
+import com.reynolds.open_resume_platform.resumes.command.CreateSectionCommand;
+import com.reynolds.open_resume_platform.resumes.command.UpdateSectionCommand;
+import com.reynolds.open_resume_platform.resumes.domain.Resume;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumeDeletionServiceTest {
+
+    private ResumeService resumeService;
+    private SectionService sectionService;
+    private ResumeVersionService versionService;
+    private ResumeRepository resumeRepository;
+    private SectionRepository sectionRepository;
+    private SectionVersionRepository sectionVersionRepository;
+    private ResumeVersionRepository versionRepository;
+    private GeneratedDocumentRepository documentRepository;
+    private ResumeMarkdownAssembler markdownAssembler;
+    private VersionNumberAllocator allocator;
+    private ResumeDeletionService deletionService;
+
+    @BeforeEach
+    void setUp() {
+        resumeRepository = new InMemoryResumeRepository();
+        sectionRepository = new InMemorySectionRepository();
+        sectionVersionRepository = ResumeTestFixtures.sectionVersionRepository();
+        versionRepository = ResumeTestFixtures.resumeVersionRepository();
+        documentRepository = new InMemoryGeneratedDocumentRepository();
+        markdownAssembler = new ResumeMarkdownAssembler(resumeRepository, sectionRepository);
+        resumeService = new ResumeServiceImpl(resumeRepository, markdownAssembler);
+        allocator = new VersionNumberAllocator(versionRepository, sectionVersionRepository);
+        ResumeLocks resumeLocks = new ResumeLocks();
+        sectionService = new SectionServiceImpl(resumeRepository, sectionRepository, sectionVersionRepository, versionRepository,
+                allocator, resumeLocks, markdownAssembler);
+        ResumeVersionManifests manifests = new ResumeVersionManifests(sectionRepository, sectionVersionRepository,
+                resumeLocks, ResumeTestFixtures.resumeVersionProperties());
+        versionService = new ResumeVersionService(resumeRepository, versionRepository, markdownAssembler, allocator, manifests);
+        DocumentRetentionSweeper retentionSweeper = new DocumentRetentionSweeper(documentRepository,
+                new DocumentRetentionProperties(10, Duration.ofDays(30), DataSize.ofMegabytes(1), Duration.ofMinutes(1), 100),
+                new SimpleMeterRegistry());
+        deletionService = new ResumeDeletionService(resumeRepository, sectionRepository, sectionVersionRepository,
+                versionRepository, documentRepository, retentionSweeper, resumeLocks, allocator, markdownAssembler, manifests);
+    }
+
+    @Test
+    void delete_removesTheResumeAndEverythingStoredForIt() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        ResumeSection section = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Text", null));
+        sectionService.update(section.id(), new UpdateSectionCommand("Profile", "Edited"));
+        versionService.create(resume.id(), new CreateResumeVersionCommand(null, null, null));
+        versionService.create(resume.id(), new CreateResumeVersionCommand(null, "# Explicit", null));
+        documentRepository.save(new GeneratedDocument("d1", resume.id(), null, "t1", Instant.now()), new byte[]{1, 2, 3});
+        markdownAssembler.assembleMarkdown(resume.id());
+
+        assertTrue(deletionService.delete(resume.id()));
+
+        assertTrue(resumeRepository.findById(resume.id()).isEmpty());
+        assertTrue(sectionRepository.findById(section.id()).isEmpty());
+        assertTrue(sectionVersionRepository.findSectionIds().isEmpty());
+        assertTrue(versionRepository.findResumeIds().isEmpty());
+        assertTrue(documentRepository.findAll().isEmpty());
+        assertEquals(0, documentRepository.stats().storedBytes());
+        assertEquals(0, markdownAssembler.cachedCount());
+        assertEquals(0, allocator.counterCount());
+    }
+
+    @Test
+    void delete_removesHistoryThatSnapshotsKeptForSectionsDeletedEarlier() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        ResumeSection section = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Text", null));
+        versionService.create(resume.id(), new CreateResumeVersionCommand(null, null, null));
+        sectionService.delete(section.id());
+        assertEquals(1, sectionVersionRepository.findBySectionIdOrderByVersionNoDesc(section.id()).size());
+
+        deletionService.delete(resume.id());
+
+        assertTrue(sectionVersionRepository.findSectionIds().isEmpty());
+        assertEquals(0, allocator.counterCount());
+    }
+
+    @Test
+    void delete_leavesOtherResumesAlone() {
+        Resume deleted = resumeService.create(new CreateResumeCommand("Deleted", null, null, "t1", "# Gone"));
+        Resume kept = resumeService.create(new CreateResumeCommand("Kept", null, null, "t1", "# Kept"));
+        ResumeSection section = sectionService.create(kept.id(), new CreateSectionCommand("Profile", "Text", null));
+        versionService.create(kept.id(), new CreateResumeVersionCommand(null, null, null));
+        documentRepository.save(new GeneratedDocument("d1", deleted.id(), null, "t1", Instant.now()), new byte[]{1, 2, 3});
+        documentRepository.save(new GeneratedDocument("d2", kept.id(), null, "t1", Instant.now()), new byte[]{1, 2, 3});
+
+        deletionService.delete(deleted.id());
+
+        assertEquals("## Profile\n\nText", versionService.listByResumeId(kept.id()).getFirst().markdown());
+        assertEquals(1, sectionVersionRepository.findBySectionIdOrderByVersionNoDesc(section.id()).size());
+        assertEquals(1, documentRepository.findByResumeId(kept.id()).size());
+        assertEquals(3, documentRepository.stats().storedBytes());
+    }
+
+    @Test
+    void delete_whenResumeNotFound_returnsFalse() {
+        assertFalse(deletionService.delete("missing"));
+        assertFalse(deletionService.delete(" "));
+    }
+}
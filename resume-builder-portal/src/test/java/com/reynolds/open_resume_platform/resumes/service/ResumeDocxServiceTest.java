@@ -3,17 +3,18 @@ package com.reynolds.open_resume_platform.resumes.service;
 import com.reynolds.open_resume_platform.documents.dto.GenerateDocxResponse;
 import com.reynolds.open_resume_platform.documents.repository.GeneratedDocumentRepository;
 import com.reynolds.open_resume_platform.documents.repository.InMemoryGeneratedDocumentRepository;
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
 import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
 import com.reynolds.open_resume_platform.resumes.command.CreateResumeVersionCommand;
 import com.reynolds.open_resume_platform.resumes.domain.Resume;
 import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
 import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
 import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
-import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeVersionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
 import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
 import com.reynolds.open_resume_platform.service.DocumentGeneratorGatewayService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -42,12 +43,15 @@ class ResumeDocxServiceTest {
     @BeforeEach
     void setUp() {
         ResumeRepository resumeRepository = new InMemoryResumeRepository();
-        ResumeVersionRepository versionRepository = new InMemoryResumeVersionRepository();
+        ResumeVersionRepository versionRepository = ResumeTestFixtures.resumeVersionRepository();
         sectionRepository = new InMemorySectionRepository();
         ResumeMarkdownAssembler markdownAssembler = new ResumeMarkdownAssembler(resumeRepository, sectionRepository);
         generatedDocumentRepository = new InMemoryGeneratedDocumentRepository();
-        resumeService = new ResumeServiceImpl(resumeRepository);
-        resumeVersionService = new ResumeVersionService(resumeRepository, versionRepository, markdownAssembler);
+        resumeService = new ResumeServiceImpl(resumeRepository, markdownAssembler);
+        SectionVersionRepository sectionVersionRepository = ResumeTestFixtures.sectionVersionRepository();
+        resumeVersionService = new ResumeVersionService(resumeRepository, versionRepository, markdownAssembler,
+                new VersionNumberAllocator(versionRepository, sectionVersionRepository),
+                new ResumeVersionManifests(sectionRepository, sectionVersionRepository, new ResumeLocks(), ResumeTestFixtures.resumeVersionProperties()));
         documentGeneratorGatewayService = mock(DocumentGeneratorGatewayService.class);
         when(documentGeneratorGatewayService.createCv(eq("t1"), eq("# Hello\n\nContent"))).thenReturn(new byte[]{1, 2, 3});
         when(documentGeneratorGatewayService.createCv(eq("t-ver"), eq("# Version content"))).thenReturn(new byte[]{4, 5, 6});
@@ -69,7 +73,7 @@ class ResumeDocxServiceTest {
         assertTrue(response.downloadUrl().contains(resume.id()));
         assertTrue(response.downloadUrl().contains(response.documentId()));
         assertTrue(response.downloadUrl().endsWith("/download"));
-        assertArrayEquals(new byte[]{1, 2, 3}, generatedDocumentRepository.getContent(response.documentId()).orElseThrow());
+        assertArrayEquals(new byte[]{1, 2, 3}, generatedDocumentRepository.getContent(response.documentId()).orElseThrow().toByteArray());
     }
 
     @Test
@@ -95,7 +99,7 @@ class ResumeDocxServiceTest {
         assertTrue(result.isPresent());
         assertTrue(result.get().downloadUrl().contains(resume.id()));
         verify(documentGeneratorGatewayService).createCv(eq("t-ver"), eq("# Version content"));
-        assertArrayEquals(new byte[]{4, 5, 6}, generatedDocumentRepository.getContent(result.get().documentId()).orElseThrow());
+        assertArrayEquals(new byte[]{4, 5, 6}, generatedDocumentRepository.getContent(result.get().documentId()).orElseThrow().toByteArray());
     }
 
     @Test
@@ -109,7 +113,7 @@ class ResumeDocxServiceTest {
         assertTrue(result.isPresent());
         assertNotNull(result.get().documentId());
         verify(documentGeneratorGatewayService).createCv(eq("override-t"), eq("# Hello\n\nContent"));
-        assertArrayEquals(new byte[]{7, 8, 9}, generatedDocumentRepository.getContent(result.get().documentId()).orElseThrow());
+        assertArrayEquals(new byte[]{7, 8, 9}, generatedDocumentRepository.getContent(result.get().documentId()).orElseThrow().toByteArray());
     }
 
     @Test
@@ -165,6 +169,6 @@ class ResumeDocxServiceTest {
 
         assertTrue(result.isPresent());
         verify(documentGeneratorGatewayService).createCv(eq("t1"), eq(assembled));
-        assertArrayEquals(new byte[]{10, 11}, generatedDocumentRepository.getContent(result.get().documentId()).orElseThrow());
+        assertArrayEquals(new byte[]{10, 11}, generatedDocumentRepository.getContent(result.get().documentId()).orElseThrow().toByteArray());
     }
 }
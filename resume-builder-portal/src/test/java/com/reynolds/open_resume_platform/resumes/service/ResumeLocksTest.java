@@ -0,0 +1,77 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumeLocksTest {
+
+    private final ResumeLocks locks = new ResumeLocks();
+
+    @Test
+    void withLock_serialisesWritersOnTheSameResume() throws Exception {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                executor.submit(() -> locks.withLock("r1", () -> {
+                    maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    Thread.yield();
+                    inside.decrementAndGet();
+                }));
+            }
+        }
+
+        assertEquals(1, maxInside.get());
+        assertEquals(0, locks.activeLocks());
+    }
+
+    @Test
+    void withLock_doesNotBlockOtherResumes() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> locks.withLock("r1", () -> {
+                held.countDown();
+                await(release);
+            }));
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+
+            Future<String> other = executor.submit(() -> locks.withLock("r2", () -> "done"));
+            assertEquals("done", other.get(5, TimeUnit.SECONDS));
+            release.countDown();
+        }
+        assertEquals(0, locks.activeLocks());
+    }
+
+    @Test
+    void withLock_releasesLockWhenActionThrows() {
+        Runnable failing = () -> {
+            throw new IllegalStateException("boom");
+        };
+
+        assertThrows(IllegalStateException.class, () -> locks.withLock("r1", failing));
+        assertEquals(0, locks.activeLocks());
+        assertEquals("ok", locks.withLock("r1", () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
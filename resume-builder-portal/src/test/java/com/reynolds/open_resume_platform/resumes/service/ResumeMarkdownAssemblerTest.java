@@ -0,0 +1,112 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
+import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
+import com.reynolds.open_resume_platform.resumes.command.CreateSectionCommand;
+import com.reynolds.open_resume_platform.resumes.command.UpdateResumeCommand;
+import com.reynolds.open_resume_platform.resumes.command.UpdateSectionCommand;
+import com.reynolds.open_resume_platform.resumes.domain.Resume;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResumeMarkdownAssemblerTest {
+
+    private ResumeMarkdownAssembler assembler;
+    private ResumeService resumeService;
+    private SectionService sectionService;
+
+    @BeforeEach
+    void setUp() {
+        ResumeRepository resumeRepository = new InMemoryResumeRepository();
+        SectionRepository sectionRepository = new InMemorySectionRepository();
+        SectionVersionRepository sectionVersionRepository = ResumeTestFixtures.sectionVersionRepository();
+        assembler = new ResumeMarkdownAssembler(resumeRepository, sectionRepository);
+        resumeService = new ResumeServiceImpl(resumeRepository, assembler);
+        ResumeVersionRepository resumeVersionRepository = ResumeTestFixtures.resumeVersionRepository();
+        VersionNumberAllocator allocator = new VersionNumberAllocator(resumeVersionRepository, sectionVersionRepository);
+        sectionService = new SectionServiceImpl(resumeRepository, sectionRepository, sectionVersionRepository,
+                resumeVersionRepository, allocator, new ResumeLocks(), assembler);
+    }
+
+    @Test
+    void assemble_memoisesMarkdown() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+
+        String first = assembler.assembleMarkdown(resume.id());
+
+        assertEquals("# Content", first);
+        assertEquals(1, assembler.cachedCount());
+        assertSame(first, assembler.assembleMarkdown(resume.id()));
+    }
+
+    @Test
+    void assemble_reflectsSectionWritesAfterInvalidation() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Legacy"));
+        assertEquals("# Legacy", assembler.assembleMarkdown(resume.id()));
+
+        ResumeSection profile = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Hello", null));
+        ResumeSection skills = sectionService.create(resume.id(), new CreateSectionCommand("Skills", "Java", null));
+        assertEquals("## Profile\n\nHello\n\n## Skills\n\nJava", assembler.assembleMarkdown(resume.id()));
+
+        sectionService.update(profile.id(), new UpdateSectionCommand("Profile", "Hi"));
+        assertEquals("## Profile\n\nHi\n\n## Skills\n\nJava", assembler.assembleMarkdown(resume.id()));
+
+        sectionService.reorder(resume.id(), List.of(skills.id(), profile.id()));
+        assertEquals("## Skills\n\nJava\n\n## Profile\n\nHi", assembler.assembleMarkdown(resume.id()));
+
+        sectionService.delete(skills.id());
+        sectionService.delete(profile.id());
+        assertEquals("# Legacy", assembler.assembleMarkdown(resume.id()));
+    }
+
+    @Test
+    void assemble_rerendersOnlyTheEditedSectionFragment() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Legacy"));
+        ResumeSection profile = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Hello", null));
+        ResumeSection skills = sectionService.create(resume.id(), new CreateSectionCommand("Skills", "Java", null));
+        sectionService.create(resume.id(), new CreateSectionCommand("Education", "BSc", null));
+        assembler.assembleMarkdown(resume.id());
+        long rendered = assembler.fragmentsRendered();
+
+        sectionService.update(skills.id(), new UpdateSectionCommand("Skills", "Java, Go"));
+
+        assertEquals("## Profile\n\nHello\n\n## Skills\n\nJava, Go\n\n## Education\n\nBSc",
+                assembler.assembleMarkdown(resume.id()));
+        assertEquals(rendered + 1, assembler.fragmentsRendered());
+
+        sectionService.reorder(resume.id(), List.of(skills.id(), profile.id()));
+
+        assertEquals("## Skills\n\nJava, Go\n\n## Profile\n\nHello\n\n## Education\n\nBSc",
+                assembler.assembleMarkdown(resume.id()));
+        assertEquals(rendered + 1, assembler.fragmentsRendered());
+    }
+
+    @Test
+    void assemble_reflectsResumeMarkdownUpdate() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Before"));
+        assembler.assembleMarkdown(resume.id());
+
+        resumeService.update(resume.id(), new UpdateResumeCommand("My Resume", null, null, "t1", "# After"));
+
+        assertEquals("# After", assembler.assembleMarkdown(resume.id()));
+    }
+
+    @Test
+    void assemble_unknownResumeIsEmptyAndNotCached() {
+        assertEquals("", assembler.assembleMarkdown("missing"));
+        assertEquals("", assembler.assembleMarkdown(null));
+        assertEquals(0, assembler.cachedCount());
+    }
+}
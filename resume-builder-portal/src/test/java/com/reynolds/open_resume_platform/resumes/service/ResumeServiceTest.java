@@ -4,6 +4,7 @@ import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
 import com.reynolds.open_resume_platform.resumes.command.UpdateResumeCommand;
 import com.reynolds.open_resume_platform.resumes.domain.Resume;
 import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,7 +25,7 @@ class ResumeServiceTest {
     @BeforeEach
     void setUp() {
         ResumeRepository repository = new InMemoryResumeRepository();
-        service = new ResumeServiceImpl(repository);
+        service = new ResumeServiceImpl(repository, new ResumeMarkdownAssembler(repository, new InMemorySectionRepository()));
     }
 
     @Test
@@ -0,0 +1,136 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
+import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
+import com.reynolds.open_resume_platform.resumes.command.CreateResumeVersionCommand;
+import com.reynolds.open_resume_platform.resumes.command.CreateSectionCommand;
+import com.reynolds.open_resume_platform.resumes.command.UpdateSectionCommand;
+import com.reynolds.open_resume_platform.resumes.domain.Resume;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionRef;
+import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumeVersionManifestsTest {
+
+    private ResumeService resumeService;
+    private SectionService sectionService;
+    private ResumeVersionService versionService;
+    private ResumeVersionRepository versionRepository;
+    private SectionRepository sectionRepository;
+    private SectionVersionRepository sectionVersionRepository;
+    private ResumeMarkdownAssembler markdownAssembler;
+    private ResumeVersionManifests manifests;
+
+    @BeforeEach
+    void setUp() {
+        ResumeRepository resumeRepository = new InMemoryResumeRepository();
+        versionRepository = ResumeTestFixtures.resumeVersionRepository();
+        sectionRepository = new InMemorySectionRepository();
+        sectionVersionRepository = ResumeTestFixtures.sectionVersionRepository();
+        markdownAssembler = new ResumeMarkdownAssembler(resumeRepository, sectionRepository);
+        resumeService = new ResumeServiceImpl(resumeRepository, markdownAssembler);
+        VersionNumberAllocator allocator = new VersionNumberAllocator(versionRepository, sectionVersionRepository);
+        ResumeLocks resumeLocks = new ResumeLocks();
+        sectionService = new SectionServiceImpl(resumeRepository, sectionRepository, sectionVersionRepository, versionRepository,
+                allocator, resumeLocks, markdownAssembler);
+        manifests = new ResumeVersionManifests(sectionRepository, sectionVersionRepository, resumeLocks, new ResumeVersionProperties(2));
+        versionService = new ResumeVersionService(resumeRepository, versionRepository, markdownAssembler, allocator, manifests);
+    }
+
+    @Test
+    void create_storesSectionSnapshotAsManifestAndRebuildsSameMarkdown() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        ResumeSection profile = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Profile text", null));
+        ResumeSection skills = sectionService.create(resume.id(), new CreateSectionCommand("Skills", "- Java", null));
+        String expected = markdownAssembler.assembleMarkdown(resume.id());
+
+        ResumeVersion created = versionService.create(resume.id(), new CreateResumeVersionCommand(null, null, null)).orElseThrow();
+
+        assertEquals(expected, created.markdown());
+        ResumeVersion stored = versionRepository.findById(created.id()).orElseThrow();
+        assertNull(stored.markdown());
+        assertEquals(List.of(profile.id(), skills.id()), stored.sections().stream().map(SectionRef::sectionId).toList());
+        assertEquals(expected, versionService.getById(created.id()).orElseThrow().markdown());
+    }
+
+    @Test
+    void manifestSnapshot_isUnaffectedByLaterSectionEditsAndDeletes() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        ResumeSection profile = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Before", null));
+        ResumeSection skills = sectionService.create(resume.id(), new CreateSectionCommand("Skills", "- Java", null));
+        String before = markdownAssembler.assembleMarkdown(resume.id());
+        ResumeVersion v1 = versionService.create(resume.id(), new CreateResumeVersionCommand(null, null, null)).orElseThrow();
+
+        sectionService.update(profile.id(), new UpdateSectionCommand("Summary", "After"));
+        sectionService.delete(skills.id());
+        ResumeVersion v2 = versionService.create(resume.id(), new CreateResumeVersionCommand(null, null, null)).orElseThrow();
+
+        assertEquals(before, versionService.getById(v1.id()).orElseThrow().markdown());
+        assertEquals("## Summary\n\nAfter", versionService.getById(v2.id()).orElseThrow().markdown());
+        assertEquals(List.of(before, "## Summary\n\nAfter"),
+                versionService.listByResumeId(resume.id()).stream().map(ResumeVersion::markdown).toList());
+    }
+
+    @Test
+    void deletingASection_keepsOnlyTheSectionVersionsThatSnapshotsShow() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        ResumeSection profile = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "v1", null));
+        sectionService.update(profile.id(), new UpdateSectionCommand("Profile", "v2"));
+        ResumeVersion snapshot = versionService.create(resume.id(), new CreateResumeVersionCommand(null, null, null)).orElseThrow();
+        sectionService.update(profile.id(), new UpdateSectionCommand("Profile", "v3"));
+
+        sectionService.delete(profile.id());
+
+        assertEquals(List.of("v2"), sectionVersionRepository.findBySectionIdOrderByVersionNoDesc(profile.id()).stream()
+                .map(SectionVersion::markdown).toList());
+        assertEquals("## Profile\n\nv2", versionService.getById(snapshot.id()).orElseThrow().markdown());
+    }
+
+    @Test
+    void create_storesMarkdownWhenGivenExplicitlyOrWhenSectionsHaveNoHistory() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        ResumeVersion plain = versionService.create(resume.id(), new CreateResumeVersionCommand(null, null, null)).orElseThrow();
+        sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Text", null));
+        ResumeVersion explicit = versionService.create(resume.id(), new CreateResumeVersionCommand(null, "# Explicit", null)).orElseThrow();
+        Instant now = Instant.now();
+        sectionRepository.save(new ResumeSection("legacy", resume.id(), "Legacy", "No history", 2, now, now));
+        ResumeVersion legacy = versionService.create(resume.id(), new CreateResumeVersionCommand(null, null, null)).orElseThrow();
+
+        assertEquals("# Content", versionRepository.findById(plain.id()).orElseThrow().markdown());
+        assertEquals("# Explicit", versionRepository.findById(explicit.id()).orElseThrow().markdown());
+        ResumeVersion storedLegacy = versionRepository.findById(legacy.id()).orElseThrow();
+        assertFalse(storedLegacy.isManifest());
+        assertEquals("## Profile\n\nText\n\n## Legacy\n\nNo history", storedLegacy.markdown());
+    }
+
+    @Test
+    void materialize_memoisesRebuiltMarkdown() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Text", null));
+        ResumeVersion created = versionService.create(resume.id(), new CreateResumeVersionCommand(null, null, null)).orElseThrow();
+        long rebuilds = manifests.rebuilds();
+
+        versionService.getById(created.id());
+        versionService.getById(created.id());
+
+        assertEquals(rebuilds, manifests.rebuilds());
+        assertTrue(versionRepository.findById(created.id()).orElseThrow().isManifest());
+    }
+}
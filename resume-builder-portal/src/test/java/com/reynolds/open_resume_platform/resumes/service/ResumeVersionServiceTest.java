@@ -1,23 +1,28 @@
 package com.reynolds.open_resume_platform.resumes.service;
 
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
 import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
 import com.reynolds.open_resume_platform.resumes.command.CreateResumeVersionCommand;
 import com.reynolds.open_resume_platform.resumes.domain.Resume;
-import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
 import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
 import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
-import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeVersionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
 import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -32,11 +37,14 @@ class ResumeVersionServiceTest {
     @BeforeEach
     void setUp() {
         ResumeRepository resumeRepository = new InMemoryResumeRepository();
-        ResumeVersionRepository versionRepository = new InMemoryResumeVersionRepository();
+        ResumeVersionRepository versionRepository = ResumeTestFixtures.resumeVersionRepository();
         sectionRepository = new InMemorySectionRepository();
         ResumeMarkdownAssembler markdownAssembler = new ResumeMarkdownAssembler(resumeRepository, sectionRepository);
-        resumeService = new ResumeServiceImpl(resumeRepository);
-        versionService = new ResumeVersionService(resumeRepository, versionRepository, markdownAssembler);
+        resumeService = new ResumeServiceImpl(resumeRepository, markdownAssembler);
+        SectionVersionRepository sectionVersionRepository = ResumeTestFixtures.sectionVersionRepository();
+        versionService = new ResumeVersionService(resumeRepository, versionRepository, markdownAssembler,
+                new VersionNumberAllocator(versionRepository, sectionVersionRepository),
+                new ResumeVersionManifests(sectionRepository, sectionVersionRepository, new ResumeLocks(), ResumeTestFixtures.resumeVersionProperties()));
     }
 
     @Test
@@ -112,6 +120,30 @@ class ResumeVersionServiceTest {
         assertTrue(v2.isPresent());
         assertEquals(1, v1.get().versionNo());
         assertEquals(2, v2.get().versionNo());
+        assertEquals(2, resumeService.getById(resume.id()).orElseThrow().latestVersionNo());
+    }
+
+    @Test
+    void create_concurrentSnapshotsGetDistinctVersionNumbers() throws Exception {
+        Resume resume = resumeService.create(new CreateResumeCommand(
+                "My Resume", null, null, "t1", "# Content"
+        ));
+        int snapshots = 50;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ResumeVersion>> results = new ArrayList<>();
+            for (int i = 0; i < snapshots; i++) {
+                results.add(executor.submit(() -> versionService.create(resume.id(),
+                        new CreateResumeVersionCommand(null, null, null)).orElseThrow()));
+            }
+            Set<Integer> versionNos = new HashSet<>();
+            for (Future<ResumeVersion> result : results) {
+                versionNos.add(result.get(5, TimeUnit.SECONDS).versionNo());
+            }
+            assertEquals(snapshots, versionNos.size());
+        }
+        assertEquals(snapshots, versionService.listByResumeId(resume.id()).size());
+        assertEquals(snapshots, resumeService.getById(resume.id()).orElseThrow().latestVersionNo());
     }
 
     @Test
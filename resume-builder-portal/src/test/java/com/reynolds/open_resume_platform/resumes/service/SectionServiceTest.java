@@ -1,5 +1,6 @@
 package com.reynolds.open_resume_platform.resumes.service;
 
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
 import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
 import com.reynolds.open_resume_platform.resumes.command.CreateSectionCommand;
 import com.reynolds.open_resume_platform.resumes.command.UpdateSectionCommand;
@@ -8,17 +9,24 @@ import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
 import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
 import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
 import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
-import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionVersionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -28,14 +36,20 @@ class SectionServiceTest {
     private SectionService sectionService;
     private ResumeService resumeService;
     private SectionVersionRepository sectionVersionRepository;
+    private ResumeMarkdownAssembler markdownAssembler;
 
     @BeforeEach
     void setUp() {
         ResumeRepository resumeRepository = new InMemoryResumeRepository();
         SectionRepository sectionRepository = new InMemorySectionRepository();
-        sectionVersionRepository = new InMemorySectionVersionRepository();
-        resumeService = new ResumeServiceImpl(resumeRepository);
-        sectionService = new SectionServiceImpl(resumeRepository, sectionRepository, sectionVersionRepository);
+        sectionVersionRepository = ResumeTestFixtures.sectionVersionRepository();
+        markdownAssembler = new ResumeMarkdownAssembler(resumeRepository, sectionRepository);
+        resumeService = new ResumeServiceImpl(resumeRepository, markdownAssembler);
+        ResumeVersionRepository resumeVersionRepository = ResumeTestFixtures.resumeVersionRepository();
+        VersionNumberAllocator allocator = new VersionNumberAllocator(resumeVersionRepository, sectionVersionRepository);
+        ResumeLocks resumeLocks = new ResumeLocks();
+        sectionService = new SectionServiceImpl(resumeRepository, sectionRepository, sectionVersionRepository, resumeVersionRepository,
+                allocator, resumeLocks, markdownAssembler);
     }
 
     @Test
@@ -110,6 +124,53 @@ class SectionServiceTest {
         assertEquals("Original", history.get(1).markdown());
     }
 
+    @Test
+    void update_withUnchangedContent_returnsExistingSectionWithoutNewVersion() {
+        Resume resume = resumeService.create(new CreateResumeCommand(
+                "My Resume", null, null, "t1", "# Content"
+        ));
+        ResumeSection section = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Text", null));
+
+        ResumeSection updated = sectionService.update(section.id(), new UpdateSectionCommand(" Profile ", "Text\n")).orElseThrow();
+
+        assertEquals(section.updatedAt(), updated.updatedAt());
+        assertEquals(section.contentDigest(), updated.contentDigest());
+        assertEquals(1, sectionVersionRepository.findBySectionIdOrderByVersionNoDesc(section.id()).size());
+    }
+
+    @Test
+    void contentDigest_changesWithTitleOrMarkdownButNotOrder() {
+        Resume resume = resumeService.create(new CreateResumeCommand(
+                "My Resume", null, null, "t1", "# Content"
+        ));
+        ResumeSection a = sectionService.create(resume.id(), new CreateSectionCommand("A", "a", 1));
+        ResumeSection b = sectionService.create(resume.id(), new CreateSectionCommand("B", "b", 2));
+
+        sectionService.reorder(resume.id(), List.of(b.id(), a.id()));
+        assertEquals(a.contentDigest(), sectionService.listByResumeId(resume.id()).get(1).contentDigest());
+        ResumeSection retitled = sectionService.update(a.id(), new UpdateSectionCommand("A2", "a")).orElseThrow();
+
+        assertNotEquals(a.contentDigest(), retitled.contentDigest());
+        assertNotEquals(a.contentDigest(), b.contentDigest());
+        assertEquals(ResumeSection.digestOf("A2", "a"), retitled.contentDigest());
+    }
+
+    @Test
+    void update_withExpectedDigest_appliesOnlyWhileSectionIsUnchanged() {
+        Resume resume = resumeService.create(new CreateResumeCommand(
+                "My Resume", null, null, "t1", "# Content"
+        ));
+        ResumeSection section = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Original", null));
+        ResumeSection first = sectionService.update(section.id(), new UpdateSectionCommand("Profile", "First"),
+                section.contentDigest()).orElseThrow();
+
+        assertThrows(SectionContentChangedException.class, () -> sectionService.update(section.id(),
+                new UpdateSectionCommand("Profile", "Stale write"), section.contentDigest()));
+        assertEquals("First", sectionService.listByResumeId(resume.id()).getFirst().markdown());
+        assertEquals("Second", sectionService.update(section.id(), new UpdateSectionCommand("Profile", "Second"),
+                first.contentDigest()).orElseThrow().markdown());
+    }
+
     @Test
     void update_whenSectionNotFound_returnsEmpty() {
         assertTrue(sectionService.update("non-existent", new UpdateSectionCommand("Title", "Body")).isEmpty());
@@ -139,6 +200,20 @@ class SectionServiceTest {
         assertTrue(sectionService.listByResumeId(resume.id()).isEmpty());
     }
 
+    @Test
+    void delete_dropsSectionHistory() {
+        Resume resume = resumeService.create(new CreateResumeCommand(
+                "My Resume", null, null, "t1", "# Content"
+        ));
+        ResumeSection section = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Text", null));
+        sectionService.update(section.id(), new UpdateSectionCommand("Profile", "Edited"));
+
+        sectionService.delete(section.id());
+
+        assertTrue(sectionVersionRepository.findBySectionIdOrderByVersionNoDesc(section.id()).isEmpty());
+        assertTrue(sectionVersionRepository.findSectionIds().isEmpty());
+    }
+
     @Test
     void delete_whenSectionNotFound_returnsFalse() {
         assertFalse(sectionService.delete("non-existent"));
@@ -184,4 +259,41 @@ class SectionServiceTest {
         assertEquals(s1.id(), list.get(1).id());
         assertEquals(2, list.get(1).order());
     }
+
+    @Test
+    void reorder_numbersListedSectionsFirstThenUnlistedAndIgnoresForeignIds() {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        Resume other = resumeService.create(new CreateResumeCommand("Other Resume", null, null, "t1", "# Other"));
+        ResumeSection s1 = sectionService.create(resume.id(), new CreateSectionCommand("A", "a", null));
+        ResumeSection s2 = sectionService.create(resume.id(), new CreateSectionCommand("B", "b", null));
+        ResumeSection s3 = sectionService.create(resume.id(), new CreateSectionCommand("C", "c", null));
+        ResumeSection foreign = sectionService.create(other.id(), new CreateSectionCommand("X", "x", null));
+
+        sectionService.reorder(resume.id(), List.of(s3.id(), foreign.id(), s3.id(), "missing"));
+
+        List<ResumeSection> list = sectionService.listByResumeId(resume.id());
+        assertEquals(List.of(s3.id(), s1.id(), s2.id()), list.stream().map(ResumeSection::id).toList());
+        assertEquals(List.of(1, 2, 3), list.stream().map(ResumeSection::order).toList());
+        assertEquals(1, sectionService.listByResumeId(other.id()).getFirst().order());
+    }
+
+    @Test
+    void create_concurrentCreatesWithoutOrderGetDistinctOrders() throws Exception {
+        Resume resume = resumeService.create(new CreateResumeCommand("My Resume", null, null, "t1", "# Content"));
+        int sections = 50;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ResumeSection>> results = new ArrayList<>();
+            for (int i = 0; i < sections; i++) {
+                String title = "S" + i;
+                results.add(executor.submit(() -> sectionService.create(resume.id(), new CreateSectionCommand(title, "", null))));
+            }
+            for (Future<ResumeSection> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        List<Integer> orders = sectionService.listByResumeId(resume.id()).stream().map(ResumeSection::order).toList();
+        assertEquals(IntStream.rangeClosed(1, sections).boxed().toList(), orders);
+    }
 }
@@ -1,5 +1,6 @@
 package com.reynolds.open_resume_platform.resumes.service;
 
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
 import com.reynolds.open_resume_platform.resumes.command.CreateResumeCommand;
 import com.reynolds.open_resume_platform.resumes.command.CreateSectionCommand;
 import com.reynolds.open_resume_platform.resumes.command.UpdateSectionCommand;
@@ -8,8 +9,8 @@ import com.reynolds.open_resume_platform.resumes.domain.ResumeSection;
 import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
 import com.reynolds.open_resume_platform.resumes.repository.InMemoryResumeRepository;
 import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionRepository;
-import com.reynolds.open_resume_platform.resumes.repository.InMemorySectionVersionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.ResumeRepository;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.SectionRepository;
 import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,15 +27,21 @@ class SectionVersionServiceTest {
     private SectionVersionService sectionVersionService;
     private SectionService sectionService;
     private ResumeService resumeService;
+    private ResumeMarkdownAssembler markdownAssembler;
 
     @BeforeEach
     void setUp() {
         ResumeRepository resumeRepository = new InMemoryResumeRepository();
         SectionRepository sectionRepository = new InMemorySectionRepository();
-        SectionVersionRepository sectionVersionRepository = new InMemorySectionVersionRepository();
-        resumeService = new ResumeServiceImpl(resumeRepository);
-        sectionService = new SectionServiceImpl(resumeRepository, sectionRepository, sectionVersionRepository);
-        sectionVersionService = new SectionVersionServiceImpl(sectionRepository, sectionVersionRepository);
+        SectionVersionRepository sectionVersionRepository = ResumeTestFixtures.sectionVersionRepository();
+        markdownAssembler = new ResumeMarkdownAssembler(resumeRepository, sectionRepository);
+        resumeService = new ResumeServiceImpl(resumeRepository, markdownAssembler);
+        ResumeVersionRepository resumeVersionRepository = ResumeTestFixtures.resumeVersionRepository();
+        VersionNumberAllocator allocator = new VersionNumberAllocator(resumeVersionRepository, sectionVersionRepository);
+        ResumeLocks resumeLocks = new ResumeLocks();
+        sectionService = new SectionServiceImpl(resumeRepository, sectionRepository, sectionVersionRepository, resumeVersionRepository,
+                allocator, resumeLocks, markdownAssembler);
+        sectionVersionService = new SectionVersionServiceImpl(sectionRepository, sectionVersionRepository, allocator, resumeLocks, markdownAssembler);
     }
 
     @Test
@@ -102,6 +109,22 @@ class SectionVersionServiceTest {
         assertEquals("Original", historyAfter.get(0).markdown());
     }
 
+    @Test
+    void restore_ofCurrentContent_doesNotAppendVersion() {
+        Resume resume = resumeService.create(new CreateResumeCommand(
+                "My Resume", null, null, "t1", "# Content"
+        ));
+        ResumeSection section = sectionService.create(resume.id(), new CreateSectionCommand("Profile", "Original", null));
+        ResumeSection current = sectionService.update(section.id(), new UpdateSectionCommand("Profile", "Current")).orElseThrow();
+        SectionVersion latest = sectionVersionService.listHistory(section.id()).get(0);
+
+        ResumeSection restored = sectionVersionService.restore(section.id(), latest.id()).orElseThrow();
+
+        assertEquals(current.updatedAt(), restored.updatedAt());
+        assertEquals(current.contentDigest(), restored.contentDigest());
+        assertEquals(2, sectionVersionService.listHistory(section.id()).size());
+    }
+
     @Test
     void restore_whenVersionNotFound_returnsEmpty() {
         Resume resume = resumeService.create(new CreateResumeCommand(
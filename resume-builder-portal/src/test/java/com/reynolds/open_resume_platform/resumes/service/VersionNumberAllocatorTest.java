@@ -0,0 +1,51 @@
+package com.reynolds.open_resume_platform.resumes.service;
+
+import com.reynolds.open_resume_platform.resumes.ResumeTestFixtures;
+import com.reynolds.open_resume_platform.resumes.domain.ResumeVersion;
+import com.reynolds.open_resume_platform.resumes.domain.SectionVersion;
+import com.reynolds.open_resume_platform.resumes.repository.ResumeVersionRepository;
+import com.reynolds.open_resume_platform.resumes.repository.SectionVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VersionNumberAllocatorTest {
+
+    private ResumeVersionRepository resumeVersionRepository;
+    private SectionVersionRepository sectionVersionRepository;
+    private VersionNumberAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        resumeVersionRepository = ResumeTestFixtures.resumeVersionRepository();
+        sectionVersionRepository = ResumeTestFixtures.sectionVersionRepository();
+        allocator = new VersionNumberAllocator(resumeVersionRepository, sectionVersionRepository);
+    }
+
+    @Test
+    void nextResumeVersionNo_startsAtOneAndIsIndependentPerResume() {
+        assertEquals(1, allocator.nextResumeVersionNo("r1"));
+        assertEquals(2, allocator.nextResumeVersionNo("r1"));
+        assertEquals(1, allocator.nextResumeVersionNo("r2"));
+    }
+
+    @Test
+    void nextResumeVersionNo_continuesFromLatestStoredVersion() {
+        resumeVersionRepository.save(new ResumeVersion("v7", "r1", 7, null, "# Seven", "t1", Instant.now()));
+
+        assertEquals(8, allocator.nextResumeVersionNo("r1"));
+    }
+
+    @Test
+    void nextSectionVersionNo_continuesFromLatestStoredVersion() {
+        sectionVersionRepository.save(new SectionVersion("sv1", "s1", 1, "One", Instant.now()));
+        sectionVersionRepository.save(new SectionVersion("sv3", "s1", 3, "Three", Instant.now()));
+
+        assertEquals(4, allocator.nextSectionVersionNo("s1"));
+        assertEquals(5, allocator.nextSectionVersionNo("s1"));
+        assertEquals(1, allocator.nextSectionVersionNo("s2"));
+    }
+}